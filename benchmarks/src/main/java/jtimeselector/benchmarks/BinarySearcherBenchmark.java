@@ -0,0 +1,67 @@
+package jtimeselector.benchmarks;
+
+import com.vorono4ka.BinarySearcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches in sorted arrays of unique values and of values with long runs of duplicates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinarySearcherBenchmark {
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    /**
+     * Count of the consecutive equal values.
+     */
+    @Param({"1", "1000"})
+    public int duplicates;
+
+    private long[] values;
+    private long[] queries;
+    private int queryIndex;
+
+    @Setup
+    public void setUp() {
+        values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = (long) (i / duplicates) * 10;
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        queries = new long[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queries[i] = random.nextLong(values[size - 1] + 10);
+        }
+    }
+
+    private long nextQuery() {
+        queryIndex = (queryIndex + 1) & (QUERY_COUNT - 1);
+        return queries[queryIndex];
+    }
+
+    @Benchmark
+    public int firstGreaterThanOrEqual() {
+        return BinarySearcher.firstGreaterThanOrEqual(values, nextQuery());
+    }
+
+    @Benchmark
+    public int lastLessThanOrEqual() {
+        return BinarySearcher.lastLessThanOrEqual(values, nextQuery());
+    }
+
+    @Benchmark
+    public int indexOfClosest() {
+        return BinarySearcher.indexOfClosest(values, nextQuery());
+    }
+}
@@ -0,0 +1,67 @@
+package jtimeselector.benchmarks;
+
+import jtimeselector.VisibleAreaManager;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the value closest to the cursor across all layers, as when the user clicks into an interval of layers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClosestTimeBenchmark {
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"10", "100"})
+    public int layerCount;
+
+    @Param({"100000"})
+    public int entriesPerLayer;
+
+    /**
+     * Memory budget of the index merging the values of neighbouring layers, zero searches every layer on its own.
+     */
+    @Param({"0", "1073741824"})
+    public long indexMemoryBudget;
+
+    private TimelineManager timelineManager;
+    private long[] queries;
+    private int queryIndex;
+
+    @Setup
+    public void setUp() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        timelineManager = new TimelineManager(visibleAreaManager, Long::toString);
+        timelineManager.getNearestTimeIndex().setMemoryBudget(indexMemoryBudget);
+        for (int layer = 0; layer < layerCount; layer++) {
+            long[] values = Datasets.clustered(entriesPerLayer, 100 + layer);
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "Layer " + layer, values));
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        queries = new long[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queries[i] = random.nextLong(timelineManager.getMaxTime());
+        }
+    }
+
+    @Benchmark
+    public long acrossAllLayers() {
+        queryIndex = (queryIndex + 1) & (QUERY_COUNT - 1);
+        return timelineManager.getClosestTime(queries[queryIndex], 0, layerCount - 1);
+    }
+
+    @Benchmark
+    public long singleLayer() {
+        queryIndex = (queryIndex + 1) & (QUERY_COUNT - 1);
+        return timelineManager.getClosestTime(queries[queryIndex], 0);
+    }
+}
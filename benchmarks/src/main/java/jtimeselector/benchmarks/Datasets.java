@@ -0,0 +1,28 @@
+package jtimeselector.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic time values resembling recorded sessions.
+ */
+final class Datasets {
+    private Datasets() {
+    }
+
+    /**
+     * @param size        count of the values
+     * @param averageStep average distance between two neighbouring values
+     * @return sorted values which come in bursts separated by pauses
+     */
+    static long[] clustered(int size, long averageStep) {
+        SplittableRandom random = new SplittableRandom(size * 31L + averageStep);
+        long[] values = new long[size];
+        long time = 0;
+        for (int i = 0; i < size; i++) {
+            // every 64th value starts a new burst after a long pause
+            time += (i & 63) == 0 ? averageStep * 32 : random.nextLong(1, averageStep / 2 + 2);
+            values[i] = time;
+        }
+        return values;
+    }
+}
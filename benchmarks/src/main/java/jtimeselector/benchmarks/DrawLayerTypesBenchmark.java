@@ -0,0 +1,42 @@
+package jtimeselector.benchmarks;
+
+import jtimeselector.RenderingEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Draws one frame of each kind of layer by the default engine without the tile cache,
+ * so that every frame draws all the entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class DrawLayerTypesBenchmark extends LayerFrameBenchmark {
+    /**
+     * Count of the entries of all layers together.
+     */
+    @Param({"1000", "100000", "10000000"})
+    public int entries;
+
+    /**
+     * Whether the entries are drawn as markers, as a heat map of their density, as a graph of values,
+     * as spans or as bands of states.
+     */
+    @Param({"TimeEntry", "Density", "ValueGraph", "Span", "State"})
+    public String layerType;
+
+    @Setup
+    public void setUp() {
+        createFrame(entries, RenderingEngine.Java2D, false, layerType);
+    }
+
+    @Benchmark
+    public BufferedImage drawLayers() {
+        return drawFrame();
+    }
+}
@@ -0,0 +1,46 @@
+package jtimeselector.benchmarks;
+
+import jtimeselector.RenderingEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Draws one frame of time entry layers by every rendering engine, with and without the tile cache.
+ * The other kinds of layers are compared by {@link DrawLayerTypesBenchmark}.
+ * A dataset of 100M entries needs a heap of about 2 GB and can be run on its own,
+ * for example {@code -p entries=100000000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class DrawLayersBenchmark extends LayerFrameBenchmark {
+    /**
+     * Count of the entries of all layers together.
+     */
+    @Param({"1000", "100000", "10000000"})
+    public int entries;
+
+    @Param({"Java2D", "DirectRaster", "Sprites"})
+    public RenderingEngine engine;
+
+    /**
+     * Whether the tiles drawn in the previous frames are reused.
+     */
+    @Param({"false", "true"})
+    public boolean tileCache;
+
+    @Setup
+    public void setUp() {
+        createFrame(entries, engine, tileCache, "TimeEntry");
+    }
+
+    @Benchmark
+    public BufferedImage drawLayers() {
+        return drawFrame();
+    }
+}
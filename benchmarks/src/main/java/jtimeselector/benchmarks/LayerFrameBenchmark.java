@@ -0,0 +1,98 @@
+package jtimeselector.benchmarks;
+
+import jtimeselector.JTimeSelector;
+import jtimeselector.RenderingEngine;
+import jtimeselector.VisibleAreaManager;
+import jtimeselector.layers.DensityLayer;
+import jtimeselector.layers.FrameLayout;
+import jtimeselector.layers.Layer;
+import jtimeselector.layers.SpanLayer;
+import jtimeselector.layers.StateLayer;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import jtimeselector.layers.ValueGraphLayer;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Frame of the layers drawn into an image without any Swing component, shared by the drawing benchmarks.
+ */
+abstract class LayerFrameBenchmark {
+    private static final int WIDTH = 1600;
+    private static final int HEIGHT = 400;
+    private static final int LAYER_COUNT = 10;
+
+    private TimelineManager timelineManager;
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private FrameLayout layout;
+
+    /**
+     * @param entries count of the entries of all layers together
+     * @param engine engine which draws the entries
+     * @param tileCache whether the tiles drawn in the previous frames are reused
+     * @param layerType kind of the layers, one of TimeEntry, Density, ValueGraph, Span and State
+     */
+    protected void createFrame(int entries, RenderingEngine engine, boolean tileCache, String layerType) {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        timelineManager = new TimelineManager(visibleAreaManager, Long::toString);
+        timelineManager.setRenderingEngine(engine);
+        if (!tileCache) {
+            timelineManager.getTileCache().setMemoryBudget(0);
+        }
+        for (int layer = 0; layer < LAYER_COUNT; layer++) {
+            long[] values = Datasets.clustered(entries / LAYER_COUNT, 1000 + layer);
+            timelineManager.addLayer(createLayer(visibleAreaManager, layerType, "Layer " + layer, values));
+        }
+
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        graphics.setFont(new Font(Font.DIALOG, Font.PLAIN, 15));
+        graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        layout = timelineManager.createFrameLayout(graphics, timelineManager.getMinTime(), timelineManager.getMaxTime(), WIDTH, HEIGHT);
+    }
+
+    private Layer createLayer(VisibleAreaManager visibleAreaManager, String layerType, String name, long[] values) {
+        switch (layerType) {
+            case "Density":
+                return new DensityLayer(timelineManager, visibleAreaManager, name, values);
+            case "ValueGraph":
+                double[] graphValues = new double[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    graphValues[i] = Math.sin(i / 1000.0) + Math.sin(i * 0.37) * 0.1;
+                }
+                return new ValueGraphLayer(timelineManager, visibleAreaManager, name, values, graphValues);
+            case "Span":
+                long[] ends = new long[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    ends[i] = values[i] + (i % 7) * 1000L;
+                }
+                return new SpanLayer(timelineManager, visibleAreaManager, name, values, ends);
+            case "State":
+                int[] states = new int[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    states[i] = (i / 16) % 4;
+                }
+                return new StateLayer(timelineManager, visibleAreaManager, name, values, states, null);
+            default:
+                return new TimeEntryLayer(timelineManager, visibleAreaManager, name, values);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    protected BufferedImage drawFrame() {
+        graphics.setColor(JTimeSelector.BACKGROUND_COLOR);
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        timelineManager.drawLayers(graphics, layout, image);
+        return image;
+    }
+}
@@ -0,0 +1,96 @@
+package jtimeselector.benchmarks;
+
+import com.vorono4ka.LongList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grows and shrinks the list the way the layers do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LongListBenchmark {
+    /**
+     * Count of the values removed by one invocation of the remove benchmarks.
+     */
+    private static final int REMOVALS = 100;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private long[] chunk;
+    private LongList list;
+
+    @Setup
+    public void setUp() {
+        chunk = new long[size];
+        for (int i = 0; i < size; i++) {
+            chunk[i] = i;
+        }
+    }
+
+    /**
+     * Fills a list of its own, so the removals never touch the shared chunk.
+     */
+    @Setup(Level.Iteration)
+    public void fillList() {
+        list = new LongList(size * 2);
+        list.addAll(chunk);
+        list.addAll(chunk);
+    }
+
+    @Benchmark
+    public LongList add() {
+        LongList result = new LongList();
+        for (int i = 0; i < size; i++) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public LongList addAll() {
+        LongList result = new LongList();
+        result.addAll(chunk);
+        return result;
+    }
+
+    /**
+     * Removes the first values, which moves all the other values.
+     * The list keeps between one and two chunks of values, it is refilled from the chunk when it gets shorter.
+     */
+    @Benchmark
+    @OperationsPerInvocation(REMOVALS)
+    public LongList removeFirst() {
+        refillList();
+        for (int i = 0; i < REMOVALS; i++) {
+            list.remove(0);
+        }
+        return list;
+    }
+
+    /**
+     * Removes the last values, which moves nothing.
+     * The list keeps between one and two chunks of values, it is refilled from the chunk when it gets shorter.
+     */
+    @Benchmark
+    @OperationsPerInvocation(REMOVALS)
+    public LongList removeLast() {
+        refillList();
+        for (int i = 0; i < REMOVALS; i++) {
+            list.remove(list.size() - 1);
+        }
+        return list;
+    }
+
+    private void refillList() {
+        if (list.size() < size + REMOVALS) {
+            list.addAll(chunk);
+        }
+    }
+}
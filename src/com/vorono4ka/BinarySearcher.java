@@ -1,5 +1,7 @@
 package com.vorono4ka;
 
+import com.vorono4ka.interfaces.LongSequence;
+
 import java.util.Arrays;
 
 public class BinarySearcher {
@@ -19,14 +21,16 @@ public class BinarySearcher {
      *
      * @param array array sorted in the ascending order
      * @param value searching value
-     * @return index of first element that is greater than or equal to value if element exists, otherwise array length
+     * @param fromIndex index of the first element to be searched
+     * @param toIndex index after the last element to be searched
+     * @return index of first element that is greater than or equal to value if element exists, otherwise index of the last element
      */
     public static int firstGreaterThanOrEqual(long[] array, long value, int fromIndex, int toIndex) {
-        int foundIndex = Arrays.binarySearch(array, value);
+        int foundIndex = Arrays.binarySearch(array, fromIndex, toIndex, value);
         if (foundIndex < 0) {
             int insertionPoint = -(foundIndex + 1);
-            if (insertionPoint == array.length) {
-                return array.length - 1;
+            if (insertionPoint == toIndex) {
+                return toIndex - 1;
             }
 
             return insertionPoint;
@@ -51,7 +55,9 @@ public class BinarySearcher {
      *
      * @param array array sorted in the ascending order
      * @param value searching value
-     * @return index of last element which is less than or equal to value if element exists, otherwise -1
+     * @param fromIndex index of the first element to be searched
+     * @param toIndex index after the last element to be searched
+     * @return index of last element which is less than or equal to value if element exists, otherwise fromIndex - 1
      */
     public static int lastLessThanOrEqual(long[] array, long value, int fromIndex, int toIndex) {
         int foundIndex = Arrays.binarySearch(array, fromIndex, toIndex, value);
@@ -73,28 +79,31 @@ public class BinarySearcher {
      *
      * @param array array sorted in the ascending order
      * @param value searching value
-     * @return index of the closest element if array isn't empty, otherwise -1
+     * @param fromIndex index of the first element to be searched
+     * @param toIndex index after the last element to be searched
+     * @return index of the closest element if the range isn't empty, otherwise -1
      */
     public static int indexOfClosest(long[] array, long value, int fromIndex, int toIndex) {
-        if (array.length == 0) return -1;
-        int foundIndex = Arrays.binarySearch(array, value);
+        if (fromIndex >= toIndex) return -1;
+        int foundIndex = Arrays.binarySearch(array, fromIndex, toIndex, value);
         if (foundIndex >= 0) { // array contains the given value, find the leftmost occurrence
             return getLeftmost(array, value, foundIndex, fromIndex, toIndex);
         }
 
         int insertionPoint = -(foundIndex + 1);
-        if (insertionPoint <= 0) {
+        if (insertionPoint <= fromIndex) {
             return insertionPoint;
         }
 
-        if (insertionPoint == array.length) {
+        if (insertionPoint == toIndex) {
             return insertionPoint - 1;
         }
 
-        double d1 = Math.abs(array[insertionPoint - 1] - value);
-        double d2 = Math.abs(array[insertionPoint] - value);
+        // the searched value lies between the two elements, the distances don't fit into a signed long
+        long d1 = value - array[insertionPoint - 1];
+        long d2 = array[insertionPoint] - value;
 
-        if (d1 <= d2) {
+        if (Long.compareUnsigned(d1, d2) <= 0) {
             foundIndex = insertionPoint - 1;
         } else {
             foundIndex = insertionPoint;
@@ -110,16 +119,8 @@ public class BinarySearcher {
      * @return leftmost index of value
      */
     public static int getLeftmost(long[] array, long value, int index, int fromIndex, int toIndex) {
-        while (index - 1 >= 0) {
-            if (index < fromIndex || index > toIndex) {
-                break;
-            }
-
-            if (array[index - 1] == value) {
-                index--;
-            } else {
-                break;
-            }
+        while (index - 1 >= fromIndex && array[index - 1] == value) {
+            index--;
         }
         return index;
     }
@@ -131,17 +132,118 @@ public class BinarySearcher {
      * @return rightmost index of value
      */
     public static int getRightmost(long[] array, long value, int index, int fromIndex, int toIndex) {
-        while (index + 1 < array.length) {
-            if (index < fromIndex || index > toIndex) {
-                break;
-            }
+        while (index + 1 < toIndex && array[index + 1] == value) {
+            index++;
+        }
+        return index;
+    }
 
-            if (array[index + 1] == value) {
-                index++;
-            } else {
-                break;
-            }
+    /**
+     * Returns the index of the first element in the sequence, which is greater
+     * than or equal to 'value'
+     *
+     * @param sequence sequence sorted in the ascending order
+     * @param value searching value
+     * @return index of first element that is greater than or equal to value if element exists, otherwise index of the last element
+     * @see #firstGreaterThanOrEqual(long[], long, int, int)
+     */
+    public static int firstGreaterThanOrEqual(LongSequence sequence, long value) {
+        if (sequence instanceof LongList list) {
+            return firstGreaterThanOrEqual(list.getArray(), value, 0, list.size());
+        }
+
+        int index = lowerBound(sequence, value);
+        return index == sequence.size() ? index - 1 : index;
+    }
+
+    /**
+     * Gets the index of the last element in the sequence which is less than or
+     * equal to the given number.
+     *
+     * @param sequence sequence sorted in the ascending order
+     * @param value searching value
+     * @return index of last element which is less than or equal to value if element exists, otherwise -1
+     * @see #lastLessThanOrEqual(long[], long, int, int)
+     */
+    public static int lastLessThanOrEqual(LongSequence sequence, long value) {
+        if (sequence instanceof LongList list) {
+            return lastLessThanOrEqual(list.getArray(), value, 0, list.size());
+        }
+
+        return upperBound(sequence, value) - 1;
+    }
+
+    /**
+     * Gets the index of such element in the sequence, that distance of argument
+     * 'value' from this element is smallest. If the closest value is not
+     * determined unambiguously, index of the leftmost them is returned.
+     *
+     * @param sequence sequence sorted in the ascending order
+     * @param value searching value
+     * @return index of the closest element if sequence isn't empty, otherwise -1
+     * @see #indexOfClosest(long[], long, int, int)
+     */
+    public static int indexOfClosest(LongSequence sequence, long value) {
+        if (sequence instanceof LongList list) {
+            return indexOfClosest(list.getArray(), value, 0, list.size());
+        }
+
+        int size = sequence.size();
+        if (size == 0) return -1;
+
+        int index = lowerBound(sequence, value);
+        if (index == size) {
+            return size - 1;
+        }
+        if (index == 0 || sequence.get(index) == value) {
+            return index;
+        }
+
+        // the searched value lies between the two elements, the distances don't fit into a signed long
+        long previous = sequence.get(index - 1);
+        if (Long.compareUnsigned(value - previous, sequence.get(index) - value) <= 0) {
+            return lowerBound(sequence, previous);
         }
         return index;
     }
+
+    /**
+     * @param sequence sequence sorted in the ascending order
+     * @param value searching value
+     * @return index of the first element which is not less than value, or size of the sequence if there is no such element
+     */
+    public static int lowerBound(LongSequence sequence, long value) {
+        return lowerBound(sequence, value, 0, sequence.size());
+    }
+
+    /**
+     * @param sequence sequence sorted in the ascending order
+     * @param value searching value
+     * @param fromIndex index of the first element to be searched
+     * @param toIndex index after the last element to be searched
+     * @return index of the first element in the range which is not less than value, or toIndex if there is no such element
+     */
+    public static int lowerBound(LongSequence sequence, long value, int fromIndex, int toIndex) {
+        return sequence.lowerBound(value, fromIndex, toIndex);
+    }
+
+    /**
+     * @param sequence sequence sorted in the ascending order
+     * @param value searching value
+     * @return index of the first element which is greater than value, or size of the sequence if there is no such element
+     */
+    public static int upperBound(LongSequence sequence, long value) {
+        return upperBound(sequence, value, 0, sequence.size());
+    }
+
+    /**
+     * @param sequence sequence sorted in the ascending order
+     * @param value searching value
+     * @param fromIndex index of the first element to be searched
+     * @param toIndex index after the last element to be searched
+     * @return index of the first element in the range which is greater than value, or toIndex if there is no such element
+     */
+    public static int upperBound(LongSequence sequence, long value, int fromIndex, int toIndex) {
+        return sequence.upperBound(value, fromIndex, toIndex);
+    }
 }
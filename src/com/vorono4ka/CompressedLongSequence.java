@@ -0,0 +1,315 @@
+package com.vorono4ka;
+
+import com.vorono4ka.interfaces.LongSequence;
+
+import java.util.Arrays;
+
+/**
+ * An immutable sequence of sorted longs compressed with delta-of-delta encoding.
+ * <p>
+ * The values are split into blocks of {@link #BLOCK_SIZE} values. A block stores the difference
+ * between its first two values as a varint, followed by the differences of the consecutive
+ * differences (delta-of-delta), all bit-packed with the smallest width that fits the block.
+ * Values sampled by a regular clock therefore take only a few bits each.
+ * <p>
+ * The first and last value and the offset of every block are kept in an index, so searches
+ * find the block by a binary search over the index and decode only that single block.
+ */
+public class CompressedLongSequence implements LongSequence {
+    public static final int BLOCK_SIZE = 128;
+
+    private final byte[] data;
+    private final int[] blockOffsets;
+    private final long[] blockFirstValues;
+    private final long[] blockLastValues;
+    private final int size;
+
+    /**
+     * The last decoded block. Sequential reading of the values decodes each block only once.
+     * The block is replaced as a whole, so reading it from more threads is safe.
+     */
+    private DecodedBlock lastBlock;
+
+    private CompressedLongSequence(byte[] data, int[] blockOffsets, long[] blockFirstValues, long[] blockLastValues, int size) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.blockFirstValues = blockFirstValues;
+        this.blockLastValues = blockLastValues;
+        this.size = size;
+    }
+
+    public static CompressedLongSequence of(long[] values) {
+        return of(new LongList(values));
+    }
+
+    /**
+     * @param values values sorted in the ascending order
+     * @return compressed copy of the values
+     * @throws IllegalArgumentException if the values are not sorted
+     */
+    public static CompressedLongSequence of(LongSequence values) {
+        int size = values.size();
+        int blockCount = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[] blockOffsets = new int[blockCount];
+        long[] blockFirstValues = new long[blockCount];
+        long[] blockLastValues = new long[blockCount];
+        BitWriter writer = new BitWriter(Math.max(size / 4, 16));
+
+        long[] block = new long[BLOCK_SIZE];
+        for (int blockIndex = 0; blockIndex < blockCount; blockIndex++) {
+            int from = blockIndex * BLOCK_SIZE;
+            int count = Math.min(BLOCK_SIZE, size - from);
+            for (int i = 0; i < count; i++) {
+                block[i] = values.get(from + i);
+                if ((i > 0 && block[i] < block[i - 1]) || (i == 0 && blockIndex > 0 && block[0] < blockLastValues[blockIndex - 1])) {
+                    throw new IllegalArgumentException("Values must be sorted in the ascending order.");
+                }
+            }
+
+            blockOffsets[blockIndex] = writer.size();
+            blockFirstValues[blockIndex] = block[0];
+            blockLastValues[blockIndex] = block[count - 1];
+            encodeBlock(writer, block, count);
+        }
+
+        return new CompressedLongSequence(writer.toByteArray(), blockOffsets, blockFirstValues, blockLastValues, size);
+    }
+
+    private static void encodeBlock(BitWriter writer, long[] block, int count) {
+        if (count < 2) return;
+
+        long firstDelta = block[1] - block[0];
+        writer.writeVarLong(firstDelta);
+
+        long maxEncoded = 0;
+        for (int i = 2; i < count; i++) {
+            maxEncoded |= zigZag((block[i] - block[i - 1]) - (block[i - 1] - block[i - 2]));
+        }
+        int width = Long.SIZE - Long.numberOfLeadingZeros(maxEncoded);
+        writer.writeByte(width);
+
+        for (int i = 2; i < count; i++) {
+            writer.writeBits(zigZag((block[i] - block[i - 1]) - (block[i - 1] - block[i - 2])), width);
+        }
+        writer.flushBits();
+    }
+
+    private DecodedBlock decodeBlock(int blockIndex) {
+        DecodedBlock decoded = lastBlock;
+        if (decoded != null && decoded.index == blockIndex) {
+            return decoded;
+        }
+
+        int count = Math.min(BLOCK_SIZE, size - blockIndex * BLOCK_SIZE);
+        long[] values = new long[count];
+        values[0] = blockFirstValues[blockIndex];
+        if (count > 1) {
+            BitReader reader = new BitReader(data, blockOffsets[blockIndex]);
+            long delta = reader.readVarLong();
+            values[1] = values[0] + delta;
+
+            int width = reader.readByte();
+            for (int i = 2; i < count; i++) {
+                delta += zigZagDecode(reader.readBits(width));
+                values[i] = values[i - 1] + delta;
+            }
+        }
+
+        decoded = new DecodedBlock(blockIndex, values);
+        lastBlock = decoded;
+        return decoded;
+    }
+
+    @Override
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        return decodeBlock(index / BLOCK_SIZE).values[index % BLOCK_SIZE];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A full-resolution pyramid would take several bytes per value, many times more than the compressed values.
+     * Layers draw the values without it and skip the values on the same pixel by a binary search.
+     *
+     * @return false, the pyramid is not built over compressed values
+     */
+    @Override
+    public boolean supportsPyramid() {
+        return false;
+    }
+
+    /**
+     * @return count of bytes taken by the compressed values and the block index
+     */
+    public long getCompressedSize() {
+        return data.length + (long) blockOffsets.length * (Integer.BYTES + 2 * Long.BYTES);
+    }
+
+    /**
+     * Searches the last values of the blocks first, so only one block is decoded.
+     */
+    @Override
+    public int lowerBound(long value, int fromIndex, int toIndex) {
+        return search(value, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Searches the last values of the blocks first, so only one block is decoded.
+     */
+    @Override
+    public int upperBound(long value, int fromIndex, int toIndex) {
+        return search(value, fromIndex, toIndex, true);
+    }
+
+    private int search(long value, int fromIndex, int toIndex, boolean strictlyGreater) {
+        if (fromIndex >= toIndex) {
+            return toIndex;
+        }
+
+        int low = fromIndex / BLOCK_SIZE;
+        int high = (toIndex - 1) / BLOCK_SIZE + 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long last = blockLastValues[middle];
+            if (strictlyGreater ? last <= value : last < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        int blockStart = low * BLOCK_SIZE;
+        if (blockStart >= toIndex) {
+            return toIndex;
+        }
+
+        long[] values = decodeBlock(low).values;
+        int index = Math.max(fromIndex - blockStart, 0);
+        int end = Math.min(toIndex - blockStart, values.length);
+        while (index < end && (strictlyGreater ? values[index] <= value : values[index] < value)) {
+            index++;
+        }
+        return index == end ? toIndex : blockStart + index;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private record DecodedBlock(int index, long[] values) {
+    }
+
+    private static class BitWriter {
+        private byte[] bytes;
+        private int size;
+        private long bitBuffer;
+        private int bitCount;
+
+        BitWriter(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length + (bytes.length >> 1) + 1);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            long encoded = zigZag(value);
+            while ((encoded & ~0x7FL) != 0) {
+                writeByte((int) ((encoded & 0x7F) | 0x80));
+                encoded >>>= 7;
+            }
+            writeByte((int) encoded);
+        }
+
+        void writeBits(long value, int width) {
+            if (width > 32) {
+                writeBits(value & 0xFFFFFFFFL, 32);
+                writeBits(value >>> 32, width - 32);
+                return;
+            }
+
+            bitBuffer |= (value & ((1L << width) - 1)) << bitCount;
+            bitCount += width;
+            while (bitCount >= 8) {
+                writeByte((int) bitBuffer);
+                bitBuffer >>>= 8;
+                bitCount -= 8;
+            }
+        }
+
+        void flushBits() {
+            if (bitCount > 0) {
+                writeByte((int) bitBuffer);
+            }
+            bitBuffer = 0;
+            bitCount = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static class BitReader {
+        private final byte[] bytes;
+        private int position;
+        private long bitBuffer;
+        private int bitCount;
+
+        BitReader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        int readByte() {
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long encoded = 0;
+            int shift = 0;
+            int current;
+            do {
+                current = readByte();
+                encoded |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return zigZagDecode(encoded);
+        }
+
+        long readBits(int width) {
+            if (width > 32) {
+                long low = readBits(32);
+                return low | (readBits(width - 32) << 32);
+            }
+
+            while (bitCount < width) {
+                bitBuffer |= (bytes[position++] & 0xFFL) << bitCount;
+                bitCount += 8;
+            }
+            long result = bitBuffer & ((1L << width) - 1);
+            bitBuffer >>>= width;
+            bitCount -= width;
+            return result;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.vorono4ka;
 
+import com.vorono4ka.interfaces.AppendableLongSequence;
+
 import java.util.Arrays;
 
-public class LongList {
+public class LongList implements AppendableLongSequence {
     public static final int DEFAULT_SIZE = 8;
 
     private long[] array;
@@ -25,6 +27,7 @@ public class LongList {
         this.size = array.length;
     }
 
+    @Override
     public long get(int index) {
         if (index >= size) {
             throw new IndexOutOfBoundsException(index);
@@ -42,20 +45,43 @@ public class LongList {
     }
 
     public void add(long value) {
-        if (size >= array.length) {
-            array = Arrays.copyOf(array, size + DEFAULT_SIZE);
-        }
+        ensureCapacity(size + 1);
         array[size++] = value;
     }
 
     public void addAll(LongList list) {
-        if (list.size > 0) {
-            int newSize = size + list.size;
-            if (newSize > array.length) {
-                array = Arrays.copyOf(array, newSize);
-            }
-            System.arraycopy(list.array, 0, array, size, list.size);
-            size = newSize;
+        addAll(list.array, 0, list.size);
+    }
+
+    @Override
+    public void addAll(long[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    /**
+     * @param values array of values to add
+     * @param fromIndex index of the first value to add
+     * @param toIndex index after the last value to add
+     */
+    public void addAll(long[] values, int fromIndex, int toIndex) {
+        int count = toIndex - fromIndex;
+        if (count > 0) {
+            ensureCapacity(size + count);
+            System.arraycopy(values, fromIndex, array, size, count);
+            size += count;
+        }
+    }
+
+    /**
+     * Grows the array by at least a half of its length, so that adding
+     * of n values copies the array only O(log n) times.
+     *
+     * @param capacity required count of elements
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > array.length) {
+            int newLength = Math.max(capacity, Math.max(array.length + (array.length >> 1), DEFAULT_SIZE));
+            array = Arrays.copyOf(array, newLength);
         }
     }
 
@@ -125,6 +151,7 @@ public class LongList {
     /**
      * @return list size
      */
+    @Override
     public int size() {
         return size;
     }
@@ -0,0 +1,136 @@
+package com.vorono4ka;
+
+import com.vorono4ka.interfaces.AppendableLongSequence;
+
+/**
+ * A list of longs which can be added to the end and removed from the beginning in O(1).
+ * The values are kept in a circular array, which grows only when it is full.
+ */
+public class LongRingBuffer implements AppendableLongSequence {
+    public static final int DEFAULT_SIZE = 8;
+
+    private long[] array;
+    private int head;
+    private int size;
+
+    /**
+     * {@code capacity} defaults to {@link #DEFAULT_SIZE}
+     * @see #LongRingBuffer(int) LongRingBuffer
+     */
+    public LongRingBuffer() {
+        this(DEFAULT_SIZE);
+    }
+
+    public LongRingBuffer(int capacity) {
+        this.array = new long[Math.max(capacity, 1)];
+    }
+
+    @Override
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        int arrayIndex = head + index;
+        if (arrayIndex >= array.length) {
+            arrayIndex -= array.length;
+        }
+        return array[arrayIndex];
+    }
+
+    public void add(long value) {
+        ensureCapacity(size + 1);
+
+        int tail = head + size;
+        if (tail >= array.length) {
+            tail -= array.length;
+        }
+        array[tail] = value;
+        size++;
+    }
+
+    @Override
+    public void addAll(long[] values) {
+        ensureCapacity(size + values.length);
+        for (long value : values) {
+            add(value);
+        }
+    }
+
+    /**
+     * Removes the given count of values from the beginning of the buffer.
+     *
+     * @param count count of values to remove
+     */
+    public void removeFirst(int count) {
+        if (count < 0 || count > size) {
+            throw new IndexOutOfBoundsException(count);
+        }
+
+        head += count;
+        if (head >= array.length) {
+            head -= array.length;
+        }
+        size -= count;
+    }
+
+    /**
+     * Grows the array by at least a half of its length. The values are unwrapped,
+     * so they start at the beginning of the new array.
+     *
+     * @param capacity required count of elements
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= array.length) {
+            return;
+        }
+
+        long[] newArray = new long[Math.max(capacity, array.length + (array.length >> 1))];
+        int firstPartLength = Math.min(size, array.length - head);
+        System.arraycopy(array, head, newArray, 0, firstPartLength);
+        System.arraycopy(array, 0, newArray, firstPartLength, size - firstPartLength);
+        array = newArray;
+        head = 0;
+    }
+
+    /**
+     * @return buffer values as array
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int firstPartLength = Math.min(size, array.length - head);
+        System.arraycopy(array, head, result, 0, firstPartLength);
+        System.arraycopy(array, 0, result, firstPartLength, size - firstPartLength);
+        return result;
+    }
+
+    /**
+     * @return count of values in the buffer
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return count of values the buffer can hold without growing
+     */
+    public int capacity() {
+        return array.length;
+    }
+
+    /**
+     * @return index of the array at which the first value is kept, the values wrap around the end of the array unless it is zero
+     */
+    public int getHead() {
+        return head;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.vorono4ka;
+
+import com.vorono4ka.interfaces.LongSequence;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only sequence of longs stored in a file which is mapped into memory.
+ * <p>
+ * The values are read directly from the file by the operating system when they are needed,
+ * so opening a file takes the same time regardless of its size and the values take no space on the heap.
+ * A single mapping cannot be larger than 2 GB, therefore the file is mapped in segments.
+ */
+public class MappedLongSequence implements LongSequence {
+    private static final int SEGMENT_SHIFT = 27;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final LongBuffer[] segments;
+    private final int size;
+
+    private MappedLongSequence(LongBuffer[] segments, int size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /**
+     * {@code byteOrder} defaults to {@link ByteOrder#BIG_ENDIAN}, the order used by {@link java.io.DataOutputStream}
+     * @see #open(Path, ByteOrder)
+     */
+    public static MappedLongSequence open(Path file) throws IOException {
+        return open(file, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Maps the file with 64-bit values into memory. The file can be closed or deleted
+     * by other programs only after the sequence is no longer used.
+     *
+     * @param file      file containing only the values
+     * @param byteOrder order of bytes of the values in the file
+     * @return sequence of the values in the file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file size is not a multiple of 8 or the file contains more than {@link Integer#MAX_VALUE} values
+     */
+    public static MappedLongSequence open(Path file, ByteOrder byteOrder) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize % Long.BYTES != 0) {
+                throw new IllegalArgumentException("Size of the file " + file + " is not a multiple of " + Long.BYTES + ".");
+            }
+
+            long valueCount = fileSize / Long.BYTES;
+            if (valueCount > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The file " + file + " contains too many values.");
+            }
+
+            int size = (int) valueCount;
+            LongBuffer[] segments = new LongBuffer[(size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT];
+            for (int i = 0; i < segments.length; i++) {
+                long position = (long) i * SEGMENT_SIZE * Long.BYTES;
+                long length = Math.min((long) SEGMENT_SIZE * Long.BYTES, fileSize - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                segments[i] = buffer.order(byteOrder).asLongBuffer();
+            }
+
+            return new MappedLongSequence(segments, size);
+        }
+    }
+
+    @Override
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        return segments[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+    }
+
+    /**
+     * @return count of values in the file
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return false, building the pyramid would read the whole file
+     */
+    @Override
+    public boolean supportsPyramid() {
+        return false;
+    }
+}
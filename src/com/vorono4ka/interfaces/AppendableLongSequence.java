@@ -0,0 +1,10 @@
+package com.vorono4ka.interfaces;
+
+public interface AppendableLongSequence extends LongSequence {
+    /**
+     * Adds the values to the end of the sequence.
+     *
+     * @param values values to add
+     */
+    void addAll(long[] values);
+}
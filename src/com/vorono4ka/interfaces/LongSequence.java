@@ -0,0 +1,67 @@
+package com.vorono4ka.interfaces;
+
+/**
+ * Read-only access to an ordered sequence of long values.
+ */
+public interface LongSequence {
+    /**
+     * @return count of values in the sequence
+     */
+    int size();
+
+    /**
+     * @param index index of the value
+     * @return value on the given index
+     */
+    long get(int index);
+
+    /**
+     * Layers index all the values of their sequence in a level-of-detail pyramid, which is worth it
+     * only if reading all the values is cheap and the pyramid is small compared to the sequence.
+     *
+     * @return true if a level-of-detail pyramid may be built over the values
+     */
+    default boolean supportsPyramid() {
+        return true;
+    }
+
+    /**
+     * @param value searching value
+     * @param fromIndex index of the first element to be searched
+     * @param toIndex index after the last element to be searched
+     * @return index of the first element in the range which is not less than value, or toIndex if there is no such element
+     */
+    default int lowerBound(long value, int fromIndex, int toIndex) {
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(middle) < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param value searching value
+     * @param fromIndex index of the first element to be searched
+     * @param toIndex index after the last element to be searched
+     * @return index of the first element in the range which is greater than value, or toIndex if there is no such element
+     */
+    default int upperBound(long value, int fromIndex, int toIndex) {
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(middle) <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
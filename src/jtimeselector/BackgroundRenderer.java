@@ -0,0 +1,199 @@
+package jtimeselector;
+
+import jtimeselector.layers.FrameLayout;
+
+import javax.swing.SwingUtilities;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Draws the layers of {@link JTimeSelector} on a dedicated render thread, so that heavy frames
+ * never block the Event Dispatch Thread.
+ * <p>
+ * The render thread draws into its own canvas. A completed frame is copied into a frame buffer
+ * and handed over to the Event Dispatch Thread, which only ever draws the latest completed frame.
+ * A new request cancels the frame which is being rendered: the render thread is interrupted,
+ * stops at the next layer, tile or batch of entries and throws the unfinished frame away.
+ * A frame cancelled before its completion is never shown, even if it has been drawn to the end.
+ */
+class BackgroundRenderer {
+    private final JTimeSelector component;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Frame buffer which is not displayed anymore and can be reused for the next completed frame.
+     */
+    private final AtomicReference<BufferedImage> spareFrame = new AtomicReference<>();
+
+    // accessed only on the Event Dispatch Thread
+    private BufferedImage frame;
+    private FrameLayout frameLayout;
+    private int frameTop;
+    private Future<?> renderingFrame;
+    private int requestedFrames;
+    /**
+     * Number of the latest frame cancelled before its completion, such a frame is never shown.
+     */
+    private int cancelledFrame;
+
+    // accessed only on the render thread
+    private BufferedImage canvas;
+    private boolean canvasValid;
+
+    /**
+     * Part of the canvas which needs to be drawn again, guarded by this.
+     */
+    private Rectangle dirtyRegion;
+
+    BackgroundRenderer(JTimeSelector component) {
+        this.component = component;
+
+        // the thread terminates when there is nothing to render, so an unused component does not keep it alive
+        this.executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "JTimeSelector renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Cancels the frame which is being rendered and requests a new one.
+     *
+     * @param layout layout of the frame, null if there are no layers to draw
+     * @param font   font used for the names of the layers
+     * @param width  width of the frame
+     * @param height height of the frame
+     * @param top    y coordinate of the component at which the frame is shown
+     * @param region part of the frame which has changed since the last request, null if the whole frame has changed
+     */
+    void render(FrameLayout layout, Font font, int width, int height, int top, Rectangle region) {
+        addDirtyRegion(region != null ? region : new Rectangle(0, 0, width, height));
+
+        cancel();
+        int frameNumber = ++requestedFrames;
+        renderingFrame = executor.submit(() -> renderFrame(layout, font, width, height, top, frameNumber));
+    }
+
+    /**
+     * Cancels the frame which is being rendered. Its changes are drawn with the next requested frame.
+     *
+     * @return true if a frame has been cancelled before its completion
+     */
+    boolean cancel() {
+        if (renderingFrame == null) {
+            return false;
+        }
+
+        boolean cancelled = renderingFrame.cancel(true);
+        renderingFrame = null;
+        if (cancelled) {
+            // the render thread may have handed the frame over before it noticed the cancellation
+            cancelledFrame = requestedFrames;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Cancels rendering and terminates the render thread.
+     */
+    void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the latest completed frame or null if no frame has been completed yet
+     */
+    BufferedImage getFrame() {
+        return frame;
+    }
+
+    /**
+     * @return layout of the latest completed frame, null if there are no layers in it
+     */
+    FrameLayout getFrameLayout() {
+        return frameLayout;
+    }
+
+    /**
+     * @return y coordinate of the component at which the latest completed frame is shown
+     */
+    int getFrameTop() {
+        return frameTop;
+    }
+
+    private void renderFrame(FrameLayout layout, Font font, int width, int height, int top, int frameNumber) {
+        Rectangle region = takeDirtyRegion();
+        if (region == null || width <= 0 || height <= 0) {
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            // the region may hold the changes of the next frame, which would find nothing to draw
+            addDirtyRegion(region);
+            return;
+        }
+
+        if (canvas == null || canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            canvasValid = false;
+        }
+        if (!canvasValid) {
+            region = new Rectangle(0, 0, width, height);
+        }
+
+        canvasValid = false;
+        Graphics2D graphics = canvas.createGraphics();
+        component.drawFrame(graphics, canvas, layout, font, region);
+        graphics.dispose();
+        if (Thread.currentThread().isInterrupted()) {
+            // the canvas is incomplete, the next frame draws it whole
+            addDirtyRegion(region);
+            return;
+        }
+        canvasValid = true;
+
+        BufferedImage completedFrame = spareFrame.getAndSet(null);
+        if (completedFrame == null || completedFrame.getWidth() != width || completedFrame.getHeight() != height) {
+            completedFrame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        completedFrame.setData(canvas.getRaster());
+
+        BufferedImage finalFrame = completedFrame;
+        SwingUtilities.invokeLater(() -> showFrame(finalFrame, layout, top, frameNumber));
+    }
+
+    private void showFrame(BufferedImage completedFrame, FrameLayout layout, int top, int frameNumber) {
+        if (frameNumber <= cancelledFrame) {
+            // the changes of the frame are drawn on the canvas, the next frame shows them
+            spareFrame.set(completedFrame);
+            return;
+        }
+
+        BufferedImage previousFrame = frame;
+        frame = completedFrame;
+        frameLayout = layout;
+        frameTop = top;
+        if (previousFrame != null) {
+            spareFrame.set(previousFrame);
+        }
+        component.repaint();
+    }
+
+    private synchronized void addDirtyRegion(Rectangle region) {
+        dirtyRegion = dirtyRegion == null ? new Rectangle(region) : dirtyRegion.union(region);
+    }
+
+    private synchronized Rectangle takeDirtyRegion() {
+        Rectangle region = dirtyRegion;
+        dirtyRegion = null;
+        return region;
+    }
+}
@@ -2,7 +2,9 @@ package jtimeselector;
 
 import com.vorono4ka.MathHelper;
 import com.vorono4ka.interfaces.SelectionManager;
+import jtimeselector.layers.NearestTimeIndex;
 import jtimeselector.layers.TimelineManager;
+import jtimeselector.metrics.TimelineMetrics;
 
 public class IntervalSelectionManager implements SelectionManager {
     private final TimelineManager timelineManager;
@@ -12,6 +14,7 @@ public class IntervalSelectionManager implements SelectionManager {
     private long toTime;
     private int fromLayer;
     private int toLayer;
+    private boolean changedByRemoval;
 
     public IntervalSelectionManager(TimelineManager timelineManager) {
         this.timelineManager = timelineManager;
@@ -19,6 +22,9 @@ public class IntervalSelectionManager implements SelectionManager {
     }
 
     public void setSelection(long left, long right, int top, int bottom) {
+        TimelineMetrics metrics = timelineManager.getMetrics();
+        long start = metrics.startTiming();
+
         top = MathHelper.clamp(top, 0, this.timelineManager.getLayersBottomY() - 1);
         bottom = MathHelper.clamp(bottom, top, this.timelineManager.getLayersBottomY() - 1);
 
@@ -28,11 +34,11 @@ public class IntervalSelectionManager implements SelectionManager {
         long closestFromTime = this.timelineManager.getClosestTime(left, fromLayer, toLayer);
         long closestToTime = this.timelineManager.getClosestTime(right, fromLayer, toLayer);
 
-        if (Math.abs(closestFromTime - left) < TimeSelectionManager.SELECTION_THRESHOLD) {
+        if (closestFromTime != NearestTimeIndex.NO_TIME && Math.abs(closestFromTime - left) < TimeSelectionManager.SELECTION_THRESHOLD) {
             left = closestFromTime;
         }
 
-        if (Math.abs(closestToTime - right) < TimeSelectionManager.SELECTION_THRESHOLD) {
+        if (closestToTime != NearestTimeIndex.NO_TIME && Math.abs(closestToTime - right) < TimeSelectionManager.SELECTION_THRESHOLD) {
             right = closestToTime;
         }
 
@@ -41,6 +47,8 @@ public class IntervalSelectionManager implements SelectionManager {
         this.toTime = right;
         this.fromLayer = fromLayer;
         this.toLayer = toLayer;
+
+        metrics.recordIntervalSelection(start);
     }
 
     public void clearSelection() {
@@ -71,23 +79,52 @@ public class IntervalSelectionManager implements SelectionManager {
         return toLayer;
     }
 
+    /**
+     * Keeps the selection on the same layers after a layer has been removed.
+     * A removed selected layer is left out, the selection is cleared when no selected layer is left.
+     *
+     * @param layerIndex index which the removed layer had
+     */
+    public void layerRemoved(int layerIndex) {
+        if (!hasSelection || layerIndex > toLayer) {
+            return;
+        }
+
+        if (layerIndex < fromLayer) {
+            fromLayer--;
+        } else {
+            changedByRemoval = true;
+        }
+        toLayer--;
+        if (toLayer < fromLayer) {
+            clearSelection();
+        }
+    }
+
     /**
      * Ensures that the selected time interval does not lie out of bounds. If it
-     * does, the selected time is set to the minimal value.
+     * does, the selected time is set to the minimal value. The selected layers
+     * are trimmed to the existing layers.
      *
-     * @return false if change occurred
+     * @return false if change occurred, including the selected layers removed by {@link #layerRemoved(int)}
      */
     public boolean checkBounds() {
+        boolean removed = changedByRemoval;
+        changedByRemoval = false;
         if (!hasSelection) {
-            return true;
+            return !removed;
         }
-        if (timelineManager.isEmpty()) {
+        if (timelineManager.isEmpty() || fromLayer >= timelineManager.getLayerCount()) {
             clearSelection();
             return false;
         }
         final long minTime = timelineManager.getMinTime();
         final long maxTime = timelineManager.getMaxTime();
         boolean change = false;
+        if (toLayer >= timelineManager.getLayerCount()) {
+            toLayer = timelineManager.getLayerCount() - 1;
+            change = true;
+        }
         if (fromTime < minTime) {
             fromTime = minTime;
             change = true;
@@ -96,6 +133,6 @@ public class IntervalSelectionManager implements SelectionManager {
             toTime = maxTime;
             change = true;
         }
-        return !change;
+        return !change && !removed;
     }
 }
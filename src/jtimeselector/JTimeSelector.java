@@ -1,11 +1,22 @@
 package jtimeselector;
 
 import com.vorono4ka.MathHelper;
+import com.vorono4ka.interfaces.LongSequence;
 import jtimeselector.interfaces.TimeSelectionListener;
 import jtimeselector.interfaces.TimeSelector;
 import jtimeselector.interfaces.TimeToStringConverter;
+import jtimeselector.jfr.PaintEvent;
+import jtimeselector.layers.DensityLayer;
+import jtimeselector.layers.FrameLayout;
+import jtimeselector.layers.Layer;
+import jtimeselector.layers.LayerRows;
+import jtimeselector.layers.SpanLayer;
+import jtimeselector.layers.StateLayer;
 import jtimeselector.layers.TimeEntryLayer;
 import jtimeselector.layers.TimelineManager;
+import jtimeselector.layers.ValueGraphLayer;
+import jtimeselector.layers.Viewport;
+import jtimeselector.metrics.TimelineMetrics;
 
 import javax.swing.*;
 import java.awt.*;
@@ -13,6 +24,7 @@ import java.awt.event.InputEvent;
 import java.awt.event.MouseWheelEvent;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,19 +37,27 @@ import java.util.List;
  * A time or a time interval can also be set from outside using {@link #selectTime(long, int)} or {@link #selectTimeInterval(long, long, int, int)}.
  * <p>
  * It is possible to set how the time should be displayed to the user, an instance of {@link TimeToStringConverter} can be set either by constructor.
+ * <p>
+ * The component can be placed into a {@link JScrollPane} to scroll through many layers, only the layers scrolled into view are drawn.
  */
-public class JTimeSelector extends JPanel implements TimeSelector {
+public class JTimeSelector extends JPanel implements TimeSelector, Scrollable {
     public static final Color BACKGROUND_COLOR = Color.white;
+    public static final int DEFAULT_TARGET_FRAME_RATE = 60;
 
     private final TimelineManager timelineManager;
     private final VisibleAreaManager visibleAreaManager;
     private final List<TimeSelectionListener> listeners = new ArrayList<>();
     private final RectangleSelectionGuides rectangleGuides = new RectangleSelectionGuides();
+    private final RepaintScheduler repaintScheduler;
 
     private boolean requireRepaint = false;
+    private Rectangle dirtyRegion;
+    private BackgroundRenderer backgroundRenderer;
     private BufferedImage image;
     private int oldWidth = 0;
     private int oldHeight = 0;
+    private int oldVisibleTop = 0;
+    private int oldVisibleHeight = 0;
 
     /**
      * Creates a new component that displays a list of values in time. Long time
@@ -60,6 +80,7 @@ public class JTimeSelector extends JPanel implements TimeSelector {
     public JTimeSelector(TimeToStringConverter converter) {
         visibleAreaManager = new VisibleAreaManager();
         timelineManager = new TimelineManager(visibleAreaManager, converter);
+        repaintScheduler = new RepaintScheduler(this, timelineManager, visibleAreaManager);
         setFont(getFont().deriveFont(15f));
         addMouseWheelListener(this::mouseWheelMoved);
 
@@ -76,19 +97,52 @@ public class JTimeSelector extends JPanel implements TimeSelector {
 
     @Override
     protected void paintComponent(Graphics g) {  // TODO: draw major and minor ticks
+        PaintEvent event = new PaintEvent();
+        event.begin();
+
         Dimension size = this.getSize();
-        if (size.width != oldWidth || size.height != oldHeight) {
-            image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+        Rectangle visibleRect = getVisibleRect();
+        if (size.width != oldWidth || size.height != oldHeight || visibleRect.y != oldVisibleTop || visibleRect.height != oldVisibleHeight) {
+            if (backgroundRenderer == null && (image == null || image.getWidth() != size.width || image.getHeight() != visibleRect.height)) {
+                image = new BufferedImage(size.width, Math.max(visibleRect.height, 1), BufferedImage.TYPE_INT_RGB);
+            }
             requireRepaint = true;
         }
 
-        if (requireRepaint) {
-            repaintImage();
+        Graphics2D graphics = (Graphics2D) g;
+        final boolean layersDrawn = requireRepaint || dirtyRegion != null;
+        if (backgroundRenderer != null) {
+            if (requireRepaint || dirtyRegion != null) {
+                requestFrame(graphics, requireRepaint ? null : dirtyRegion);
+            }
             requireRepaint = false;
-        }
+            dirtyRegion = null;
+
+            BufferedImage frame = backgroundRenderer.getFrame();
+            FrameLayout frameLayout = backgroundRenderer.getFrameLayout();
+            int frameTop = backgroundRenderer.getFrameTop();
+            boolean preview = frameLayout != null && frame.getWidth() == size.width && !isCurrentViewport(frameLayout.getViewport());
+            if (frame == null || preview || frameTop != visibleRect.y || frame.getHeight() != visibleRect.height) {
+                // the latest completed frame does not cover the scrolled area
+                graphics.setColor(BACKGROUND_COLOR);
+                graphics.fillRect(visibleRect.x, visibleRect.y, visibleRect.width, visibleRect.height);
+            }
+            if (preview) {
+                drawFramePreview(graphics, frame, frameLayout, frameTop);
+            } else if (frame != null) {
+                graphics.drawImage(frame, null, 0, frameTop);
+            }
+        } else {
+            if (requireRepaint) {
+                repaintImage();
+                requireRepaint = false;
+            } else if (dirtyRegion != null) {
+                repaintImage(dirtyRegion);
+            }
+            dirtyRegion = null;
 
-        Graphics2D graphics = (Graphics2D) g;
-        graphics.drawImage(image, null, 0, 0);
+            graphics.drawImage(image, null, 0, oldVisibleTop);
+        }
         graphics.setFont(getFont());
 
         if (rectangleGuides.isVisible()) {
@@ -106,34 +160,210 @@ public class JTimeSelector extends JPanel implements TimeSelector {
         }
 
         requireRepaint = false;
+
+        if (event.shouldCommit()) {
+            event.width = size.width;
+            event.height = size.height;
+            event.layersDrawn = layersDrawn;
+            event.visibleMinTime = visibleAreaManager.getCurrentMinTime();
+            event.visibleMaxTime = visibleAreaManager.getCurrentMaxTime();
+            event.commit();
+        }
     }
 
     protected void repaintImage() {
+        updateVisibleArea();
+
+        repaintImage(new Rectangle(0, oldVisibleTop, oldWidth, oldVisibleHeight));
+    }
+
+    /**
+     * Repaints only the given part of the image.
+     *
+     * @param region part of the component to repaint
+     */
+    protected void repaintImage(Rectangle region) {
+        Graphics2D graphics = image.createGraphics();
+        FrameLayout layout = createFrameLayout(graphics);
+        drawFrame(graphics, image, layout, getFont(), toImageRegion(region));
+        graphics.dispose();
+    }
+
+    /**
+     * Remembers the size of the component and the part of it which is scrolled into view, the image covers only that part.
+     */
+    private void updateVisibleArea() {
         Dimension size = getSize();
+        Rectangle visibleRect = getVisibleRect();
         oldWidth = size.width;
         oldHeight = size.height;
+        oldVisibleTop = visibleRect.y;
+        oldVisibleHeight = visibleRect.height;
+    }
 
-        Graphics2D graphics = image.createGraphics();
-        graphics.setFont(getFont());
+    /**
+     * Draws the latest completed frame scaled and moved so that its entries lie where they lie in the current viewport.
+     * It is shown while the frame for the current viewport is being rendered, so zooming and moving respond
+     * at once however long it takes to render the exact frame. The names of the layers are not scaled.
+     *
+     * @param graphics    graphics of the component
+     * @param frame       the latest completed frame
+     * @param frameLayout layout of the frame
+     * @param frameTop    y coordinate of the component at which the frame is shown
+     */
+    private void drawFramePreview(Graphics2D graphics, BufferedImage frame, FrameLayout frameLayout, int frameTop) {
+        Viewport frameViewport = frameLayout.getViewport();
+        Viewport viewport = timelineManager.getViewport();
+        int entriesX = frameLayout.getEntriesX();
+
+        // the x coordinate of the current viewport at which the pixel 0 of the frame viewport lies
+        double scale = frameViewport.getTimePerPixel() / viewport.getTimePerPixel();
+        double offset = (frameViewport.getOriginTime() - viewport.getOriginTime()) / viewport.getTimePerPixel()
+            + frameViewport.getFirstPixel() * scale - viewport.getFirstPixel();
+
+        Graphics2D legendGraphics = (Graphics2D) graphics.create();
+        legendGraphics.clipRect(0, frameTop, entriesX, frame.getHeight());
+        legendGraphics.drawImage(frame, null, 0, frameTop);
+        legendGraphics.dispose();
+
+        Graphics2D entriesGraphics = (Graphics2D) graphics.create();
+        entriesGraphics.clipRect(entriesX, frameTop, frame.getWidth() - entriesX, frame.getHeight());
+        entriesGraphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        entriesGraphics.translate(entriesX + offset, frameTop);
+        entriesGraphics.scale(scale, 1);
+        entriesGraphics.drawImage(frame.getSubimage(entriesX, 0, frame.getWidth() - entriesX, frame.getHeight()), 0, 0, null);
+        entriesGraphics.dispose();
+    }
+
+    /**
+     * @param viewport viewport of a frame
+     * @return true if the viewport maps time values to the same x coordinates as the current viewport
+     */
+    private boolean isCurrentViewport(Viewport viewport) {
+        Viewport current = timelineManager.getViewport();
+        return viewport.getOriginTime() == current.getOriginTime()
+            && viewport.getTimePerPixel() == current.getTimePerPixel()
+            && viewport.getFirstPixel() == current.getFirstPixel();
+    }
+
+    /**
+     * @param region part of the component
+     * @return the same part in the coordinates of the image which covers the visible part of the component
+     */
+    private Rectangle toImageRegion(Rectangle region) {
+        return new Rectangle(region.x, region.y - oldVisibleTop, region.width, region.height);
+    }
+
+    /**
+     * Computes the layout of the next frame and lets the background renderer draw it.
+     *
+     * @param graphics graphics of the component
+     * @param region   part of the frame which has changed, null if the whole frame has changed
+     */
+    private void requestFrame(Graphics2D graphics, Rectangle region) {
+        updateVisibleArea();
+
+        Graphics2D layoutGraphics = (Graphics2D) graphics.create();
+        FrameLayout layout = createFrameLayout(layoutGraphics);
+        layoutGraphics.dispose();
+
+        backgroundRenderer.render(layout, getFont(), oldWidth, oldVisibleHeight, oldVisibleTop, region == null ? null : toImageRegion(region));
+    }
+
+    private FrameLayout createFrameLayout(Graphics2D graphics) {
+        prepareGraphics(graphics, getFont());
         timelineManager.setFontHeight(graphics.getFontMetrics().getHeight());
+        if (timelineManager.isEmpty()) {
+            return null;
+        }
+        return timelineManager.createFrameLayout(graphics, oldWidth, oldHeight, oldVisibleTop, oldVisibleHeight);
+    }
+
+    /**
+     * Draws the given part of the frame, called either on the Event Dispatch Thread or on the render thread.
+     *
+     * @param graphics graphics of the image
+     * @param image    image on which the graphics draws
+     * @param layout   layout of the frame, null if there are no layers to draw
+     * @param font     font used for the names of the layers
+     * @param region   part of the image to draw
+     */
+    void drawFrame(Graphics2D graphics, BufferedImage image, FrameLayout layout, Font font, Rectangle region) {
+        TimelineMetrics metrics = timelineManager.getMetrics();
+        long start = metrics.startTiming();
 
+        graphics.clip(region);
+        prepareGraphics(graphics, font);
+
+        graphics.setColor(BACKGROUND_COLOR);
+        graphics.fillRect(region.x, region.y, region.width, region.height);
+
+        if (layout != null) {
+            timelineManager.drawLayers(graphics, layout, image);
+        }
+
+        if (!Thread.currentThread().isInterrupted()) {
+            metrics.recordFrame(start);
+        }
+    }
+
+    static void prepareGraphics(Graphics2D graphics, Font font) {
+        graphics.setFont(font);
         graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
         graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
 
-        graphics.setColor(BACKGROUND_COLOR);
-        graphics.fillRect(0, 0, oldWidth, oldHeight);
+    /**
+     * Switches between drawing the layers on the Event Dispatch Thread and on a dedicated render thread.
+     * <p>
+     * With background rendering, changing the visible area cancels the frame which is being rendered
+     * and the component shows the latest completed frame, scaled to the new visible area, until the new one is ready,
+     * so the user interface stays responsive even if drawing a frame takes long.
+     *
+     * @param enabled true to draw the layers on the render thread
+     */
+    public void setBackgroundRendering(boolean enabled) {
+        if (enabled == isBackgroundRendering()) {
+            return;
+        }
 
-        if (!timelineManager.isEmpty()) {
-            timelineManager.drawLayers(graphics, oldWidth, oldHeight);
+        if (enabled) {
+            backgroundRenderer = new BackgroundRenderer(this);
+            image = null;
+        } else {
+            backgroundRenderer.shutdown();
+            backgroundRenderer = null;
+            oldWidth = 0;
+            oldHeight = 0;
+            oldVisibleHeight = 0;
         }
+        requireRepaint();
+    }
+
+    public boolean isBackgroundRendering() {
+        return backgroundRenderer != null;
     }
 
     @Override
     public void requireRepaint() {
+        if (backgroundRenderer != null) {
+            // the frame being rendered is out of date
+            backgroundRenderer.cancel();
+        }
         requireRepaint = true;
         repaint();
     }
 
+    /**
+     * Requires repainting of the given part of the component only.
+     *
+     * @param region part of the component to repaint
+     */
+    protected void requireRepaint(Rectangle region) {
+        dirtyRegion = dirtyRegion == null ? new Rectangle(region) : dirtyRegion.union(region);
+        repaint(region);
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -141,6 +371,116 @@ public class JTimeSelector extends JPanel implements TimeSelector {
     public void addTimeValuesLayer(String name, long[] timeValues) {
         timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, name, timeValues));
         visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        revalidate();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void addTimeValuesLayer(String name, LongSequence timeValues) {
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, name, timeValues));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        revalidate();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void addTimeValuesLayer(String name, long[] timeValues, RetentionPolicy retention) {
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, name, timeValues, retention));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        revalidate();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void addDensityLayer(String name, long[] timeValues) {
+        timelineManager.addLayer(new DensityLayer(timelineManager, visibleAreaManager, name, timeValues));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        revalidate();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void addDensityLayer(String name, LongSequence timeValues) {
+        timelineManager.addLayer(new DensityLayer(timelineManager, visibleAreaManager, name, timeValues));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        revalidate();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void addValueGraphLayer(String name, long[] timeValues, double[] values) {
+        timelineManager.addLayer(new ValueGraphLayer(timelineManager, visibleAreaManager, name, timeValues, values));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        revalidate();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void addSpanLayer(String name, long[] starts, long[] ends) {
+        timelineManager.addLayer(new SpanLayer(timelineManager, visibleAreaManager, name, starts, ends));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        revalidate();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void addStateLayer(String name, long[] sampleTimes, int[] states, String[] stateNames) {
+        timelineManager.addLayer(new StateLayer(timelineManager, visibleAreaManager, name, sampleTimes, states, stateNames));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        revalidate();
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void appendTimeValues(String name, long[] sortedChunk) {
+        if (backgroundRenderer != null && backgroundRenderer.cancel()) {
+            // the layer is locked while it is drawn, the cancelled frame is requested again
+            requireRepaint();
+        }
+        Rectangle changedArea = timelineManager.appendTimeValues(name, sortedChunk);
+        if (sortedChunk.length == 0) {
+            return;
+        }
+
+        // values removed by a retention policy move the start of the timeline too
+        boolean visibleAreaChanged = timelineManager.hasRetention()
+            ? visibleAreaManager.updateMinAndMaxTime(timelineManager)
+            : visibleAreaManager.extendMaxTime(sortedChunk[sortedChunk.length - 1]);
+        if (visibleAreaChanged) {
+            requireRepaint();
+        } else if (changedArea != null) {
+            requireRepaint(changedArea);
+        }
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void setLayerHeight(String name, int height) {
+        if (backgroundRenderer != null) {
+            // the layer is locked while it is drawn
+            backgroundRenderer.cancel();
+        }
+        timelineManager.setLayerHeight(name, height);
+        revalidate();
+        requireRepaint();
     }
 
     /**
@@ -150,10 +490,38 @@ public class JTimeSelector extends JPanel implements TimeSelector {
     public void removeGraphLayer(String name) {
         timelineManager.removeLayer(name);
         visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        timelineManager.checkSelectionBounds();
         timeSelectionChanged();
+        revalidate();
         repaint();
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public LayerUpdate updateLayers() {
+        return new LayerUpdate(this, timelineManager, visibleAreaManager);
+    }
+
+    /**
+     * Applies the changes collected by a {@link LayerUpdate}, the bounds of the timeline are computed
+     * and the selection is checked only once for all of them.
+     *
+     * @param removeAll     true to remove all the layers before the other changes
+     * @param removedNames  names of the removed layers
+     * @param changedLayers added layers and layers replacing the layers with the same names
+     */
+    void commitLayerUpdate(boolean removeAll, Collection<String> removedNames, Collection<Layer> changedLayers) {
+        timelineManager.updateLayers(removeAll, removedNames, changedLayers);
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        if (!timelineManager.checkSelectionBounds()) {
+            timeSelectionChanged();
+        }
+        revalidate();
+        requireRepaint();
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -162,6 +530,7 @@ public class JTimeSelector extends JPanel implements TimeSelector {
         timelineManager.removeAllLayers();
         timelineManager.clearSelection();
         timeSelectionChanged();
+        revalidate();
         repaint();
     }
 
@@ -193,6 +562,14 @@ public class JTimeSelector extends JPanel implements TimeSelector {
         return timelineManager.getSelectionType();
     }
 
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public List<LayerSelection> getSelectedEntries() {
+        return timelineManager.getSelectedEntries();
+    }
+
     @Override
     public synchronized void addTimeSelectionChangedListener(TimeSelectionListener selectionListener) {
         listeners.add(selectionListener);
@@ -209,6 +586,70 @@ public class JTimeSelector extends JPanel implements TimeSelector {
         }
     }
 
+    /**
+     * The preferred height fits all the layers and the time labels below them,
+     * so that the component placed into a {@link JScrollPane} can be scrolled through all the layers.
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        Dimension size = super.getPreferredSize();
+        if (isPreferredSizeSet() || timelineManager.isEmpty()) {
+            return size;
+        }
+
+        int labelsHeight = getFontMetrics(getFont()).getHeight() + TimelineManager.TOP_PADDING;
+        return new Dimension(size.width, timelineManager.getRows().getBottom() + labelsHeight);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    /**
+     * Scrolls vertically to the next or previous boundary between the layers.
+     */
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        if (orientation == SwingConstants.HORIZONTAL || timelineManager.isEmpty()) {
+            return TimeEntryLayer.HEIGHT;
+        }
+
+        LayerRows rows = timelineManager.getRows();
+        int y = visibleRect.y;
+        int boundary;
+        if (direction > 0) {
+            int row = rows.getRowAt(y);
+            boundary = row >= rows.size() ? y + TimeEntryLayer.HEIGHT : rows.getTop(row + 1);
+            return Math.max(boundary - y, 1);
+        }
+
+        int row = rows.getRowAt(y - 1);
+        boundary = row < 0 ? 0 : row >= rows.size() ? rows.getBottom() : rows.getTop(row);
+        return Math.max(y - boundary, 1);
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.HORIZONTAL ? visibleRect.width : visibleRect.height;
+    }
+
+    /**
+     * The timeline always fits the width of the scroll pane, it is moved by the mouse instead.
+     */
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    /**
+     * Stretches the component over the whole scroll pane if the layers do not fill it.
+     */
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return getParent() instanceof JViewport viewport && viewport.getHeight() > getPreferredSize().height;
+    }
+
     private void mouseWheelMoved(MouseWheelEvent event) {
         int modifiersEx = event.getModifiersEx();
 
@@ -218,27 +659,101 @@ public class JTimeSelector extends JPanel implements TimeSelector {
 
         int ctrlDownMask = InputEvent.CTRL_DOWN_MASK;
         int shiftDownMask = InputEvent.SHIFT_DOWN_MASK;
+        // the zooming and moving is applied by the next frame together with the other events received until then
         if ((modifiersEx & ctrlDownMask) == ctrlDownMask) {
-            long time = timelineManager.getTimeForX(event.getX());
-            final long currentMinTime = visibleAreaManager.getCurrentMinTime();
-            final long currentMaxTime = visibleAreaManager.getCurrentMaxTime();
-            if (time < currentMinTime || time > currentMaxTime) {
-                return;
-            }
-
-            if (rotation < 0) {
-                visibleAreaManager.zoomIn(-rotation, time);
-            } else {
-                visibleAreaManager.zoomOut(rotation, time);
-            }
+            repaintScheduler.zoom(rotation, event.getX());
         } else if ((modifiersEx & shiftDownMask) == shiftDownMask) {
-            visibleAreaManager.moveVisibleArea(rotation);
+            repaintScheduler.scroll(rotation);
         } else {
-            return;
+            // the wheel without modifiers scrolls the enclosing scroll pane through the layers
+            Container parent = getParent();
+            if (parent != null) {
+                parent.dispatchEvent(SwingUtilities.convertMouseEvent(this, event, parent));
+            }
         }
+    }
 
-        requireRepaint = true;
-        repaint();
+    RepaintScheduler getRepaintScheduler() {
+        return repaintScheduler;
+    }
+
+    public int getTargetFrameRate() {
+        return repaintScheduler.getTargetFrameRate();
+    }
+
+    /**
+     * Sets how often the zooming and moving of the visible area by the mouse is applied. The input events
+     * received between two frames are applied at once, so fast trackpads do not queue more frames than the screen shows.
+     *
+     * @param framesPerSecond maximal count of frames per second, {@link #DEFAULT_TARGET_FRAME_RATE} by default,
+     *                        zero applies every input event at once
+     * @throws IllegalArgumentException if the frame rate is negative
+     */
+    public void setTargetFrameRate(int framesPerSecond) {
+        repaintScheduler.setTargetFrameRate(framesPerSecond);
+    }
+
+    /**
+     * Sets how much memory can be taken by the cached parts of the rendered layers.
+     * The cache makes moving the visible area cheap, because only the newly exposed parts are rendered.
+     *
+     * @param bytes maximal count of bytes taken by the cache, zero disables the cache
+     */
+    public void setTileCacheMemoryBudget(long bytes) {
+        timelineManager.getTileCache().setMemoryBudget(bytes);
+        requireRepaint();
+    }
+
+    /**
+     * Sets how much memory can be taken by the index which finds the entry closest to the cursor across more layers.
+     * The index merges the values of neighbouring layers, so it takes about the memory of all the values
+     * times the binary logarithm of the count of layers. Layers which do not fit are searched one by one.
+     *
+     * @param bytes maximal count of bytes taken by the index, zero searches every layer on its own
+     */
+    public void setNearestTimeIndexMemoryBudget(long bytes) {
+        timelineManager.getNearestTimeIndex().setMemoryBudget(bytes);
+    }
+
+    /**
+     * Chooses how the entries of the layers are drawn. The {@link RenderingEngine#DirectRaster} engine
+     * writes the entries straight into the pixels of the image, which is much cheaper for many visible entries.
+     *
+     * @param engine the rendering engine
+     */
+    public void setRenderingEngine(RenderingEngine engine) {
+        timelineManager.setRenderingEngine(engine);
+        requireRepaint();
+    }
+
+    public RenderingEngine getRenderingEngine() {
+        return timelineManager.getRenderingEngine();
+    }
+
+    /**
+     * Switches drawing of the layers to a mode in which every layer is drawn into its own strip concurrently
+     * on a pool with one thread per processor. Pays off when there are many layers with many visible entries.
+     *
+     * @param enabled true to draw the layers in parallel
+     */
+    public void setParallelRendering(boolean enabled) {
+        timelineManager.setParallelRendering(enabled);
+        requireRepaint();
+    }
+
+    public boolean isParallelRendering() {
+        return timelineManager.isParallelRendering();
+    }
+
+    /**
+     * Gets the metrics of drawing the component and selecting in it. The metrics are disabled until
+     * {@link TimelineMetrics#setEnabled(boolean)} is called, they can be published over JMX using
+     * {@link TimelineMetrics#registerMBean(String)}.
+     *
+     * @return metrics of the component
+     */
+    public TimelineMetrics getMetrics() {
+        return timelineManager.getMetrics();
     }
 
     public void setCursorPosition(long time) {
@@ -0,0 +1,67 @@
+package jtimeselector;
+
+/**
+ * Entries of a single layer which are selected. The entries are not copied,
+ * only the selected time interval and the range of the indices of the entries
+ * lying in it, including its bounds, are kept.
+ */
+public class LayerSelection {
+    private final String layerName;
+    private final int layerIndex;
+    private final long fromTime;
+    private final long toTime;
+    private final int firstIndex;
+    private final int lastIndex;
+
+    /**
+     * @param layerName  name of the layer
+     * @param layerIndex index of the layer
+     * @param fromTime   start of the selected time interval, the selected time if a single time is selected
+     * @param toTime     end of the selected time interval, the selected time if a single time is selected
+     * @param firstIndex index of the first selected entry
+     * @param lastIndex  index of the last selected entry, less than firstIndex if no entry is selected
+     */
+    public LayerSelection(String layerName, int layerIndex, long fromTime, long toTime, int firstIndex, int lastIndex) {
+        this.layerName = layerName;
+        this.layerIndex = layerIndex;
+        this.fromTime = fromTime;
+        this.toTime = toTime;
+        this.firstIndex = firstIndex;
+        this.lastIndex = lastIndex;
+    }
+
+    public String getLayerName() {
+        return layerName;
+    }
+
+    public int getLayerIndex() {
+        return layerIndex;
+    }
+
+    public long getFromTime() {
+        return fromTime;
+    }
+
+    public long getToTime() {
+        return toTime;
+    }
+
+    public int getFirstIndex() {
+        return firstIndex;
+    }
+
+    public int getLastIndex() {
+        return lastIndex;
+    }
+
+    /**
+     * @return count of the selected entries
+     */
+    public int getCount() {
+        return Math.max(lastIndex - firstIndex + 1, 0);
+    }
+
+    public boolean isEmpty() {
+        return getCount() == 0;
+    }
+}
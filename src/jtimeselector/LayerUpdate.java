@@ -0,0 +1,232 @@
+package jtimeselector;
+
+import com.vorono4ka.interfaces.LongSequence;
+import jtimeselector.interfaces.TimeSelector;
+import jtimeselector.layers.DensityLayer;
+import jtimeselector.layers.Layer;
+import jtimeselector.layers.SpanLayer;
+import jtimeselector.layers.StateLayer;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import jtimeselector.layers.ValueGraphLayer;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects changes of the layers of a {@link TimeSelector} and applies them all at once by {@link #commit()}.
+ * The bounds of the timeline are computed, the selection is checked and the component is repainted
+ * only once for the whole update, so thousands of layers can be added, replaced or removed in linear time.
+ * <p>
+ * The removals are applied before the added and replaced layers, which gives the same layers as applying
+ * the changes one by one in the order in which they have been made: a layer added after its removal is added to the end,
+ * a layer removed after its addition is not added at all. An update can be committed only once.
+ */
+public class LayerUpdate {
+    private final JTimeSelector component;
+    private final TimelineManager timelineManager;
+    private final VisibleAreaManager visibleAreaManager;
+
+    private final Map<String, Layer> changedLayers = new LinkedHashMap<>();
+    private final Set<String> removedNames = new HashSet<>();
+    private boolean removeAll;
+    private boolean committed;
+
+    LayerUpdate(JTimeSelector component, TimelineManager timelineManager, VisibleAreaManager visibleAreaManager) {
+        this.component = component;
+        this.timelineManager = timelineManager;
+        this.visibleAreaManager = visibleAreaManager;
+    }
+
+    /**
+     * Adds a layer with a small circle for each time value in the list.
+     *
+     * @param name       name of the layer
+     * @param timeValues time instants for which a small circle will be drawn on the timeline
+     * @return this update
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    public LayerUpdate addTimeValuesLayer(String name, long[] timeValues) {
+        return add(new TimeEntryLayer(timelineManager, visibleAreaManager, name, timeValues));
+    }
+
+    /**
+     * Adds a layer with a small circle for each time value in the sequence, which is used directly.
+     *
+     * @param name       name of the layer
+     * @param timeValues time instants sorted in the ascending order
+     * @return this update
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    public LayerUpdate addTimeValuesLayer(String name, LongSequence timeValues) {
+        return add(new TimeEntryLayer(timelineManager, visibleAreaManager, name, timeValues));
+    }
+
+    /**
+     * Adds a layer which keeps only the values allowed by the retention policy.
+     *
+     * @param name       name of the layer
+     * @param timeValues time instants for which a small circle will be drawn on the timeline
+     * @param retention  policy determining which values are kept
+     * @return this update
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    public LayerUpdate addTimeValuesLayer(String name, long[] timeValues, RetentionPolicy retention) {
+        return add(new TimeEntryLayer(timelineManager, visibleAreaManager, name, timeValues, retention));
+    }
+
+    /**
+     * Adds a layer which draws the density of the time values as a heat map.
+     *
+     * @param name       name of the layer
+     * @param timeValues time instants sorted in the ascending order
+     * @return this update
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    public LayerUpdate addDensityLayer(String name, long[] timeValues) {
+        return add(new DensityLayer(timelineManager, visibleAreaManager, name, timeValues));
+    }
+
+    /**
+     * Adds a layer which draws the density of the time values in the sequence, which is used directly, as a heat map.
+     *
+     * @param name       name of the layer
+     * @param timeValues time instants sorted in the ascending order
+     * @return this update
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    public LayerUpdate addDensityLayer(String name, LongSequence timeValues) {
+        return add(new DensityLayer(timelineManager, visibleAreaManager, name, timeValues));
+    }
+
+    /**
+     * Adds a layer which draws a line graph of the values measured at the time values.
+     *
+     * @param name       name of the layer
+     * @param timeValues time instants sorted in the ascending order
+     * @param values     values measured at the time instants, none of them NaN
+     * @return this update
+     * @throws IllegalArgumentException if there already is a layer with the given name, the arrays are not of the same length,
+     *                                  the time values are not sorted or a value is NaN
+     */
+    public LayerUpdate addValueGraphLayer(String name, long[] timeValues, double[] values) {
+        return add(new ValueGraphLayer(timelineManager, visibleAreaManager, name, timeValues, values));
+    }
+
+    /**
+     * Adds a layer which draws entries lasting for some time as bars from their starts to their ends.
+     *
+     * @param name   name of the layer
+     * @param starts starts of the spans sorted in the ascending order
+     * @param ends   ends of the spans in the order of their starts
+     * @return this update
+     * @throws IllegalArgumentException if there already is a layer with the given name, the arrays are not of the same length,
+     *                                  the starts are not sorted or a span ends before it starts
+     */
+    public LayerUpdate addSpanLayer(String name, long[] starts, long[] ends) {
+        return add(new SpanLayer(timelineManager, visibleAreaManager, name, starts, ends));
+    }
+
+    /**
+     * Adds a layer which draws a categorical signal as bands coloured by its states.
+     *
+     * @param name        name of the layer
+     * @param sampleTimes times of the samples sorted in the ascending order
+     * @param states      states of the signal at the times of the samples, none of them negative
+     * @param stateNames  names of the states indexed by the states, null to show the states as numbers
+     * @return this update
+     * @throws IllegalArgumentException if there already is a layer with the given name, the arrays are not of the same length,
+     *                                  the times are not sorted or a state is negative
+     */
+    public LayerUpdate addStateLayer(String name, long[] sampleTimes, int[] states, String[] stateNames) {
+        return add(new StateLayer(timelineManager, visibleAreaManager, name, sampleTimes, states, stateNames));
+    }
+
+    /**
+     * Replaces the values of the layer with the given name, the layer keeps its position and height.
+     * The layer is added to the end if there is no layer with the given name.
+     *
+     * @param name       name of the layer
+     * @param timeValues time instants for which a small circle will be drawn on the timeline
+     * @return this update
+     */
+    public LayerUpdate replaceTimeValuesLayer(String name, long[] timeValues) {
+        return replace(new TimeEntryLayer(timelineManager, visibleAreaManager, name, timeValues));
+    }
+
+    /**
+     * Replaces the values of the layer with the given name by the sequence, which is used directly.
+     * The layer keeps its position and height, it is added to the end if there is no layer with the given name.
+     *
+     * @param name       name of the layer
+     * @param timeValues time instants sorted in the ascending order
+     * @return this update
+     */
+    public LayerUpdate replaceTimeValuesLayer(String name, LongSequence timeValues) {
+        return replace(new TimeEntryLayer(timelineManager, visibleAreaManager, name, timeValues));
+    }
+
+    /**
+     * Removes the layer with the given name. Nothing happens if there is no such layer.
+     *
+     * @param name name of the layer
+     * @return this update
+     */
+    public LayerUpdate removeLayer(String name) {
+        checkNotCommitted();
+        changedLayers.remove(name);
+        removedNames.add(name);
+        return this;
+    }
+
+    /**
+     * Removes all the layers, including the layers added by this update so far.
+     *
+     * @return this update
+     */
+    public LayerUpdate removeAllLayers() {
+        checkNotCommitted();
+        changedLayers.clear();
+        removedNames.clear();
+        removeAll = true;
+        return this;
+    }
+
+    /**
+     * Applies all the changes, recomputes the bounds of the timeline and repaints the component.
+     *
+     * @throws IllegalStateException if the update has already been committed
+     */
+    public void commit() {
+        checkNotCommitted();
+        committed = true;
+        component.commitLayerUpdate(removeAll, removedNames, changedLayers.values());
+    }
+
+    private LayerUpdate add(Layer layer) {
+        checkNotCommitted();
+        String name = layer.getName();
+        boolean existing = !removeAll && !removedNames.contains(name) && timelineManager.hasLayer(name);
+        if (existing || changedLayers.containsKey(name)) {
+            throw new IllegalArgumentException("There already is a layer named " + name + ".");
+        }
+
+        changedLayers.put(name, layer);
+        return this;
+    }
+
+    private LayerUpdate replace(Layer layer) {
+        checkNotCommitted();
+        // a layer added earlier by this update keeps its place among the added layers
+        changedLayers.put(layer.getName(), layer);
+        return this;
+    }
+
+    private void checkNotCommitted() {
+        if (committed) {
+            throw new IllegalStateException("The update has already been committed.");
+        }
+    }
+}
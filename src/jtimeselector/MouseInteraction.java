@@ -1,6 +1,7 @@
 package jtimeselector;
 
 import com.vorono4ka.MathHelper;
+import jtimeselector.jfr.InteractionEvent;
 import jtimeselector.layers.Layer;
 import jtimeselector.layers.TimelineManager;
 
@@ -70,14 +71,16 @@ public class MouseInteraction extends MouseAdapter {
         if (abs < 10) {
             return;
         }
-        long time = timelineManager.getTimeDistance(abs);
-        visibleAreaManager.moveVisibleArea(-time * sgn);
+        // the move is applied by the next frame together with the other moves made until then
+        component.getRepaintScheduler().drag(abs * sgn);
         startX = e.getX();
         startY = e.getY();
-        component.requireRepaint();
     }
 
     private void rangeSelectionDrag(MouseEvent e) {
+        InteractionEvent event = new InteractionEvent();
+        event.begin();
+
         rectangleGuides.setVisible(true);
 
         int left, top, right, bottom;
@@ -110,6 +113,8 @@ public class MouseInteraction extends MouseAdapter {
 
         rectangleGuides.setSelectionRectangle(left, top, right, bottom);
         component.repaint();
+
+        commit(event, InteractionEvent.DRAG_SELECTION);
     }
 
     @Override
@@ -121,6 +126,9 @@ public class MouseInteraction extends MouseAdapter {
         final int x = e.getX();
         final int y = e.getY();
         if (x > timelineManager.getLegendWidth()) {
+            InteractionEvent event = new InteractionEvent();
+            event.begin();
+
             timelineManager.clearSelection();
 
             long timeForX = timelineManager.getTimeForX(x);
@@ -135,6 +143,8 @@ public class MouseInteraction extends MouseAdapter {
             component.setCursorPosition(timeForX);
 
             component.repaint();
+
+            commit(event, InteractionEvent.SELECT_TIME);
         }
     }
 
@@ -143,6 +153,9 @@ public class MouseInteraction extends MouseAdapter {
         final int x = event.getX();
         final int y = event.getY();
         if (!event.isControlDown() && rectSelectionStarted && (startX != x) && (startY != y)) {
+            InteractionEvent interactionEvent = new InteractionEvent();
+            interactionEvent.begin();
+
             int left, right;
             if (startX <= x) {
                 left = startX;
@@ -170,9 +183,21 @@ public class MouseInteraction extends MouseAdapter {
             long timeRight = Math.min(timelineManager.getTimeForX(right), maxTime);
 
             component.selectTimeInterval(timeLeft, timeRight, top, bottom);
+
+            commit(interactionEvent, InteractionEvent.SELECT_INTERVAL);
         }
         rectangleGuides.setVisible(false);
         rectSelectionStarted = false;
         component.repaint();
     }
+
+    private void commit(InteractionEvent event, String action) {
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.coalescedInputs = 1;
+            event.visibleMinTime = visibleAreaManager.getCurrentMinTime();
+            event.visibleMaxTime = visibleAreaManager.getCurrentMaxTime();
+            event.commit();
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package jtimeselector;
+
+/**
+ * Way in which the entries of the layers are drawn.
+ */
+public enum RenderingEngine {
+    /**
+     * Every entry is drawn by the shape calls of Graphics2D.
+     */
+    Java2D,
+    /**
+     * Pre-rendered markers are copied straight into the pixels of the image, which is several times faster.
+     * Graphics whose pixels cannot be written directly, such as the scaled graphics of a HiDPI screen,
+     * fall back to the {@link #Sprites} engine.
+     */
+    DirectRaster,
+    /**
+     * Markers pre-rendered once for the scale of the graphics are copied by the image blits of Graphics2D.
+     * They look the same as the shape calls on graphics scaled by whole pixels. On graphics scaled by a fraction
+     * of a pixel, such as 1.25 or 1.5, the markers can be shifted by a fraction of a pixel against the shape calls,
+     * so the circles of the selected entries are still drawn by the shape calls there.
+     */
+    Sprites
+}
@@ -0,0 +1,174 @@
+package jtimeselector;
+
+import jtimeselector.jfr.InteractionEvent;
+import jtimeselector.layers.TimelineManager;
+
+import javax.swing.Timer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the zooming and moving of the visible area caused by the mouse into frames.
+ * <p>
+ * Trackpads and high resolution wheels produce hundreds of events per second, far more than the screen
+ * can show. The events only accumulate the change of the visible area, which is applied at once by the
+ * next frame, and the frames are spaced by the interval of the target frame rate. The first event after
+ * a pause is applied as soon as the events already waiting in the queue have been handled.
+ * <p>
+ * Moving adds up with zooming in any order, but a drag after a zoom is measured in the zoomed scale
+ * and a zoom around another point does not add up with the previous one. Such an input first applies
+ * the accumulated change to the visible area, which is cheap, and the frame repaints the component once.
+ * <p>
+ * All the methods must be called on the Event Dispatch Thread.
+ */
+class RepaintScheduler {
+    private final JTimeSelector component;
+    private final TimelineManager timelineManager;
+    private final VisibleAreaManager visibleAreaManager;
+    private final Timer timer;
+
+    private int targetFrameRate = JTimeSelector.DEFAULT_TARGET_FRAME_RATE;
+    private long lastFrameTime;
+
+    private int pendingInputs;
+    private int pendingZoom;
+    private int zoomX;
+    private long pendingScroll;
+    private int pendingDrag;
+    private String pendingAction = InteractionEvent.MOVE;
+
+    RepaintScheduler(JTimeSelector component, TimelineManager timelineManager, VisibleAreaManager visibleAreaManager) {
+        this.component = component;
+        this.timelineManager = timelineManager;
+        this.visibleAreaManager = visibleAreaManager;
+
+        this.timer = new Timer(0, event -> applyFrame());
+        this.timer.setRepeats(false);
+    }
+
+    /**
+     * @param rotation count of zoom steps, negative to zoom in
+     * @param x        x coordinate of the component around which the timeline is zoomed
+     */
+    void zoom(int rotation, int x) {
+        if (pendingZoom != 0 && x != zoomX) {
+            applyPendingInputs();
+        }
+        pendingZoom += rotation;
+        zoomX = x;
+        schedule();
+    }
+
+    /**
+     * @param rotation count of scroll steps moving the visible area, negative to move to the past
+     */
+    void scroll(int rotation) {
+        pendingScroll += rotation;
+        schedule();
+    }
+
+    /**
+     * @param pixels horizontal distance the timeline has been dragged by, positive to the right
+     */
+    void drag(int pixels) {
+        if (pendingZoom != 0) {
+            applyPendingInputs();
+        }
+        pendingDrag += pixels;
+        schedule();
+    }
+
+    int getTargetFrameRate() {
+        return targetFrameRate;
+    }
+
+    /**
+     * @param targetFrameRate maximal count of frames per second, zero applies every event at once
+     */
+    void setTargetFrameRate(int targetFrameRate) {
+        if (targetFrameRate < 0) {
+            throw new IllegalArgumentException("Target frame rate must not be negative.");
+        }
+        this.targetFrameRate = targetFrameRate;
+    }
+
+    private void schedule() {
+        pendingInputs++;
+        if (targetFrameRate == 0) {
+            applyFrame();
+            return;
+        }
+        if (timer.isRunning()) {
+            return;
+        }
+
+        long frameInterval = TimeUnit.SECONDS.toNanos(1) / targetFrameRate;
+        long delay = lastFrameTime + frameInterval - System.nanoTime();
+        timer.setInitialDelay((int) Math.max(TimeUnit.NANOSECONDS.toMillis(delay), 0));
+        timer.start();
+    }
+
+    /**
+     * Applies the inputs received since the previous frame and repaints the component.
+     */
+    void applyFrame() {
+        InteractionEvent event = new InteractionEvent();
+        event.begin();
+
+        lastFrameTime = System.nanoTime();
+        int inputs = pendingInputs;
+        pendingInputs = 0;
+        applyPendingInputs();
+        String action = pendingAction;
+        pendingAction = InteractionEvent.MOVE;
+
+        if (timelineManager.isEmpty()) {
+            return;
+        }
+
+        component.requireRepaint();
+
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.coalescedInputs = inputs;
+            event.visibleMinTime = visibleAreaManager.getCurrentMinTime();
+            event.visibleMaxTime = visibleAreaManager.getCurrentMaxTime();
+            event.commit();
+        }
+    }
+
+    /**
+     * Moves and zooms the visible area by the accumulated inputs without repainting the component.
+     */
+    private void applyPendingInputs() {
+        int zoom = pendingZoom;
+        long scroll = pendingScroll;
+        int drag = pendingDrag;
+        pendingZoom = 0;
+        pendingScroll = 0;
+        pendingDrag = 0;
+
+        if (timelineManager.isEmpty()) {
+            return;
+        }
+
+        if (scroll != 0) {
+            visibleAreaManager.moveVisibleArea(scroll);
+        }
+        if (drag != 0) {
+            long time = timelineManager.getTimeDistance(Math.abs(drag));
+            visibleAreaManager.moveVisibleArea(drag > 0 ? -time : time);
+        }
+        if (zoom != 0) {
+            long time = timelineManager.getTimeForX(zoomX);
+            if (visibleAreaManager.timeValueInCurrentRange(time)) {
+                if (zoom < 0) {
+                    visibleAreaManager.zoomIn(-zoom, time);
+                    pendingAction = InteractionEvent.ZOOM_IN;
+                } else {
+                    visibleAreaManager.zoomOut(zoom, time);
+                    pendingAction = InteractionEvent.ZOOM_OUT;
+                }
+            }
+        }
+    }
+}
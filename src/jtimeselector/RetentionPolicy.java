@@ -0,0 +1,48 @@
+package jtimeselector;
+
+/**
+ * Determines which values are kept in a layer that receives new values over time.
+ * Values that are older than the maximal age (measured from the newest value) or that
+ * exceed the maximal count of values are removed, starting with the oldest ones.
+ */
+public class RetentionPolicy {
+    private final long maxAge;
+    private final int maxCount;
+
+    /**
+     * @param maxAge   maximal difference between the newest and the oldest kept value
+     * @param maxCount maximal count of kept values
+     */
+    public RetentionPolicy(long maxAge, int maxCount) {
+        if (maxAge < 0 || maxCount < 0) {
+            throw new IllegalArgumentException("Retention limits must not be negative.");
+        }
+
+        this.maxAge = maxAge;
+        this.maxCount = maxCount;
+    }
+
+    /**
+     * @param maxAge maximal difference between the newest and the oldest kept value
+     * @return policy limiting only the age of the values
+     */
+    public static RetentionPolicy ofMaxAge(long maxAge) {
+        return new RetentionPolicy(maxAge, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxCount maximal count of kept values
+     * @return policy limiting only the count of the values
+     */
+    public static RetentionPolicy ofMaxCount(int maxCount) {
+        return new RetentionPolicy(Long.MAX_VALUE, maxCount);
+    }
+
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+}
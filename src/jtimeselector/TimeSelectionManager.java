@@ -3,7 +3,9 @@ package jtimeselector;
 import java.awt.Color;
 
 import com.vorono4ka.interfaces.SelectionManager;
+import jtimeselector.layers.NearestTimeIndex;
 import jtimeselector.layers.TimelineManager;
+import jtimeselector.metrics.TimelineMetrics;
 
 public class TimeSelectionManager implements SelectionManager {
     public static final Color SELECTION_COLOR = new Color(0x4b6eaf);
@@ -14,6 +16,7 @@ public class TimeSelectionManager implements SelectionManager {
     private long selectedTime;
     private int selectedLayer;
     private boolean hasSelection = false;
+    private boolean clearedByRemoval = false;
 
     /**
      * The position on the component on which the string time value has been drawn last time.
@@ -36,16 +39,19 @@ public class TimeSelectionManager implements SelectionManager {
      * @param layerIndex selected layer index
      */
     public void setSelection(long time, int layerIndex) {
-        long closestTime = timelineManager.getClosestTime(time, layerIndex);
+        TimelineMetrics metrics = timelineManager.getMetrics();
+        long start = metrics.startTiming();
 
-        if (Math.abs(closestTime - time) >= TimeSelectionManager.SELECTION_THRESHOLD) {
+        long closestTime = timelineManager.getClosestTime(time, layerIndex);
+        if (closestTime == NearestTimeIndex.NO_TIME || Math.abs(closestTime - time) >= TimeSelectionManager.SELECTION_THRESHOLD) {
             hasSelection = false;
-            return;
+        } else {
+            hasSelection = true;
+            this.selectedTime = closestTime;
+            this.selectedLayer = layerIndex;
         }
 
-        hasSelection = true;
-        this.selectedTime = closestTime;
-        this.selectedLayer = layerIndex;
+        metrics.recordTimeSelection(start);
     }
 
     public long getSelectedTime() {
@@ -68,15 +74,39 @@ public class TimeSelectionManager implements SelectionManager {
         return hasSelection;
     }
 
+    /**
+     * Keeps the selection on the same layer after a layer has been removed.
+     * The selection of the removed layer itself is cleared.
+     *
+     * @param layerIndex index which the removed layer had
+     */
+    public void layerRemoved(int layerIndex) {
+        if (!hasSelection || layerIndex > selectedLayer) {
+            return;
+        }
+
+        if (layerIndex == selectedLayer) {
+            clearSelection();
+            clearedByRemoval = true;
+        } else {
+            selectedLayer--;
+        }
+    }
+
     /**
      * Ensures that the selected time does not lie out of bounds. If it does,
-     * the selected time is set to the minimal value.
+     * the selected time is set to the minimal value. The selection of a layer
+     * which no longer exists is cleared.
      *
-     * @return false if change occurred
+     * @return false if change occurred, including the selection cleared by {@link #layerRemoved(int)}
      */
     public boolean checkBounds() {
+        if (clearedByRemoval) {
+            clearedByRemoval = false;
+            return false;
+        }
         if (!hasSelection) return true;
-        if (timelineManager.isEmpty()) {
+        if (timelineManager.isEmpty() || selectedLayer >= timelineManager.getLayerCount()) {
             clearSelection();
             return false;
         }
@@ -0,0 +1,174 @@
+package jtimeselector;
+
+import com.vorono4ka.LongList;
+import com.vorono4ka.interfaces.LongSequence;
+import jtimeselector.layers.DensityLayer;
+import jtimeselector.layers.FrameLayout;
+import jtimeselector.layers.SpanLayer;
+import jtimeselector.layers.StateLayer;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import jtimeselector.layers.ValueGraphLayer;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the layers of a timeline into an image without any Swing component, for example
+ * to generate previews of recorded sessions in a batch job running with {@code java.awt.headless=true}.
+ * <p>
+ * The layers are laid out and drawn the same way as by {@link JTimeSelector}, only the time labels,
+ * the selection and the cursor are left out. Rendering doesn't change the state of the renderer,
+ * so one renderer can draw into more images from more threads at once.
+ */
+public class TimelineRenderer {
+    public static final Font DEFAULT_FONT = new Font(Font.DIALOG, Font.PLAIN, 15);
+
+    private final VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+    private final TimelineManager timelineManager = new TimelineManager(visibleAreaManager, Long::toString);
+    private volatile Font font = DEFAULT_FONT;
+
+    public TimelineRenderer() {
+        // every image is drawn only once, caching its parts would only take memory
+        timelineManager.getTileCache().setMemoryBudget(0);
+    }
+
+    /**
+     * Adds a new layer of time values.
+     *
+     * @param name       name of the layer
+     * @param timeValues time values sorted in the ascending order
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    public synchronized void addTimeValuesLayer(String name, long[] timeValues) {
+        addTimeValuesLayer(name, new LongList(timeValues));
+    }
+
+    /**
+     * Adds a new layer of time values kept in the given sequence, which is neither copied nor changed.
+     *
+     * @param name       name of the layer
+     * @param timeValues time values sorted in the ascending order
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    public synchronized void addTimeValuesLayer(String name, LongSequence timeValues) {
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, name, timeValues));
+    }
+
+    /**
+     * Adds a new layer which draws the density of the time values kept in the given sequence as a heat map.
+     *
+     * @param name       name of the layer
+     * @param timeValues time values sorted in the ascending order
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    public synchronized void addDensityLayer(String name, LongSequence timeValues) {
+        timelineManager.addLayer(new DensityLayer(timelineManager, visibleAreaManager, name, timeValues));
+    }
+
+    /**
+     * Adds a new layer which draws a line graph of the values measured at the time values.
+     *
+     * @param name       name of the layer
+     * @param timeValues time values sorted in the ascending order
+     * @param values     values measured at the time values, none of them NaN
+     * @throws IllegalArgumentException if there already is a layer with the given name, the arrays are not of the same length,
+     *                                  the time values are not sorted or a value is NaN
+     */
+    public synchronized void addValueGraphLayer(String name, long[] timeValues, double[] values) {
+        timelineManager.addLayer(new ValueGraphLayer(timelineManager, visibleAreaManager, name, timeValues, values));
+    }
+
+    /**
+     * Adds a new layer which draws entries lasting for some time as bars from their starts to their ends.
+     *
+     * @param name   name of the layer
+     * @param starts starts of the spans sorted in the ascending order
+     * @param ends   ends of the spans in the order of their starts
+     * @throws IllegalArgumentException if there already is a layer with the given name, the arrays are not of the same length,
+     *                                  the starts are not sorted or a span ends before it starts
+     */
+    public synchronized void addSpanLayer(String name, long[] starts, long[] ends) {
+        timelineManager.addLayer(new SpanLayer(timelineManager, visibleAreaManager, name, starts, ends));
+    }
+
+    /**
+     * Adds a new layer which draws a categorical signal as bands coloured by its states.
+     *
+     * @param name        name of the layer
+     * @param sampleTimes times of the samples sorted in the ascending order
+     * @param states      states of the signal at the times of the samples, none of them negative
+     * @param stateNames  names of the states indexed by the states, null to show the states as numbers
+     * @throws IllegalArgumentException if there already is a layer with the given name, the arrays are not of the same length,
+     *                                  the times are not sorted or a state is negative
+     */
+    public synchronized void addStateLayer(String name, long[] sampleTimes, int[] states, String[] stateNames) {
+        timelineManager.addLayer(new StateLayer(timelineManager, visibleAreaManager, name, sampleTimes, states, stateNames));
+    }
+
+    /**
+     * Draws the layers so that all their values fit on the timeline.
+     *
+     * @param image image into which the layers are drawn, its whole area is overwritten
+     */
+    public void render(BufferedImage image) {
+        long minTime;
+        long maxTime;
+        synchronized (this) {
+            if (timelineManager.isEmpty()) {
+                render(image, 0, 0);
+                return;
+            }
+            minTime = timelineManager.getMinTime();
+            maxTime = timelineManager.getMaxTime();
+        }
+        render(image, minTime, maxTime);
+    }
+
+    /**
+     * Draws the layers so that the given time interval fits on the timeline.
+     * A part of a larger image can be drawn into by passing {@link BufferedImage#getSubimage(int, int, int, int)}.
+     *
+     * @param image   image into which the layers are drawn, its whole area is overwritten
+     * @param minTime time value drawn at the left edge of the timeline
+     * @param maxTime time value drawn at the right edge of the timeline
+     */
+    public void render(BufferedImage image, long minTime, long maxTime) {
+        Graphics2D graphics = image.createGraphics();
+        JTimeSelector.prepareGraphics(graphics, font);
+        graphics.setColor(JTimeSelector.BACKGROUND_COLOR);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+
+        FrameLayout layout;
+        synchronized (this) {
+            layout = timelineManager.isEmpty() ? null : timelineManager.createFrameLayout(graphics, minTime, maxTime, image.getWidth(), image.getHeight());
+        }
+        if (layout != null) {
+            timelineManager.drawLayers(graphics, layout, image);
+        }
+        graphics.dispose();
+    }
+
+    public Font getFont() {
+        return font;
+    }
+
+    /**
+     * @param font font used for the names of the layers
+     */
+    public void setFont(Font font) {
+        this.font = font;
+    }
+
+    public RenderingEngine getRenderingEngine() {
+        return timelineManager.getRenderingEngine();
+    }
+
+    /**
+     * @param engine way in which the entries of the layers are drawn
+     */
+    public void setRenderingEngine(RenderingEngine engine) {
+        timelineManager.setRenderingEngine(engine);
+    }
+}
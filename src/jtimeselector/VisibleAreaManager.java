@@ -17,14 +17,49 @@ public class VisibleAreaManager {
         setDefaultZoom();
     }
 
-    public final void updateMinAndMaxTime(TimelineManager timelineManager) {
-        this.minTime = 0;
+    /**
+     * Fits the timeline to the time values of the layers. The bounds of the layers are kept by the manager,
+     * so the call is cheap even with thousands of layers. Nothing changes if there are no layers.
+     * <p>
+     * The timeline starts at zero, unless a layer removes its oldest values by a retention policy.
+     * Then it starts at the oldest retained value, so that the view follows the retained values.
+     *
+     * @param timelineManager manager of the layers
+     * @return true if the currently visible area has changed
+     */
+    public final boolean updateMinAndMaxTime(TimelineManager timelineManager) {
+        if (timelineManager.isEmpty()) {
+            return false;
+        }
+        long previousMin = currentMin;
+        long previousMax = currentMax;
+        this.minTime = timelineManager.hasRetention() ? timelineManager.getMinTime() : 0;
         this.maxTime = timelineManager.getMaxTime();
         if (noZoom) {
             setDefaultZoom();
         } else {
             trimZoom();
         }
+        return currentMin != previousMin || currentMax != previousMax;
+    }
+
+    /**
+     * Extends the timeline so that it contains the given time without scanning all the layers.
+     *
+     * @param time time value which needs to fit on the timeline
+     * @return true if the currently visible area has changed
+     */
+    public boolean extendMaxTime(long time) {
+        if (time <= maxTime) {
+            return false;
+        }
+
+        maxTime = time;
+        if (noZoom) {
+            setDefaultZoom();
+            return true;
+        }
+        return false;
     }
 
     private void setDefaultZoom() {
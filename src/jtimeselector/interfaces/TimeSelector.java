@@ -1,15 +1,118 @@
 package jtimeselector.interfaces;
 
+import com.vorono4ka.interfaces.LongSequence;
+import jtimeselector.LayerSelection;
+import jtimeselector.LayerUpdate;
+import jtimeselector.RetentionPolicy;
 import jtimeselector.TimeSelectionType;
 
+import java.util.List;
+
 public interface TimeSelector {
     /**
      * Adds a layer with a small circle for each time value in the list.
      * @param name name of the layer
      * @param timeValues time instants for which a small circle will be drawn on the timeline
+     * @throws IllegalArgumentException if there already is a layer with the given name
      */
     void addTimeValuesLayer(String name, long[] timeValues);
 
+    /**
+     * Adds a layer with a small circle for each time value in the sequence. The sequence is used directly,
+     * so it can be kept outside the heap, for example in a {@link com.vorono4ka.MappedLongSequence}.
+     * @param name name of the layer
+     * @param timeValues time instants sorted in the ascending order
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    void addTimeValuesLayer(String name, LongSequence timeValues);
+
+    /**
+     * Adds a layer which keeps only the values allowed by the retention policy. Values appended
+     * to the layer later make the oldest values be removed, so the memory taken by the layer stays bounded.
+     * @param name name of the layer
+     * @param timeValues time instants for which a small circle will be drawn on the timeline
+     * @param retention policy determining which values are kept
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    void addTimeValuesLayer(String name, long[] timeValues, RetentionPolicy retention);
+
+    /**
+     * Adds a layer which draws the density of the time values as a heat map instead of a circle for each of them.
+     * It suits layers with so many values that their single circles could not be told apart.
+     * @param name name of the layer
+     * @param timeValues time instants sorted in the ascending order
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    void addDensityLayer(String name, long[] timeValues);
+
+    /**
+     * Adds a layer which draws the density of the time values in the sequence as a heat map.
+     * The sequence is used directly, so it can be kept outside the heap.
+     * @param name name of the layer
+     * @param timeValues time instants sorted in the ascending order
+     * @throws IllegalArgumentException if there already is a layer with the given name
+     */
+    void addDensityLayer(String name, LongSequence timeValues);
+
+    /**
+     * Adds a layer which draws a line graph of the values measured at the time values,
+     * for example of an altitude or a voltage.
+     * @param name name of the layer
+     * @param timeValues time instants sorted in the ascending order
+     * @param values values measured at the time instants, none of them NaN
+     * @throws IllegalArgumentException if there already is a layer with the given name, the arrays are not of the same length,
+     *                                  the time values are not sorted or a value is NaN
+     */
+    void addValueGraphLayer(String name, long[] timeValues, double[] values);
+
+    /**
+     * Adds a layer which draws entries lasting for some time, for example flight phases, as bars from their starts to their ends.
+     * @param name name of the layer
+     * @param starts starts of the spans sorted in the ascending order
+     * @param ends ends of the spans in the order of their starts
+     * @throws IllegalArgumentException if there already is a layer with the given name, the arrays are not of the same length,
+     *                                  the starts are not sorted or a span ends before it starts
+     */
+    void addSpanLayer(String name, long[] starts, long[] ends);
+
+    /**
+     * Adds a layer which draws a categorical signal, for example a flight mode, as bands coloured by its states.
+     * Only the changes of the state are kept, so a signal sampled at a high rate takes little memory.
+     * The name of the state at the time of the cursor is shown next to the cursor.
+     * @param name name of the layer
+     * @param sampleTimes times of the samples sorted in the ascending order
+     * @param states states of the signal at the times of the samples, none of them negative
+     * @param stateNames names of the states indexed by the states, null to show the states as numbers
+     * @throws IllegalArgumentException if there already is a layer with the given name, the arrays are not of the same length,
+     *                                  the times are not sorted or a state is negative
+     */
+    void addStateLayer(String name, long[] sampleTimes, int[] states, String[] stateNames);
+
+    /**
+     * Appends time values to the end of the layer with the given name. Only the part of the component
+     * on which the new values are drawn is repainted.
+     * @param name name of the layer
+     * @param sortedChunk time values sorted in the ascending order, none of them less than the last value of the layer
+     * @throws IllegalArgumentException if there is no such layer or the values are not sorted
+     */
+    void appendTimeValues(String name, long[] sortedChunk);
+
+    /**
+     * Changes the height of the row of the layer with the given name. The entries are centered in the row.
+     * @param name name of the layer
+     * @param height new height of the row in pixels
+     * @throws IllegalArgumentException if there is no such layer or the entries of the layer do not fit into the height
+     */
+    void setLayerHeight(String name, int height);
+
+    /**
+     * Starts a batch of changes of the layers, which are all applied by {@link LayerUpdate#commit()}.
+     * The bounds of the timeline are computed and the component is repainted only once for the whole batch,
+     * so it is the way to add, replace or remove many layers at once.
+     * @return new update of the layers
+     */
+    LayerUpdate updateLayers();
+
     /**
      * Removes the layer with the given name from the list of displayed layers. Does not automatically refresh/redraw the panel!
      * @param name 
@@ -46,6 +149,13 @@ public interface TimeSelector {
 
     TimeSelectionType getTimeSelectionType();
 
+    /**
+     * Gets the selected entries of each selected layer as ranges of indices into the layer values.
+     * The ranges are found by binary search, so the call is cheap even for large layers.
+     * @return the selected entries of each selected layer, empty list if nothing is selected
+     */
+    List<LayerSelection> getSelectedEntries();
+
     /**
      * Registers the given object as a new listener.  The listener will be notified of any change in the selected time.
      * @param selectionListener listener
@@ -0,0 +1,35 @@
+package jtimeselector.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Drawing of all the layers of one frame, on the Event Dispatch Thread or on the render thread.
+ */
+@Name("jtimeselector.DrawLayers")
+@Label("Draw Layers")
+@Category("JTimeSelector")
+@Description("Drawing of all the layers of one frame")
+public class DrawLayersEvent extends Event {
+    @Label("Layer Count")
+    public int layerCount;
+
+    @Label("Rendering Engine")
+    public String renderingEngine;
+
+    @Label("Parallel")
+    public boolean parallel;
+
+    @Label("Cancelled")
+    @Description("Whether the frame has been cancelled before it was completed")
+    public boolean cancelled;
+
+    @Label("Visible Min Time")
+    public long visibleMinTime;
+
+    @Label("Visible Max Time")
+    public long visibleMaxTime;
+}
@@ -0,0 +1,40 @@
+package jtimeselector.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Adding a layer of time values or appending values to an existing layer.
+ */
+@Name("jtimeselector.Ingestion")
+@Label("Ingestion")
+@Category("JTimeSelector")
+@Description("Adding a layer of time values or appending values to a layer")
+public class IngestionEvent extends Event {
+    public static final String ADD_LAYER = "add layer";
+    public static final String APPEND = "append";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Layer Name")
+    public String layerName;
+
+    @Label("Added Entries")
+    public int addedEntries;
+
+    @Label("Entry Count")
+    @Description("Count of all the entries of the layer after the operation")
+    public int entryCount;
+
+    @Label("Min Time")
+    @Description("The least time value of the layer after the operation")
+    public long minTime;
+
+    @Label("Max Time")
+    @Description("The greatest time value of the layer after the operation")
+    public long maxTime;
+}
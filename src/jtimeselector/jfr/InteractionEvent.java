@@ -0,0 +1,38 @@
+package jtimeselector.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Handling of a mouse action of the user, such as zooming, moving the visible area or selecting.
+ */
+@Name("jtimeselector.Interaction")
+@Label("Interaction")
+@Category("JTimeSelector")
+@Description("Handling of a mouse action of the user")
+public class InteractionEvent extends Event {
+    public static final String ZOOM_IN = "zoom in";
+    public static final String ZOOM_OUT = "zoom out";
+    public static final String MOVE = "move";
+    public static final String SELECT_TIME = "select time";
+    public static final String SELECT_INTERVAL = "select interval";
+    public static final String DRAG_SELECTION = "drag selection";
+
+    @Label("Action")
+    public String action;
+
+    @Label("Coalesced Inputs")
+    @Description("Count of input events applied at once, the zooming and moving is applied once per frame")
+    public int coalescedInputs;
+
+    @Label("Visible Min Time")
+    @Description("Start of the visible time interval after the action")
+    public long visibleMinTime;
+
+    @Label("Visible Max Time")
+    @Description("End of the visible time interval after the action")
+    public long visibleMaxTime;
+}
@@ -0,0 +1,36 @@
+package jtimeselector.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Drawing of the entries of a single layer, either directly into the frame or into a tile of the cache.
+ */
+@Name("jtimeselector.LayerDraw")
+@Label("Layer Draw")
+@Category("JTimeSelector")
+@Description("Drawing of the entries of a single layer")
+public class LayerDrawEvent extends Event {
+    @Label("Layer Name")
+    public String layerName;
+
+    @Label("Entry Count")
+    @Description("Count of all the entries of the layer")
+    public int entryCount;
+
+    @Label("Visible Entries")
+    public int visibleEntries;
+
+    @Label("Drawn Markers")
+    @Description("Count of the drawn markers of entries or runs of entries")
+    public int drawnMarkers;
+
+    @Label("Visible Min Time")
+    public long visibleMinTime;
+
+    @Label("Visible Max Time")
+    public long visibleMaxTime;
+}
@@ -0,0 +1,32 @@
+package jtimeselector.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Painting of the component on the Event Dispatch Thread, including drawing of the layers if they have changed.
+ */
+@Name("jtimeselector.Paint")
+@Label("Paint")
+@Category("JTimeSelector")
+@Description("Painting of the JTimeSelector component")
+public class PaintEvent extends Event {
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Layers Drawn")
+    @Description("Whether the layers have been drawn again, or only the last drawn image has been copied")
+    public boolean layersDrawn;
+
+    @Label("Visible Min Time")
+    public long visibleMinTime;
+
+    @Label("Visible Max Time")
+    public long visibleMaxTime;
+}
@@ -0,0 +1,194 @@
+package jtimeselector.layers;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+import com.vorono4ka.BinarySearcher;
+import com.vorono4ka.LongList;
+import com.vorono4ka.interfaces.LongSequence;
+import jtimeselector.LayerSelection;
+import jtimeselector.VisibleAreaManager;
+import jtimeselector.jfr.LayerDrawEvent;
+
+/**
+ * Draws the density of the entries of a layer as a heat map instead of a marker for each entry.
+ * <p>
+ * The time values are sorted, so the index of the first value of a pixel column is the count of all
+ * the values before the column. The count of the entries of a column is the difference of the indices
+ * of two neighbouring columns, each found by a binary search, and the drawing takes O(width * log n)
+ * time however many entries the layer has. Columns without entries are skipped at once, and neighbouring
+ * columns of the same colour are filled by a single rectangle.
+ * <p>
+ * The colour of a column depends only on its count and on the average count of the entries per pixel,
+ * which is the same for the whole timeline at the given zoom, so tiles rendered separately fit together.
+ */
+public class DensityLayer extends Layer {
+    public static final int HEIGHT = 20;
+    public static final Color LOW_DENSITY_COLOR = new Color(0xb8c8e8);
+    public static final Color HIGH_DENSITY_COLOR = new Color(0x1a2b4c);
+
+    /**
+     * Columns whose count is this many times the average count of the layer have the darkest colour.
+     */
+    private static final double SATURATION_FACTOR = 8;
+    private static final Color[] RAMP = createRamp(64);
+
+    public final LongSequence timeValues;
+
+    public DensityLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, long[] array) {
+        this(timelineManager, visibleAreaManager, name, new LongList(array));
+    }
+
+    public DensityLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, LongSequence timeValues) {
+        super(timelineManager, visibleAreaManager, name, HEIGHT);
+
+        this.timeValues = timeValues;
+    }
+
+    private static Color[] createRamp(int steps) {
+        Color[] ramp = new Color[steps];
+        for (int i = 0; i < steps; i++) {
+            float ratio = i / (float) (steps - 1);
+            ramp[i] = new Color(
+                interpolate(LOW_DENSITY_COLOR.getRed(), HIGH_DENSITY_COLOR.getRed(), ratio),
+                interpolate(LOW_DENSITY_COLOR.getGreen(), HIGH_DENSITY_COLOR.getGreen(), ratio),
+                interpolate(LOW_DENSITY_COLOR.getBlue(), HIGH_DENSITY_COLOR.getBlue(), ratio)
+            );
+        }
+        return ramp;
+    }
+
+    private static int interpolate(int from, int to, float ratio) {
+        return Math.round(from + (to - from) * ratio);
+    }
+
+    @Override
+    int getMinimumHeight() {
+        return 6;
+    }
+
+    @Override
+    void drawEntries(Graphics2D graphics, MarkerPainter markers, Viewport viewport, int x, int y) {
+        if (timeValues.size() == 0) return;
+
+        LayerDrawEvent event = new LayerDrawEvent();
+        event.begin();
+
+        // the columns are centered on the x coordinates of the entries, like the markers of the other layers
+        x += Layer.POINT_RADIUS;
+        final int bandY = y + 3;
+        final int bandHeight = Math.max(getHeight() - 6, 1);
+        final double saturationLog = Math.log1p(getSaturationCount(viewport.getTimePerPixel()));
+
+        final int firstIndex = lowerBound(viewport.getMinTime());
+        final int endIndex = upperBound(viewport.getMaxTime());
+
+        int bandCount = 0;
+        int bandStart = 0;
+        int bandEnd = 0;
+        int bandColor = -1;
+        int i = firstIndex;
+        while (i < endIndex) {
+            // the entries of the column end where the next column starts, the columns without entries are skipped
+            int column = viewport.getXForTime(timeValues.get(i));
+            int next = Math.max(BinarySearcher.lowerBound(timeValues, viewport.getFirstTimeForX(column + 1), i, endIndex), i + 1);
+            int color = getRampIndex(next - i, saturationLog);
+            i = next;
+
+            if (color == bandColor && column == bandEnd + 1) {
+                bandEnd = column;
+                continue;
+            }
+
+            if (bandColor >= 0) {
+                fillBand(graphics, bandColor, x + bandStart, x + bandEnd, bandY, bandHeight);
+                bandCount++;
+            }
+            bandStart = column;
+            bandEnd = column;
+            bandColor = color;
+        }
+        if (bandColor >= 0) {
+            fillBand(graphics, bandColor, x + bandStart, x + bandEnd, bandY, bandHeight);
+            bandCount++;
+        }
+
+        final int visibleCount = Math.max(endIndex - firstIndex, 0);
+        timelineManager.getMetrics().recordEntries(getName(), bandCount, Math.max(visibleCount - bandCount, 0));
+
+        if (event.shouldCommit()) {
+            event.layerName = getName();
+            event.entryCount = timeValues.size();
+            event.visibleEntries = visibleCount;
+            event.drawnMarkers = bandCount;
+            event.visibleMinTime = viewport.getMinTime();
+            event.visibleMaxTime = viewport.getMaxTime();
+            event.commit();
+        }
+    }
+
+    /**
+     * @param timePerPixel time span covered by one pixel
+     * @return count of the entries of a column which is drawn with the darkest colour
+     */
+    private double getSaturationCount(double timePerPixel) {
+        double span = Math.max(getMaxTimeValue() - getMinTimeValue(), 1);
+        double averageCount = timeValues.size() * timePerPixel / span;
+        return Math.max(averageCount * SATURATION_FACTOR, 1);
+    }
+
+    /**
+     * The count is mapped to the colour on the logarithmic scale, so that sparse columns
+     * can still be told apart from the empty ones next to the busiest columns.
+     */
+    private static int getRampIndex(int count, double saturationLog) {
+        int index = (int) (Math.log1p(count) / saturationLog * (RAMP.length - 1));
+        return Math.min(Math.max(index, 0), RAMP.length - 1);
+    }
+
+    private static void fillBand(Graphics2D graphics, int color, int fromX, int toX, int y, int height) {
+        graphics.setColor(RAMP[color]);
+        graphics.fillRect(fromX, y, toX - fromX + 1, height);
+    }
+
+    @Override
+    void drawTimeSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        if (selection.isEmpty()) return;
+
+        int circleX = timelineManager.getLegendWidth() + timelineManager.getXForTime(selection.getFromTime()) - Layer.POINT_RADIUS;
+        int circleY = y + getHeight() / 2 - Layer.POINT_RADIUS;
+        drawSelectionCircle(graphics, MarkerAtlas.forSelection(timelineManager.getRenderingEngine(), graphics), circleX, circleY);
+    }
+
+    @Override
+    void drawIntervalSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        drawSelectedSpan(graphics, selection, y);
+    }
+
+    @Override
+    LongSequence getTimeValues() {
+        return timeValues;
+    }
+
+    @Override
+    int lowerBound(long time) {
+        return BinarySearcher.lowerBound(timeValues, time);
+    }
+
+    @Override
+    int upperBound(long time) {
+        return BinarySearcher.upperBound(timeValues, time);
+    }
+
+    @Override
+    long getMaxTimeValue() {
+        if (timeValues.size() == 0) return Long.MIN_VALUE;
+        return timeValues.get(timeValues.size() - 1);
+    }
+
+    @Override
+    long getMinTimeValue() {
+        if (timeValues.size() == 0) return Long.MAX_VALUE;
+        return timeValues.get(0);
+    }
+}
@@ -0,0 +1,82 @@
+package jtimeselector.layers;
+
+import java.util.List;
+
+/**
+ * Everything needed for drawing the layers of one frame, captured at the moment the frame is requested.
+ * The layout does not change later, so the frame can be drawn on another thread
+ * while the component goes on with changing the visible area or the list of layers.
+ * <p>
+ * The frame covers only the rows between {@link #getTop()} and {@link #getBottom()}, so that a component
+ * with thousands of layers inside a scroll pane draws only the layers which are scrolled into view.
+ */
+public class FrameLayout {
+    private final LayerRows rows;
+    private final Viewport viewport;
+    private final int headerWidth;
+    private final int width;
+    private final int height;
+    private final int top;
+
+    /**
+     * @param rows        layers to draw and their positions
+     * @param viewport    visible part of the timeline
+     * @param headerWidth width of the longest name of the layers
+     * @param width       width of the image
+     * @param height      height of the image
+     * @param top         y coordinate of the component which is drawn on the first row of the image
+     */
+    public FrameLayout(LayerRows rows, Viewport viewport, int headerWidth, int width, int height, int top) {
+        this.rows = rows;
+        this.viewport = viewport;
+        this.headerWidth = headerWidth;
+        this.width = width;
+        this.height = height;
+        this.top = top;
+    }
+
+    public List<Layer> getLayers() {
+        return rows.getLayers();
+    }
+
+    public LayerRows getRows() {
+        return rows;
+    }
+
+    public Viewport getViewport() {
+        return viewport;
+    }
+
+    public int getHeaderWidth() {
+        return headerWidth;
+    }
+
+    /**
+     * @return x coordinate of the image at which the viewport starts
+     */
+    public int getEntriesX() {
+        return headerWidth + 2 * Layer.PADDING;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return y coordinate of the component which is drawn on the first row of the image
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * @return y coordinate of the component below the last row of the image
+     */
+    public int getBottom() {
+        return top + height;
+    }
+}
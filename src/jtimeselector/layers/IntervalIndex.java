@@ -0,0 +1,139 @@
+package jtimeselector.layers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vorono4ka.BinarySearcher;
+
+/**
+ * Index of intervals sorted by their starts, which finds the intervals overlapping a given time interval.
+ * <p>
+ * The intervals which start before the end of the queried interval are a prefix of the sorted starts,
+ * found by a binary search. Of them, only the intervals ending after the start of the queried interval
+ * overlap it. Every level of the index keeps the greatest end of the blocks of {@value #BLOCK_SIZE} items
+ * of the previous level, the first level being the ends themselves, so the blocks with no overlapping
+ * interval are skipped and the k overlapping intervals are found in O(log n + k) time.
+ */
+class IntervalIndex {
+    private static final int BLOCK_SHIFT = 5;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private final long[] starts;
+    private final List<long[]> maxEnds = new ArrayList<>();
+
+    /**
+     * @param starts starts of the intervals sorted in the ascending order, they are not copied
+     * @param ends   ends of the intervals, none of them less than the start of its interval, they are not copied
+     */
+    IntervalIndex(long[] starts, long[] ends) {
+        this.starts = starts;
+
+        long[] level = ends;
+        maxEnds.add(level);
+        while (level.length > BLOCK_SIZE) {
+            level = reduce(level);
+            maxEnds.add(level);
+        }
+    }
+
+    private static long[] reduce(long[] level) {
+        long[] reduced = new long[(level.length + BLOCK_MASK) >>> BLOCK_SHIFT];
+        for (int block = 0; block < reduced.length; block++) {
+            int from = block << BLOCK_SHIFT;
+            reduced[block] = max(level, from, Math.min(from + BLOCK_SIZE, level.length));
+        }
+        return reduced;
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    /**
+     * @param time time value
+     * @return index after the last interval which starts at or before the time
+     */
+    int endOfStartingBefore(long time) {
+        return BinarySearcher.lastLessThanOrEqual(starts, time, 0, starts.length) + 1;
+    }
+
+    /**
+     * @param fromIndex index of the first interval which is searched
+     * @param toIndex   index after the last interval which is searched
+     * @param time      time value
+     * @return index of the first of the intervals which ends at or after the time, or toIndex if there is none
+     */
+    int nextEndingAtOrAfter(int fromIndex, int toIndex, long time) {
+        return next(0, fromIndex, toIndex, time);
+    }
+
+    /**
+     * @param fromIndex index of the first interval
+     * @param toIndex   index after the last interval, greater than fromIndex
+     * @return the greatest end of the intervals
+     */
+    long getMaxEnd(int fromIndex, int toIndex) {
+        return getMaxEnd(0, fromIndex, toIndex);
+    }
+
+    /**
+     * @return the greatest end of all the intervals, {@link Long#MIN_VALUE} if there are none
+     */
+    long getMaxEnd() {
+        long[] top = maxEnds.get(maxEnds.size() - 1);
+        return top.length == 0 ? Long.MIN_VALUE : max(top, 0, top.length);
+    }
+
+    private int next(int level, int fromIndex, int toIndex, long time) {
+        long[] items = maxEnds.get(level);
+        int index = fromIndex;
+        // the items up to the start of the next block are checked one by one
+        for (; index < toIndex && (index & BLOCK_MASK) != 0; index++) {
+            if (items[index] >= time) return index;
+        }
+
+        while (index < toIndex) {
+            if (level + 1 < maxEnds.size()) {
+                // the next level finds the block which contains such an item
+                int toBlock = (toIndex + BLOCK_MASK) >>> BLOCK_SHIFT;
+                int block = next(level + 1, index >>> BLOCK_SHIFT, toBlock, time);
+                if (block == toBlock) return toIndex;
+                index = Math.max(index, block << BLOCK_SHIFT);
+            }
+
+            int blockEnd = Math.min((index | BLOCK_MASK) + 1, toIndex);
+            for (; index < blockEnd; index++) {
+                if (items[index] >= time) return index;
+            }
+        }
+        return toIndex;
+    }
+
+    private long getMaxEnd(int level, int fromIndex, int toIndex) {
+        long[] items = maxEnds.get(level);
+        int fromBlock = (fromIndex + BLOCK_MASK) >>> BLOCK_SHIFT;
+        int toBlock = toIndex >>> BLOCK_SHIFT;
+        if (level + 1 == maxEnds.size() || fromBlock >= toBlock) {
+            return max(items, fromIndex, toIndex);
+        }
+
+        // the whole blocks in the middle of the range are answered by the next level
+        long result = getMaxEnd(level + 1, fromBlock, toBlock);
+        if (fromIndex < fromBlock << BLOCK_SHIFT) {
+            result = Math.max(result, max(items, fromIndex, fromBlock << BLOCK_SHIFT));
+        }
+        if (toBlock << BLOCK_SHIFT < toIndex) {
+            result = Math.max(result, max(items, toBlock << BLOCK_SHIFT, toIndex));
+        }
+        return result;
+    }
+
+    private static long max(long[] items, int fromIndex, int toIndex) {
+        long result = items[fromIndex];
+        for (int i = fromIndex + 1; i < toIndex; i++) {
+            result = Math.max(result, items[i]);
+        }
+        return result;
+    }
+}
@@ -1,6 +1,13 @@
 package jtimeselector.layers;
 
+import java.awt.Color;
 import java.awt.Graphics2D;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.vorono4ka.interfaces.LongSequence;
+import jtimeselector.LayerSelection;
+import jtimeselector.TimeSelectionManager;
 import jtimeselector.VisibleAreaManager;
 
 /**
@@ -10,15 +17,25 @@ public abstract class Layer {
     public static final int PADDING = 5;
     public static final int POINT_RADIUS = 3;
     public static final int BRG_RECT_WIDTH = 6;
+    public static final Color LEGEND_TEXT_COLOR = Color.black;
+    public static final Color INTERVAL_SELECTION_COLOR = new Color(0x664b6eaf, true);
 
     protected final TimelineManager timelineManager;
     protected final VisibleAreaManager visibleAreaManager;
     private final String name;
+    private volatile int height;
+
+    /**
+     * Drawing of the entries takes the read lock, so more threads can draw the layer at once.
+     * Changes of the entries or of the height take the write lock, so they wait until the layer is drawn.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
-    public Layer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name) {
+    public Layer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, int height) {
         this.timelineManager = timelineManager;
         this.visibleAreaManager = visibleAreaManager;
         this.name = name;
+        this.height = height;
     }
 
     public String getName() {
@@ -26,19 +43,142 @@ public abstract class Layer {
     }
 
     /**
-     * Draws the layer
+     * Draws the name of the layer into the header column.
      *
-     * @param graphics      Graphics object for drawing
-     * @param headerSize    width of the header column (column with layer names)
-     * @param graphicsWidth width of the image on which the graphics is drawn.
-     * @param y             y coordinate of the location where the layer should be drawn.
+     * @param graphics Graphics object for drawing
+     * @param y        y coordinate of the location where the layer should be drawn.
      */
-    abstract void draw(Graphics2D graphics, int headerSize, int graphicsWidth, int y);
+    void drawLegend(Graphics2D graphics, int y) {
+        graphics.setColor(LEGEND_TEXT_COLOR);
+        graphics.drawString(getName(), Layer.PADDING, y + getHeight() / 2 + graphics.getFontMetrics().getHeight() / 2);
+    }
+
+    /**
+     * Draws the entries of the layer which lie in the viewport.
+     *
+     * @param graphics Graphics object for drawing
+     * @param markers  painter of pre-rendered markers of the entries, null if the shape calls of the graphics should be used
+     * @param viewport part of the timeline which should be drawn
+     * @param x        x coordinate of the location where the viewport starts
+     * @param y        y coordinate of the location where the layer should be drawn.
+     */
+    abstract void drawEntries(Graphics2D graphics, MarkerPainter markers, Viewport viewport, int x, int y);
+
+    ReadWriteLock getLock() {
+        return lock;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    void setHeight(int height) {
+        this.height = height;
+    }
 
-    abstract int getHeight();
+    /**
+     * @return the least height on which the entries of the layer fit
+     */
+    int getMinimumHeight() {
+        return 1;
+    }
     
     abstract long getMaxTimeValue();
     abstract long getMinTimeValue();
-    abstract void drawTimeSelectionEffect(Graphics2D graphics, long time, int y);
-    abstract void drawIntervalSelectionEffect(Graphics2D graphics, long from, long to, int y);
+
+    /**
+     * @return true if the oldest entries of the layer may be removed, so its least time value may grow
+     */
+    boolean hasRetention() {
+        return false;
+    }
+
+    /**
+     * @return time values of the entries sorted in the ascending order
+     */
+    abstract LongSequence getTimeValues();
+
+    /**
+     * @param time time value
+     * @return index of the first entry which is not before the time, or the count of entries if there is no such entry
+     */
+    abstract int lowerBound(long time);
+
+    /**
+     * @param time time value
+     * @return index of the first entry which is after the time, or the count of entries if there is no such entry
+     */
+    abstract int upperBound(long time);
+
+    /**
+     * Draws the value of the layer at the time of the cursor next to the cursor. Most layers have no such value.
+     *
+     * @param graphics Graphics object for drawing
+     * @param time     time of the cursor
+     * @param x        x coordinate of the cursor
+     * @param y        y coordinate of the layer
+     */
+    void drawCursorReadout(Graphics2D graphics, long time, int x, int y) {
+    }
+
+    /**
+     * Highlights the entries at the selected time.
+     *
+     * @param graphics  Graphics object for drawing
+     * @param selection selected time and the range of the entries at it
+     * @param y         y coordinate of the layer
+     */
+    abstract void drawTimeSelectionEffect(Graphics2D graphics, LayerSelection selection, int y);
+
+    /**
+     * Highlights the entries in the selected time interval.
+     *
+     * @param graphics  Graphics object for drawing
+     * @param selection selected time interval and the range of the entries in it
+     * @param y         y coordinate of the layer
+     */
+    abstract void drawIntervalSelectionEffect(Graphics2D graphics, LayerSelection selection, int y);
+
+    /**
+     * Draws the circle of a selected entry.
+     *
+     * @param graphics Graphics object for drawing
+     * @param atlas    atlas of {@link MarkerAtlas#forSelection}, null to fill the circle by the shape call of the graphics
+     * @param x        x coordinate of the left side of the circle
+     * @param y        y coordinate of the top of the circle
+     */
+    static void drawSelectionCircle(Graphics2D graphics, MarkerAtlas atlas, int x, int y) {
+        if (atlas != null) {
+            atlas.drawSelection(graphics, x, y);
+            return;
+        }
+
+        graphics.setColor(TimeSelectionManager.SELECTION_COLOR);
+        graphics.fillOval(x, y, 2 * POINT_RADIUS, 2 * POINT_RADIUS);
+    }
+
+    /**
+     * Highlights the part of the layer between the first and the last selected entry.
+     * Suits the layers which do not draw a separate marker for each entry.
+     *
+     * @param graphics  Graphics object for drawing
+     * @param selection selected time interval and the range of the entries in it
+     * @param y         y coordinate of the layer
+     */
+    void drawSelectedSpan(Graphics2D graphics, LayerSelection selection, int y) {
+        if (selection.isEmpty()) return;
+
+        int fromIndex = selection.getFirstIndex();
+        int toIndex = selection.getLastIndex();
+
+        LongSequence timeValues = getTimeValues();
+        int legendWidth = timelineManager.getLegendWidth();
+        int fromX = legendWidth + timelineManager.getXForTime(Math.max(timeValues.get(fromIndex), visibleAreaManager.getCurrentMinTime()));
+        int toX = legendWidth + timelineManager.getXForTime(Math.min(timeValues.get(toIndex), visibleAreaManager.getCurrentMaxTime()));
+
+        graphics.setColor(INTERVAL_SELECTION_COLOR);
+        graphics.fillRect(fromX, y + 1, toX - fromX + 1, getHeight() - 2);
+        graphics.setColor(TimeSelectionManager.SELECTION_COLOR);
+        graphics.drawRect(fromX, y + 1, toX - fromX, getHeight() - 3);
+    }
 }
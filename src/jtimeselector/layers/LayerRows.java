@@ -0,0 +1,106 @@
+package jtimeselector.layers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vertical arrangement of the layers. Keeps the y coordinates of the tops of all the layers as prefix sums
+ * of their heights, so the layer on a y coordinate is found by a binary search even among thousands of layers.
+ * <p>
+ * The rows do not change later, a new instance is created whenever a layer is added, removed or resized.
+ */
+public class LayerRows {
+    private final List<Layer> layers;
+
+    /**
+     * Tops of the layers, the last item is the bottom of the last layer.
+     */
+    private final int[] tops;
+
+    /**
+     * Indexes of the layers by their names.
+     */
+    private final Map<String, Integer> indexes;
+
+    /**
+     * @param layers layers in the order in which they are drawn from top to bottom
+     * @param top    y coordinate of the top of the first layer
+     */
+    public LayerRows(List<Layer> layers, int top) {
+        this.layers = List.copyOf(layers);
+        this.tops = new int[this.layers.size() + 1];
+        this.indexes = new HashMap<>(this.layers.size() * 2);
+
+        tops[0] = top;
+        for (int i = 0; i < this.layers.size(); i++) {
+            tops[i + 1] = tops[i] + this.layers.get(i).getHeight();
+            indexes.put(this.layers.get(i).getName(), i);
+        }
+    }
+
+    public List<Layer> getLayers() {
+        return layers;
+    }
+
+    /**
+     * @return count of the layers
+     */
+    public int size() {
+        return layers.size();
+    }
+
+    public Layer getLayer(int index) {
+        return layers.get(index);
+    }
+
+    /**
+     * @param layerName name of the layer
+     * @return index of the layer with the given name, -1 if there is no such layer
+     */
+    public int indexOf(String layerName) {
+        return indexes.getOrDefault(layerName, -1);
+    }
+
+    /**
+     * @param index index of the layer, or the count of layers for the bottom of the last layer
+     * @return y coordinate of the top of the layer
+     */
+    public int getTop(int index) {
+        return tops[index];
+    }
+
+    /**
+     * @param index index of the layer
+     * @return height of the layer at the moment the rows have been created
+     */
+    public int getHeight(int index) {
+        return tops[index + 1] - tops[index];
+    }
+
+    /**
+     * @return y coordinate of the bottom of the last layer
+     */
+    public int getBottom() {
+        return tops[layers.size()];
+    }
+
+    /**
+     * @param y y coordinate
+     * @return index of the layer whose row contains the y coordinate, -1 if it lies above the first layer
+     * or the count of layers if it lies below the last layer
+     */
+    public int getRowAt(int y) {
+        int low = 0;
+        int high = tops.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (tops[middle] <= y) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+}
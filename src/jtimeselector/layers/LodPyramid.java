@@ -0,0 +1,343 @@
+package jtimeselector.layers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.vorono4ka.interfaces.LongSequence;
+
+/**
+ * Level-of-detail pyramid over a sorted sequence of time values.
+ * <p>
+ * Every level splits the time axis into buckets of the same power-of-two width
+ * and keeps the count, minimum and maximum of the values that fall into each
+ * non-empty bucket, which takes {@value #BUCKET_BYTES} bytes per bucket. The finest
+ * stored level has at most one bucket per {@value #MIN_VALUES_PER_BUCKET} values and
+ * every further level at most a half of the buckets of the previous one, so all the
+ * levels together take at most 2 * 20 / 8 = 5 bytes per value when they are built,
+ * less than the 8 bytes of the value itself. Zooming in below the finest level draws
+ * the single entries.
+ * <p>
+ * Values appended later are added to the existing levels, each of them may add one
+ * bucket to every level and the arrays of a level grow by a half of their length,
+ * so until the levels are chosen again the pyramid may take more memory than the bound.
+ * Once the count of values doubles, the levels are chosen again, which keeps appending
+ * O(1) amortized.
+ * Values removed from the beginning of the sequence are removed from the first
+ * buckets of each level.
+ */
+public class LodPyramid {
+    private static final int MAX_SHIFT = Long.SIZE - 2;
+    private static final int MIN_VALUES_PER_BUCKET = 8;
+    private static final int BUCKET_BYTES = 2 * Long.BYTES + Integer.BYTES;
+
+    private final List<Level> levels = new ArrayList<>();
+    private int builtSize;
+
+    /**
+     * @param values time values sorted in the ascending order
+     */
+    public LodPyramid(LongSequence values) {
+        build(values);
+    }
+
+    /**
+     * Adds values appended to the end of the sequence to the pyramid.
+     *
+     * @param values    time values sorted in the ascending order
+     * @param fromIndex index of the first value which is not in the pyramid yet
+     */
+    public void append(LongSequence values, int fromIndex) {
+        int size = values.size();
+        if (size >= 2 * builtSize) {
+            levels.clear();
+            build(values);
+            return;
+        }
+
+        for (Level level : levels) {
+            for (int i = fromIndex; i < size; i++) {
+                level.append(values.get(i));
+            }
+        }
+    }
+
+    /**
+     * Removes values which have been removed from the beginning of the sequence.
+     *
+     * @param values sequence after the removal
+     * @param count  count of the removed values
+     */
+    public void removeFirst(LongSequence values, int count) {
+        if (values.size() == 0) {
+            levels.clear();
+            builtSize = 0;
+            return;
+        }
+
+        long newFirstValue = values.get(0);
+        for (Level level : levels) {
+            level.removeFirst(count, newFirstValue);
+        }
+    }
+
+    private void build(LongSequence values) {
+        builtSize = values.size();
+
+        int firstShift = findFirstShift(values);
+        if (firstShift == -1) return;
+
+        Level level = Level.fromValues(values, firstShift, countBuckets(values, firstShift));
+        levels.add(level);
+        for (int shift = firstShift + 1; shift <= MAX_SHIFT && level.size() > 1; shift++) {
+            int bucketCount = level.countBuckets(shift);
+            if (bucketCount <= level.size() / 2) {
+                level = level.coarser(shift, bucketCount);
+                levels.add(level);
+            }
+        }
+    }
+
+    /**
+     * The bucket count does not grow with the bucket width, so the finest level
+     * with at most one bucket per {@value #MIN_VALUES_PER_BUCKET} values can be found
+     * by a binary search over the shifts.
+     *
+     * @return shift of the finest level worth storing, or -1 if there is no such level
+     */
+    private static int findFirstShift(LongSequence values) {
+        int size = values.size();
+        int maxBucketCount = size / MIN_VALUES_PER_BUCKET;
+        if (maxBucketCount < 1 || countBuckets(values, MAX_SHIFT) > maxBucketCount) {
+            return -1;
+        }
+
+        int low = 1;
+        int high = MAX_SHIFT;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (countBuckets(values, middle) <= maxBucketCount) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int countBuckets(LongSequence values, int shift) {
+        int count = 0;
+        long previousBucket = 0;
+        for (int i = 0; i < values.size(); i++) {
+            long bucket = values.get(i) >> shift;
+            if (i == 0 || previousBucket != bucket) {
+                count++;
+            }
+            previousBucket = bucket;
+        }
+        return count;
+    }
+
+    /**
+     * Picks the coarsest level whose buckets are not wider than the given time span,
+     * which results in about one bucket per pixel when the span of one pixel is passed.
+     *
+     * @param timePerPixel time span covered by one pixel
+     * @return the level or null if even the finest stored level is too coarse
+     */
+    public Level getLevel(double timePerPixel) {
+        Level result = null;
+        for (Level level : levels) {
+            if (level.getBucketWidth() > timePerPixel) {
+                break;
+            }
+            result = level;
+        }
+        return result;
+    }
+
+    public int getLevelCount() {
+        return levels.size();
+    }
+
+    /**
+     * @return count of bytes taken by the arrays of all the levels, including the buckets reserved for appended values
+     */
+    long getByteSize() {
+        long result = 0;
+        for (Level level : levels) {
+            result += (long) level.min.length * BUCKET_BYTES;
+        }
+        return result;
+    }
+
+    /**
+     * A single level of the pyramid. Buckets are ordered by time and never overlap.
+     * The buckets are kept in arrays starting at the index {@code first}, so that
+     * buckets can be removed from the beginning without shifting the arrays.
+     */
+    public static class Level {
+        private final int shift;
+        private long[] min;
+        private long[] max;
+        private int[] count;
+        private int first;
+        private int end;
+
+        private Level(int shift, long[] min, long[] max, int[] count) {
+            this.shift = shift;
+            this.min = min;
+            this.max = max;
+            this.count = count;
+            this.end = min.length;
+        }
+
+        private static Level fromValues(LongSequence values, int shift, int bucketCount) {
+            long[] min = new long[bucketCount];
+            long[] max = new long[bucketCount];
+            int[] count = new int[bucketCount];
+
+            int bucket = -1;
+            for (int i = 0; i < values.size(); i++) {
+                long value = values.get(i);
+                if (bucket >= 0 && (max[bucket] >> shift) == (value >> shift)) {
+                    max[bucket] = value;
+                    count[bucket]++;
+                    continue;
+                }
+
+                bucket++;
+                min[bucket] = value;
+                max[bucket] = value;
+                count[bucket] = 1;
+            }
+
+            return new Level(shift, min, max, count);
+        }
+
+        private int countBuckets(int newShift) {
+            int result = 0;
+            for (int i = first; i < end; i++) {
+                if (i == first || (min[i - 1] >> newShift) != (min[i] >> newShift)) {
+                    result++;
+                }
+            }
+            return result;
+        }
+
+        private Level coarser(int newShift, int bucketCount) {
+            long[] newMin = new long[bucketCount];
+            long[] newMax = new long[bucketCount];
+            int[] newCount = new int[bucketCount];
+
+            int bucket = -1;
+            for (int i = first; i < end; i++) {
+                if (bucket >= 0 && (newMax[bucket] >> newShift) == (min[i] >> newShift)) {
+                    newMax[bucket] = max[i];
+                    newCount[bucket] += count[i];
+                    continue;
+                }
+
+                bucket++;
+                newMin[bucket] = min[i];
+                newMax[bucket] = max[i];
+                newCount[bucket] = count[i];
+            }
+
+            return new Level(newShift, newMin, newMax, newCount);
+        }
+
+        private void append(long value) {
+            if (end > first && (max[end - 1] >> shift) == (value >> shift)) {
+                max[end - 1] = value;
+                count[end - 1]++;
+                return;
+            }
+
+            if (end == min.length) {
+                makeRoom();
+            }
+            min[end] = value;
+            max[end] = value;
+            count[end] = 1;
+            end++;
+        }
+
+        /**
+         * Moves the buckets to the beginning of the arrays if at least a half of the arrays
+         * is taken by removed buckets, otherwise grows the arrays by a half of their length.
+         */
+        private void makeRoom() {
+            int size = size();
+            if (first >= size) {
+                System.arraycopy(min, first, min, 0, size);
+                System.arraycopy(max, first, max, 0, size);
+                System.arraycopy(count, first, count, 0, size);
+            } else {
+                int newLength = Math.max(min.length + (min.length >> 1), min.length + 1);
+                min = Arrays.copyOfRange(min, first, first + newLength);
+                max = Arrays.copyOfRange(max, first, first + newLength);
+                count = Arrays.copyOfRange(count, first, first + newLength);
+            }
+            first = 0;
+            end = size;
+        }
+
+        private void removeFirst(int removedCount, long newFirstValue) {
+            while (removedCount > 0 && first < end) {
+                if (count[first] <= removedCount) {
+                    removedCount -= count[first];
+                    first++;
+                } else {
+                    count[first] -= removedCount;
+                    min[first] = newFirstValue;
+                    removedCount = 0;
+                }
+            }
+        }
+
+        /**
+         * @return time span covered by a single bucket
+         */
+        public long getBucketWidth() {
+            return 1L << shift;
+        }
+
+        /**
+         * @return count of non-empty buckets
+         */
+        public int size() {
+            return end - first;
+        }
+
+        public long getMin(int bucket) {
+            return min[first + bucket];
+        }
+
+        public long getMax(int bucket) {
+            return max[first + bucket];
+        }
+
+        public int getCount(int bucket) {
+            return count[first + bucket];
+        }
+
+        /**
+         * @param time searching value
+         * @return index of the first bucket whose maximum is greater than or equal to time, or size if there is no such bucket
+         */
+        public int firstBucketEndingAtOrAfter(long time) {
+            int low = first;
+            int high = end;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (max[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low - first;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package jtimeselector.layers;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jtimeselector.RenderingEngine;
+import jtimeselector.TimeSelectionManager;
+
+/**
+ * Sprites of the markers of the entries, rendered by Graphics2D only once and then copied by image blits.
+ * <p>
+ * One image holds the marker of a single entry, a run of entries and the circle of a selected entry.
+ * The sprites are rendered for the scale of the graphics, so they stay sharp on HiDPI screens, and
+ * drawing them only copies pixels instead of rasterizing the antialiased shapes of every entry.
+ * The middle columns of a run are all the same, so a longer run is drawn as the left end of the sprite,
+ * its middle columns repeated for the length of the run and its right end, all without scaling.
+ */
+class MarkerAtlas {
+    private static final int GAP = 2;
+
+    private static final int MARKER_WIDTH = 2 * Layer.BRG_RECT_WIDTH;
+    private static final int RUN_END_WIDTH = Layer.BRG_RECT_WIDTH;
+    private static final int RUN_MIDDLE_WIDTH = 64;
+    private static final int RUN_WIDTH = 2 * RUN_END_WIDTH + RUN_MIDDLE_WIDTH;
+    private static final int SELECTION_SIZE = 2 * Layer.POINT_RADIUS;
+
+    private static final int MARKER_X = 0;
+    private static final int RUN_X = MARKER_X + MARKER_WIDTH + GAP;
+    private static final int SELECTION_X = RUN_X + RUN_WIDTH + GAP;
+    private static final int WIDTH = SELECTION_X + SELECTION_SIZE;
+
+    private static final Map<Key, MarkerAtlas> ATLASES = new ConcurrentHashMap<>();
+
+    private final BufferedImage image;
+    private final double scaleX;
+    private final double scaleY;
+
+    private MarkerAtlas(double scaleX, double scaleY, Color selectionColor) {
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        this.image = new BufferedImage(toPixelX(WIDTH), toPixelY(TimeEntryLayer.HEIGHT), BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D graphics = image.createGraphics();
+        graphics.scale(scaleX, scaleY);
+        graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        TimeEntryLayer.drawRun(graphics, MARKER_X + Layer.BRG_RECT_WIDTH / 2, MARKER_X + Layer.BRG_RECT_WIDTH / 2, 0);
+        TimeEntryLayer.drawRun(graphics, RUN_X + Layer.BRG_RECT_WIDTH / 2, RUN_X + Layer.BRG_RECT_WIDTH / 2 + RUN_MIDDLE_WIDTH, 0);
+        graphics.setColor(selectionColor);
+        graphics.fillOval(SELECTION_X, 0, SELECTION_SIZE, SELECTION_SIZE);
+        graphics.dispose();
+    }
+
+    /**
+     * @param graphics graphics into which the sprites will be drawn
+     * @return atlas with the selection of the default colour rendered for the scale of the graphics
+     */
+    static MarkerAtlas of(Graphics2D graphics) {
+        return of(graphics, TimeSelectionManager.SELECTION_COLOR);
+    }
+
+    /**
+     * The sprite of the selection is a circle rasterized at the origin of a pixel. A graphics scaled by a fraction
+     * of a pixel, such as 1.25 or 1.5, rasterizes the circle at a fraction of a pixel, so it is drawn by the shape call
+     * there, and also by the engines which draw everything else by the shape calls.
+     *
+     * @param engine   way in which the entries are drawn
+     * @param graphics graphics into which the circles of the selected entries will be drawn
+     * @return atlas for the circles of the selected entries, or null if they are drawn by the shape calls of the graphics
+     */
+    static MarkerAtlas forSelection(RenderingEngine engine, Graphics2D graphics) {
+        AffineTransform transform = graphics.getTransform();
+        boolean wholePixelScale = transform.getShearX() == 0 && transform.getShearY() == 0
+            && isWholeNumber(transform.getScaleX()) && isWholeNumber(transform.getScaleY());
+        return engine == RenderingEngine.Sprites && wholePixelScale ? of(graphics) : null;
+    }
+
+    /**
+     * @param graphics       graphics into which the sprites will be drawn
+     * @param selectionColor colour of the circle of a selected entry
+     * @return atlas rendered for the scale of the graphics, shared by all the graphics of the same scale
+     */
+    static MarkerAtlas of(Graphics2D graphics, Color selectionColor) {
+        AffineTransform transform = graphics.getTransform();
+        Key key = new Key(toScale(transform.getScaleX()), toScale(transform.getScaleY()), selectionColor.getRGB());
+        return ATLASES.computeIfAbsent(key, k -> new MarkerAtlas(k.scaleX(), k.scaleY(), selectionColor));
+    }
+
+    /**
+     * Draws a run of entries looking like {@code TimeEntryLayer} draws it with Graphics2D.
+     * A run of zero length is a single entry.
+     *
+     * @param graphics   graphics for drawing
+     * @param pointFromX x coordinate of the first entry of the run
+     * @param pointToX   x coordinate of the last entry of the run
+     * @param y          y coordinate of the layer
+     */
+    void drawRun(Graphics2D graphics, int pointFromX, int pointToX, int y) {
+        int left = pointFromX - Layer.BRG_RECT_WIDTH / 2;
+        int runLength = pointToX - pointFromX;
+        if (runLength == 0) {
+            drawSprite(graphics, left, y, MARKER_X, 0, MARKER_WIDTH, TimeEntryLayer.HEIGHT);
+            return;
+        }
+
+        // the first middle columns are drawn together with the left end, the last ones together with the right end
+        int head = Math.min(runLength, RUN_MIDDLE_WIDTH);
+        drawSprite(graphics, left, y, RUN_X, 0, RUN_END_WIDTH + head, TimeEntryLayer.HEIGHT);
+
+        int x = left + RUN_END_WIDTH + head;
+        int remaining = runLength - head;
+        for (; remaining > RUN_MIDDLE_WIDTH; remaining -= RUN_MIDDLE_WIDTH, x += RUN_MIDDLE_WIDTH) {
+            drawSprite(graphics, x, y, RUN_X + RUN_END_WIDTH, 0, RUN_MIDDLE_WIDTH, TimeEntryLayer.HEIGHT);
+        }
+        drawSprite(graphics, x, y, RUN_X + RUN_END_WIDTH + RUN_MIDDLE_WIDTH - remaining, 0, remaining + RUN_END_WIDTH, TimeEntryLayer.HEIGHT);
+    }
+
+    /**
+     * Draws the circle of a selected entry.
+     *
+     * @param graphics graphics for drawing
+     * @param x        x coordinate of the left side of the circle
+     * @param y        y coordinate of the top of the circle
+     */
+    void drawSelection(Graphics2D graphics, int x, int y) {
+        drawSprite(graphics, x, y, SELECTION_X, 0, SELECTION_SIZE, SELECTION_SIZE);
+    }
+
+    private void drawSprite(Graphics2D graphics, int x, int y, int spriteX, int spriteY, int width, int height) {
+        graphics.drawImage(image, x, y, x + width, y + height,
+            toPixelX(spriteX), toPixelY(spriteY), toPixelX(spriteX + width), toPixelY(spriteY + height), null);
+    }
+
+    private static boolean isWholeNumber(double scale) {
+        return scale != 0 && scale == Math.rint(scale);
+    }
+
+    private static double toScale(double scale) {
+        scale = Math.abs(scale);
+        return scale > 0 ? scale : 1;
+    }
+
+    private int toPixelX(int x) {
+        return (int) Math.ceil(x * scaleX);
+    }
+
+    private int toPixelY(int y) {
+        return (int) Math.ceil(y * scaleY);
+    }
+
+    private record Key(double scaleX, double scaleY, int selectionRgb) {
+    }
+}
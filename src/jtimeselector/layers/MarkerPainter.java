@@ -0,0 +1,48 @@
+package jtimeselector.layers;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import jtimeselector.RenderingEngine;
+
+/**
+ * Draws the markers of the entries without rasterizing their shapes for every entry.
+ */
+interface MarkerPainter {
+    /**
+     * Draws a run of entries looking like {@code TimeEntryLayer} draws it with Graphics2D.
+     * A run of zero length is a single entry.
+     *
+     * @param pointFromX x coordinate of the first entry of the run
+     * @param pointToX   x coordinate of the last entry of the run
+     * @param y          y coordinate of the layer
+     */
+    void drawRun(int pointFromX, int pointToX, int y);
+
+    /**
+     * @param engine   way in which the entries are drawn
+     * @param image    image into which the graphics draws, null if it is not known
+     * @param graphics graphics for drawing the entries
+     * @return painter of the markers, or null if the markers are drawn by the shape calls of the graphics
+     */
+    static MarkerPainter of(RenderingEngine engine, BufferedImage image, Graphics2D graphics) {
+        switch (engine) {
+            case DirectRaster:
+                MarkerRaster raster = image == null ? null : MarkerRaster.of(image, graphics);
+                if (raster != null) {
+                    return raster;
+                }
+                // the pixels cannot be written directly, for example into a scaled graphics of a HiDPI screen
+                return spritePainter(graphics);
+            case Sprites:
+                return spritePainter(graphics);
+            default:
+                return null;
+        }
+    }
+
+    private static MarkerPainter spritePainter(Graphics2D graphics) {
+        MarkerAtlas atlas = MarkerAtlas.of(graphics);
+        return (pointFromX, pointToX, y) -> atlas.drawRun(graphics, pointFromX, pointToX, y);
+    }
+}
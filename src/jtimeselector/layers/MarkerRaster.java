@@ -0,0 +1,171 @@
+package jtimeselector.layers;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * Writes the markers of the entries directly into the pixels of a {@link BufferedImage#TYPE_INT_RGB} image.
+ * <p>
+ * The marker is rendered by Graphics2D only once, into a stamp with an alpha channel.
+ * Drawing an entry then only blends the stamp into the pixels of the image, which avoids
+ * the several round trips through the Java2D pipeline that each shape call takes.
+ * A run of entries is drawn as the left half of the stamp, the middle column of the stamp
+ * repeated for the length of the run and the right half of the stamp.
+ */
+public class MarkerRaster implements MarkerPainter {
+    private static final int STAMP_HALF_WIDTH = Layer.BRG_RECT_WIDTH;
+
+    private static final int STAMP_WIDTH = 2 * STAMP_HALF_WIDTH + 1;
+
+    /**
+     * Pixels of the stamp of a run one pixel long in the ARGB format, the middle column is the repeated one.
+     */
+    private static final int[] STAMP = createStamp();
+
+    private final int[] pixels;
+    private final int offset;
+    private final int scanlineStride;
+    private final int translateX;
+    private final int translateY;
+    private final Rectangle clip;
+
+    private MarkerRaster(int[] pixels, int offset, int scanlineStride, int translateX, int translateY, Rectangle clip) {
+        this.pixels = pixels;
+        this.offset = offset;
+        this.scanlineStride = scanlineStride;
+        this.translateX = translateX;
+        this.translateY = translateY;
+        this.clip = clip;
+    }
+
+    /**
+     * @param image    image into which the graphics draws
+     * @param graphics graphics whose translation and clip are respected
+     * @return raster of the image or null if the image is not of the type {@link BufferedImage#TYPE_INT_RGB}
+     * or the graphics is transformed by anything else than a translation by whole pixels
+     */
+    public static MarkerRaster of(BufferedImage image, Graphics2D graphics) {
+        WritableRaster imageRaster = image.getRaster();
+        if (image.getType() != BufferedImage.TYPE_INT_RGB
+                || !(imageRaster.getDataBuffer() instanceof DataBufferInt dataBuffer)
+                || !(imageRaster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel)) {
+            return null;
+        }
+
+        AffineTransform transform = graphics.getTransform();
+        if ((transform.getType() & ~AffineTransform.TYPE_TRANSLATION) != 0
+                || transform.getTranslateX() != Math.rint(transform.getTranslateX())
+                || transform.getTranslateY() != Math.rint(transform.getTranslateY())) {
+            return null;
+        }
+
+        int translateX = (int) transform.getTranslateX();
+        int translateY = (int) transform.getTranslateY();
+        Rectangle clip = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+        Rectangle clipBounds = graphics.getClipBounds();
+        if (clipBounds != null) {
+            clipBounds.translate(translateX, translateY);
+            clip = clip.intersection(clipBounds);
+        }
+
+        // sub-images share the pixels of the parent image, their first pixel lies at an offset
+        int scanlineStride = sampleModel.getScanlineStride();
+        int offset = dataBuffer.getOffset() - imageRaster.getSampleModelTranslateY() * scanlineStride - imageRaster.getSampleModelTranslateX();
+
+        // the image is never drawn into by other means while the raster is used, so it does not matter that it stops being accelerated
+        return new MarkerRaster(dataBuffer.getData(), offset, scanlineStride, translateX, translateY, clip);
+    }
+
+    /**
+     * @param x      x coordinate of the area, in the coordinates of the graphics
+     * @param y      y coordinate of the area, in the coordinates of the graphics
+     * @param width  width of the area
+     * @param height height of the area
+     * @return raster which draws only into the intersection of the area and the current clip
+     */
+    public MarkerRaster clipped(int x, int y, int width, int height) {
+        Rectangle area = new Rectangle(x + translateX, y + translateY, width, height);
+        return new MarkerRaster(pixels, offset, scanlineStride, translateX, translateY, clip.intersection(area));
+    }
+
+    /**
+     * Draws a run of entries looking like {@code TimeEntryLayer} draws it with Graphics2D. The stamp blends
+     * the background and the point of the marker at once, so where markers overlap, the antialiased edges
+     * may differ from the shape calls by one in a colour component. A run of zero length is a single entry.
+     *
+     * @param pointFromX x coordinate of the first entry of the run
+     * @param pointToX   x coordinate of the last entry of the run
+     * @param y          y coordinate of the layer
+     */
+    @Override
+    public void drawRun(int pointFromX, int pointToX, int y) {
+        int left = pointFromX - Layer.BRG_RECT_WIDTH / 2 + translateX;
+        int top = y + translateY;
+        int runLength = pointToX - pointFromX;
+
+        int fromRow = Math.max(top, clip.y);
+        int toRow = Math.min(top + TimeEntryLayer.HEIGHT, clip.y + clip.height);
+        int clipLeft = clip.x;
+        int clipRight = clip.x + clip.width;
+        if (left + 2 * STAMP_HALF_WIDTH + runLength <= clipLeft || left >= clipRight) {
+            return;
+        }
+
+        for (int row = fromRow; row < toRow; row++) {
+            int stampRow = (row - top) * STAMP_WIDTH;
+            int rowOffset = offset + row * scanlineStride;
+
+            blendColumns(rowOffset, stampRow, left, 0, STAMP_HALF_WIDTH, clipLeft, clipRight);
+
+            int middleColor = STAMP[stampRow + STAMP_HALF_WIDTH];
+            int middleFrom = Math.max(left + STAMP_HALF_WIDTH, clipLeft);
+            int middleTo = Math.min(left + STAMP_HALF_WIDTH + runLength, clipRight);
+            for (int column = middleFrom; column < middleTo; column++) {
+                blend(rowOffset + column, middleColor);
+            }
+
+            blendColumns(rowOffset, stampRow, left + STAMP_HALF_WIDTH + runLength, STAMP_HALF_WIDTH + 1, STAMP_HALF_WIDTH, clipLeft, clipRight);
+        }
+    }
+
+    private void blendColumns(int rowOffset, int stampRow, int x, int stampColumn, int count, int clipLeft, int clipRight) {
+        int from = Math.max(x, clipLeft);
+        int to = Math.min(x + count, clipRight);
+        for (int column = from; column < to; column++) {
+            blend(rowOffset + column, STAMP[stampRow + stampColumn + column - x]);
+        }
+    }
+
+    private void blend(int index, int argb) {
+        int alpha = argb >>> 24;
+        if (alpha == 0xFF) {
+            pixels[index] = argb & 0xFFFFFF;
+        } else if (alpha != 0) {
+            int destination = pixels[index];
+            int inverse = 0xFF - alpha;
+            int red = (((argb >> 16) & 0xFF) * alpha + ((destination >> 16) & 0xFF) * inverse + 127) / 255;
+            int green = (((argb >> 8) & 0xFF) * alpha + ((destination >> 8) & 0xFF) * inverse + 127) / 255;
+            int blue = ((argb & 0xFF) * alpha + (destination & 0xFF) * inverse + 127) / 255;
+            pixels[index] = (red << 16) | (green << 8) | blue;
+        }
+    }
+
+    private static int[] createStamp() {
+        BufferedImage stamp = new BufferedImage(STAMP_WIDTH, TimeEntryLayer.HEIGHT, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D graphics = stamp.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        TimeEntryLayer.drawRun(graphics, Layer.BRG_RECT_WIDTH / 2, Layer.BRG_RECT_WIDTH / 2 + 1, 0);
+        graphics.dispose();
+
+        return stamp.getRGB(0, 0, STAMP_WIDTH, TimeEntryLayer.HEIGHT, null, 0, STAMP_WIDTH);
+    }
+}
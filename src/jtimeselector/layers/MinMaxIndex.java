@@ -0,0 +1,109 @@
+package jtimeselector.layers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers the least and the greatest of the values of any range of indices without reading all of them.
+ * <p>
+ * Every level keeps the minimum and the maximum of the blocks of {@value #BLOCK_SIZE} items of the previous
+ * level, the first level being the values themselves. A query reads at most two partial blocks on every level,
+ * so it takes O(log n) time, and all the levels together take only about a sixteenth of the memory of the values.
+ */
+class MinMaxIndex {
+    private static final int BLOCK_SHIFT = 5;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final List<double[]> minima = new ArrayList<>();
+    private final List<double[]> maxima = new ArrayList<>();
+
+    /**
+     * @param values values which are not NaN, they are not copied
+     */
+    MinMaxIndex(double[] values) {
+        double[] levelMinima = values;
+        double[] levelMaxima = values;
+        minima.add(levelMinima);
+        maxima.add(levelMaxima);
+        while (levelMinima.length > BLOCK_SIZE) {
+            levelMinima = reduce(levelMinima, true);
+            levelMaxima = reduce(levelMaxima, false);
+            minima.add(levelMinima);
+            maxima.add(levelMaxima);
+        }
+    }
+
+    private static double[] reduce(double[] level, boolean min) {
+        double[] reduced = new double[(level.length + BLOCK_SIZE - 1) >>> BLOCK_SHIFT];
+        for (int block = 0; block < reduced.length; block++) {
+            int from = block << BLOCK_SHIFT;
+            reduced[block] = scan(level, from, Math.min(from + BLOCK_SIZE, level.length), min);
+        }
+        return reduced;
+    }
+
+    /**
+     * @param fromIndex index of the first value of the range
+     * @param toIndex   index after the last value of the range, greater than fromIndex
+     * @return the least value of the range
+     */
+    double getMin(int fromIndex, int toIndex) {
+        return query(minima, 0, fromIndex, toIndex, true);
+    }
+
+    /**
+     * @param fromIndex index of the first value of the range
+     * @param toIndex   index after the last value of the range, greater than fromIndex
+     * @return the greatest value of the range
+     */
+    double getMax(int fromIndex, int toIndex) {
+        return query(maxima, 0, fromIndex, toIndex, false);
+    }
+
+    /**
+     * @return the least of all the values, {@link Double#POSITIVE_INFINITY} if there are none
+     */
+    double getMin() {
+        double[] top = minima.get(minima.size() - 1);
+        return top.length == 0 ? Double.POSITIVE_INFINITY : scan(top, 0, top.length, true);
+    }
+
+    /**
+     * @return the greatest of all the values, {@link Double#NEGATIVE_INFINITY} if there are none
+     */
+    double getMax() {
+        double[] top = maxima.get(maxima.size() - 1);
+        return top.length == 0 ? Double.NEGATIVE_INFINITY : scan(top, 0, top.length, false);
+    }
+
+    private static double query(List<double[]> levels, int level, int fromIndex, int toIndex, boolean min) {
+        double[] items = levels.get(level);
+        int fromBlock = (fromIndex + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        int toBlock = toIndex >>> BLOCK_SHIFT;
+        if (level + 1 == levels.size() || fromBlock >= toBlock) {
+            return scan(items, fromIndex, toIndex, min);
+        }
+
+        // the whole blocks in the middle of the range are answered by the next level
+        double result = query(levels, level + 1, fromBlock, toBlock, min);
+        if (fromIndex < fromBlock << BLOCK_SHIFT) {
+            result = select(result, scan(items, fromIndex, fromBlock << BLOCK_SHIFT, min), min);
+        }
+        if (toBlock << BLOCK_SHIFT < toIndex) {
+            result = select(result, scan(items, toBlock << BLOCK_SHIFT, toIndex, min), min);
+        }
+        return result;
+    }
+
+    private static double scan(double[] items, int fromIndex, int toIndex, boolean min) {
+        double result = items[fromIndex];
+        for (int i = fromIndex + 1; i < toIndex; i++) {
+            result = select(result, items[i], min);
+        }
+        return result;
+    }
+
+    private static double select(double a, double b, boolean min) {
+        return min ? Math.min(a, b) : Math.max(a, b);
+    }
+}
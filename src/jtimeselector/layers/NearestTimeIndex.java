@@ -0,0 +1,307 @@
+package jtimeselector.layers;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.vorono4ka.LongList;
+import com.vorono4ka.interfaces.LongSequence;
+
+/**
+ * Finds the entry closest to a time value among the entries of a range of layers.
+ * <p>
+ * The layers are the leaves of a segment tree. Every inner node keeps the distinct time values of all
+ * the layers below it merged into one sorted array, so a range of layers is covered by O(log L) nodes
+ * and answered by one binary search in each of them, without any allocation.
+ * <p>
+ * The merged arrays are built lazily by the first query which needs them. Values appended to a layer
+ * are merged into the arrays above it, which only touches their tails, other changes of a layer drop
+ * the arrays above it. Nodes whose arrays would exceed the memory budget are not built until the index
+ * is cleared, the queries search their children instead.
+ * <p>
+ * {@link Long#MIN_VALUE} is reserved for {@link #NO_TIME}, entries at that time are never found.
+ */
+public class NearestTimeIndex {
+    public static final long DEFAULT_MEMORY_BUDGET = 32L * 1024 * 1024;
+
+    /**
+     * Returned by the queries if there is no entry in the searched layers. Time values equal to it are not supported.
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    /**
+     * Marks the nodes whose merged values do not fit into the memory budget.
+     */
+    private static final LongList NOT_INDEXED = new LongList(0);
+
+    private final List<Layer> layers;
+    private LongList[] nodes;
+    private int leafCount;
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private long usedMemory;
+
+    /**
+     * @param layers layers of the timeline, the index must be invalidated whenever the list or one of the layers changes
+     */
+    public NearestTimeIndex(List<Layer> layers) {
+        this.layers = layers;
+    }
+
+    /**
+     * @param time      searching value
+     * @param fromLayer index of the first searched layer
+     * @param toLayer   index of the last searched layer
+     * @return time value of the closest entry, the lesser one if there are two equally close entries, or {@link #NO_TIME} if the layers have no entries
+     */
+    public synchronized long getClosestTime(long time, int fromLayer, int toLayer) {
+        fromLayer = Math.max(fromLayer, 0);
+        toLayer = Math.min(toLayer, layers.size() - 1);
+        if (fromLayer > toLayer) {
+            return NO_TIME;
+        }
+
+        if (nodes == null || leafCount < layers.size()) {
+            leafCount = Integer.highestOneBit(Math.max(layers.size() - 1, 1)) << 1;
+            nodes = new LongList[2 * leafCount];
+            usedMemory = 0;
+        }
+        return getClosestTime(1, 0, leafCount, fromLayer, toLayer + 1, time, NO_TIME);
+    }
+
+    private long getClosestTime(int node, int nodeFrom, int nodeTo, int from, int to, long time, long closest) {
+        if (nodeFrom >= to || nodeTo <= from || nodeFrom >= layers.size()) {
+            return closest;
+        }
+
+        if (nodeTo - nodeFrom == 1) {
+            return closer(getClosestTime(layers.get(nodeFrom), time), closest, time);
+        }
+
+        if (from <= nodeFrom && nodeTo <= to) {
+            LongList values = getMergedValues(node, nodeFrom, nodeTo);
+            if (values != null) {
+                return closer(getClosestTime(values, time), closest, time);
+            }
+        }
+
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        closest = getClosestTime(2 * node, nodeFrom, middle, from, to, time, closest);
+        return getClosestTime(2 * node + 1, middle, nodeTo, from, to, time, closest);
+    }
+
+    /**
+     * @return merged values of the layers below the node, or null if they do not fit into the memory budget
+     */
+    private LongList getMergedValues(int node, int nodeFrom, int nodeTo) {
+        if (nodes[node] != null) {
+            return nodes[node] == NOT_INDEXED ? null : nodes[node];
+        }
+
+        long size = 0;
+        for (int i = nodeFrom; i < Math.min(nodeTo, layers.size()); i++) {
+            size += layers.get(i).getTimeValues().size();
+        }
+
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        LongSequence left = null;
+        LongSequence right = null;
+        if (size <= Integer.MAX_VALUE && usedMemory + size * Long.BYTES <= memoryBudget) {
+            left = getChildValues(2 * node, nodeFrom, middle);
+            right = left == null ? null : getChildValues(2 * node + 1, middle, nodeTo);
+        }
+        if (right == null || usedMemory + size * Long.BYTES > memoryBudget) {
+            nodes[node] = NOT_INDEXED;
+            return null;
+        }
+
+        LongList merged = new LongList(merge(left, right));
+        nodes[node] = merged;
+        usedMemory += (long) merged.size() * Long.BYTES;
+        return merged;
+    }
+
+    private LongSequence getChildValues(int node, int nodeFrom, int nodeTo) {
+        if (nodeFrom >= layers.size()) {
+            return new LongList();
+        }
+        if (nodeTo - nodeFrom == 1) {
+            return layers.get(nodeFrom).getTimeValues();
+        }
+
+        return getMergedValues(node, nodeFrom, nodeTo);
+    }
+
+    private static long[] merge(LongSequence left, LongSequence right) {
+        int leftSize = left.size();
+        int rightSize = right.size();
+        long[] result = new long[leftSize + rightSize];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < leftSize || j < rightSize) {
+            long value;
+            if (j == rightSize || (i < leftSize && left.get(i) <= right.get(j))) {
+                value = left.get(i++);
+            } else {
+                value = right.get(j++);
+            }
+            if (size == 0 || result[size - 1] != value) {
+                result[size++] = value;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static long getClosestTime(Layer layer, long time) {
+        LongSequence values = layer.getTimeValues();
+        int index = layer.lowerBound(time);
+        long next = index < values.size() ? values.get(index) : NO_TIME;
+        long previous = index > 0 ? values.get(index - 1) : NO_TIME;
+        return closer(previous, next, time);
+    }
+
+    private static long getClosestTime(LongList values, long time) {
+        long[] array = values.getArray();
+        int index = lowerBound(array, values.size(), time);
+        long next = index < values.size() ? array[index] : NO_TIME;
+        long previous = index > 0 ? array[index - 1] : NO_TIME;
+        return closer(previous, next, time);
+    }
+
+    /**
+     * @return index of the first of the sorted values which is not less than the searched value
+     */
+    private static int lowerBound(long[] values, int size, long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the time value closer to the searched time, the lesser one if they are equally close
+     */
+    private static long closer(long first, long second, long time) {
+        if (first == NO_TIME) return second;
+        if (second == NO_TIME) return first;
+
+        int comparison = Long.compareUnsigned(distance(first, time), distance(second, time));
+        if (comparison == 0) {
+            return Math.min(first, second);
+        }
+        return comparison < 0 ? first : second;
+    }
+
+    /**
+     * @return distance of the values as an unsigned long, which cannot overflow
+     */
+    private static long distance(long a, long b) {
+        return a >= b ? a - b : b - a;
+    }
+
+    /**
+     * Merges values appended to the layer into the merged values containing its entries. Merging values which are already
+     * present does not change anything, so it does not matter whether a query has merged them before.
+     *
+     * @param layerIndex  index of the changed layer
+     * @param sortedChunk appended time values sorted in the ascending order, none of them less than the previous values of the layer
+     */
+    public synchronized void append(int layerIndex, long[] sortedChunk) {
+        if (nodes == null || layerIndex < 0 || layerIndex >= leafCount || sortedChunk.length == 0) {
+            return;
+        }
+
+        for (int node = (leafCount + layerIndex) >>> 1; node > 0; node >>>= 1) {
+            LongList values = nodes[node];
+            if (values == null || values == NOT_INDEXED) {
+                continue;
+            }
+
+            int capacity = values.getArray().length;
+            append(values, sortedChunk);
+            usedMemory += (long) (values.getArray().length - capacity) * Long.BYTES;
+            if (usedMemory > memoryBudget) {
+                usedMemory -= (long) values.getArray().length * Long.BYTES;
+                nodes[node] = null;
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted chunk into the sorted distinct values, rewriting only the values not less than its first value.
+     */
+    private static void append(LongList values, long[] sortedChunk) {
+        int size = values.size();
+        int index = lowerBound(values.getArray(), size, sortedChunk[0]);
+        if (index == size) {
+            for (long value : sortedChunk) {
+                if (values.size() == 0 || values.get(values.size() - 1) != value) {
+                    values.add(value);
+                }
+            }
+            return;
+        }
+
+        long[] tail = Arrays.copyOfRange(values.getArray(), index, size);
+        long[] merged = merge(new LongList(tail), new LongList(sortedChunk));
+        for (int i = 0; i < merged.length; i++) {
+            if (index + i < size) {
+                values.set(index + i, merged[i]);
+            } else {
+                values.add(merged[i]);
+            }
+        }
+    }
+
+    /**
+     * Drops the merged values containing the entries of the layer. Needs to be called whenever entries of the layer
+     * change other than by {@link #append(int, long[])}.
+     *
+     * @param layerIndex index of the changed layer
+     */
+    public synchronized void invalidate(int layerIndex) {
+        if (nodes == null || layerIndex < 0 || layerIndex >= leafCount) {
+            return;
+        }
+
+        for (int node = (leafCount + layerIndex) >>> 1; node > 0; node >>>= 1) {
+            if (nodes[node] != null) {
+                usedMemory -= (long) nodes[node].getArray().length * Long.BYTES;
+                nodes[node] = null;
+            }
+        }
+    }
+
+    /**
+     * Drops all merged values. Needs to be called whenever a layer is added or removed.
+     */
+    public synchronized void clear() {
+        nodes = null;
+        usedMemory = 0;
+    }
+
+    /**
+     * @return count of bytes taken by the merged values
+     */
+    public synchronized long getUsedMemory() {
+        return usedMemory;
+    }
+
+    public synchronized long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * @param memoryBudget maximal count of bytes taken by the merged values, zero disables the merging
+     */
+    public synchronized void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = Math.max(memoryBudget, 0);
+        clear();
+    }
+}
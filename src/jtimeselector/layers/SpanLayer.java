@@ -0,0 +1,210 @@
+package jtimeselector.layers;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+import com.vorono4ka.BinarySearcher;
+import com.vorono4ka.LongList;
+import com.vorono4ka.interfaces.LongSequence;
+import jtimeselector.LayerSelection;
+import jtimeselector.TimeSelectionManager;
+import jtimeselector.VisibleAreaManager;
+import jtimeselector.jfr.LayerDrawEvent;
+import jtimeselector.metrics.TimelineMetrics;
+
+/**
+ * Draws entries which last for some time, each of them as a bar from its start to its end.
+ * <p>
+ * The starts and the ends are kept in two parallel arrays sorted by the starts, and the spans which overlap
+ * the drawn or the selected part of the timeline are found by an {@link IntervalIndex}. Spans drawn on the same
+ * pixels are merged into one bar: once a bar is started, all the spans which start on its pixels are skipped
+ * by a binary search and only the greatest of their ends is read from the index. Each step therefore extends
+ * the bar by at least one pixel or ends it, and the drawing takes O(width * log n) time however many short
+ * spans the layer has.
+ * <p>
+ * The time values of the entries are their starts, so the selection snaps to the starts of the spans.
+ */
+public class SpanLayer extends Layer {
+    public static final int HEIGHT = 24;
+    public static final Color SPAN_COLOR = new Color(0x7a8fb3);
+    public static final Color SELECTED_SPAN_COLOR = TimeSelectionManager.SELECTION_COLOR;
+
+    private static final int BAR_PADDING = 5;
+
+    public final LongSequence timeValues;
+    private final long[] ends;
+    private final IntervalIndex index;
+
+    /**
+     * @param starts starts of the spans sorted in the ascending order
+     * @param ends   ends of the spans in the order of their starts, none of them less than the start of its span
+     * @throws IllegalArgumentException if the arrays are not of the same length, the starts are not sorted or a span ends before it starts
+     */
+    public SpanLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, long[] starts, long[] ends) {
+        super(timelineManager, visibleAreaManager, name, HEIGHT);
+        if (starts.length != ends.length) {
+            throw new IllegalArgumentException("Layer " + name + " must have as many ends as starts.");
+        }
+        for (int i = 0; i < starts.length; i++) {
+            if (i > 0 && starts[i] < starts[i - 1]) {
+                throw new IllegalArgumentException("Starts of the spans of layer " + name + " must be sorted.");
+            }
+            if (ends[i] < starts[i]) {
+                throw new IllegalArgumentException("Span " + i + " of layer " + name + " ends before it starts.");
+            }
+        }
+
+        this.timeValues = new LongList(starts);
+        this.ends = ends;
+        this.index = new IntervalIndex(starts, ends);
+    }
+
+    @Override
+    int getMinimumHeight() {
+        return 2 * BAR_PADDING + 2;
+    }
+
+    @Override
+    void drawEntries(Graphics2D graphics, MarkerPainter markers, Viewport viewport, int x, int y) {
+        if (index.size() == 0) return;
+
+        LayerDrawEvent event = new LayerDrawEvent();
+        event.begin();
+
+        // the bars are aligned with the x coordinates of the entries, like the markers of the other layers
+        graphics.setColor(SPAN_COLOR);
+        int barCount = drawSpans(graphics, viewport, viewport.getMinTime(), viewport.getMaxTime(), x + Layer.POINT_RADIUS, y);
+
+        // counting the overlapping spans visits each of them, so they are counted only when the count is recorded
+        TimelineMetrics metrics = timelineManager.getMetrics();
+        final int visibleCount = metrics.isEnabled() || event.shouldCommit() ? countOverlapping(viewport.getMinTime(), viewport.getMaxTime()) : 0;
+        metrics.recordEntries(getName(), barCount, Math.max(visibleCount - barCount, 0));
+
+        if (event.shouldCommit()) {
+            event.layerName = getName();
+            event.entryCount = index.size();
+            event.visibleEntries = visibleCount;
+            event.drawnMarkers = barCount;
+            event.visibleMinTime = viewport.getMinTime();
+            event.visibleMaxTime = viewport.getMaxTime();
+            event.commit();
+        }
+    }
+
+    /**
+     * Draws the spans which overlap the time interval, cut to the interval, by the current colour of the graphics.
+     *
+     * @param graphics Graphics object for drawing
+     * @param viewport viewport which maps the time values to the x coordinates
+     * @param fromTime start of the time interval
+     * @param toTime   end of the time interval
+     * @param x        x coordinate of the location where the viewport starts
+     * @param y        y coordinate of the layer
+     * @return count of the drawn bars
+     */
+    private int drawSpans(Graphics2D graphics, Viewport viewport, long fromTime, long toTime, int x, int y) {
+        final int endIndex = index.endOfStartingBefore(toTime);
+        final int barHeight = Math.max(getHeight() - 2 * BAR_PADDING, 1);
+
+        int barCount = 0;
+        int i = index.nextEndingAtOrAfter(0, endIndex, fromTime);
+        while (i < endIndex) {
+            int barStart = viewport.getXForTime(Math.max(timeValues.get(i), fromTime));
+            long maxEnd = ends[i];
+            int barEnd = viewport.getXForTime(Math.min(maxEnd, toTime));
+
+            // the spans which start on the pixels of the bar may make it longer
+            int nextIndex = i + 1;
+            while (nextIndex < endIndex) {
+                int skippedEnd = BinarySearcher.lowerBound(timeValues, viewport.getFirstTimeForX(barEnd + 1), nextIndex, endIndex);
+                if (skippedEnd == nextIndex) break;
+
+                maxEnd = Math.max(maxEnd, index.getMaxEnd(nextIndex, skippedEnd));
+                nextIndex = skippedEnd;
+                int end = viewport.getXForTime(Math.min(maxEnd, toTime));
+                if (end <= barEnd) break;
+                barEnd = end;
+            }
+            graphics.fillRect(x + barStart, y + BAR_PADDING, barEnd - barStart + 1, barHeight);
+            barCount++;
+
+            i = index.nextEndingAtOrAfter(nextIndex, endIndex, fromTime);
+        }
+        return barCount;
+    }
+
+    /**
+     * @param fromTime start of the time interval
+     * @param toTime   end of the time interval
+     * @return count of the spans which overlap the time interval
+     */
+    public int countOverlapping(long fromTime, long toTime) {
+        int endIndex = index.endOfStartingBefore(toTime);
+        int count = 0;
+        for (int i = index.nextEndingAtOrAfter(0, endIndex, fromTime); i < endIndex; i = index.nextEndingAtOrAfter(i + 1, endIndex, fromTime)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Highlights the span starting at the selected time.
+     */
+    @Override
+    void drawTimeSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        if (selection.isEmpty()) return;
+
+        int spanIndex = selection.getFirstIndex();
+        long fromTime = Math.max(timeValues.get(spanIndex), visibleAreaManager.getCurrentMinTime());
+        long toTime = Math.min(ends[spanIndex], visibleAreaManager.getCurrentMaxTime());
+        if (fromTime > toTime) return;
+
+        int fromX = timelineManager.getLegendWidth() + timelineManager.getXForTime(fromTime);
+        int toX = timelineManager.getLegendWidth() + timelineManager.getXForTime(toTime);
+        graphics.setColor(SELECTED_SPAN_COLOR);
+        graphics.fillRect(fromX, y + BAR_PADDING, toX - fromX + 1, Math.max(getHeight() - 2 * BAR_PADDING, 1));
+    }
+
+    /**
+     * Highlights the parts of all the spans which overlap the selected interval,
+     * including the spans which start before it and are not among the selected entries.
+     */
+    @Override
+    void drawIntervalSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        long fromTime = Math.max(selection.getFromTime(), visibleAreaManager.getCurrentMinTime());
+        long toTime = Math.min(selection.getToTime(), visibleAreaManager.getCurrentMaxTime());
+        if (fromTime > toTime) return;
+
+        graphics.setColor(SELECTED_SPAN_COLOR);
+        drawSpans(graphics, timelineManager.getViewport(), fromTime, toTime, timelineManager.getLegendWidth(), y);
+    }
+
+    @Override
+    LongSequence getTimeValues() {
+        return timeValues;
+    }
+
+    @Override
+    int lowerBound(long time) {
+        return BinarySearcher.lowerBound(timeValues, time);
+    }
+
+    @Override
+    int upperBound(long time) {
+        return BinarySearcher.upperBound(timeValues, time);
+    }
+
+    /**
+     * @return the greatest end of the spans, which may belong to another span than the last one
+     */
+    @Override
+    long getMaxTimeValue() {
+        return index.getMaxEnd();
+    }
+
+    @Override
+    long getMinTimeValue() {
+        if (index.size() == 0) return Long.MAX_VALUE;
+        return timeValues.get(0);
+    }
+}
@@ -0,0 +1,250 @@
+package jtimeselector.layers;
+
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+
+import com.vorono4ka.BinarySearcher;
+import com.vorono4ka.LongList;
+import com.vorono4ka.interfaces.LongSequence;
+import jtimeselector.LayerSelection;
+import jtimeselector.TimeSelectionManager;
+import jtimeselector.VisibleAreaManager;
+import jtimeselector.jfr.LayerDrawEvent;
+
+/**
+ * Draws a categorical signal, for example a flight mode, as bands coloured by its states.
+ * <p>
+ * The samples of the signal are run-length encoded: only the time of each change of the state and the new
+ * state are kept in two parallel arrays, so the memory of the layer grows with the count of the changes, not
+ * with the count of the samples. The state at any time is found by a binary search over the changes. Changes
+ * drawn on the same pixel are skipped by a binary search too, so the drawing takes O(width * log n) time.
+ * <p>
+ * The time values of the entries are the changes of the state, so the selection snaps to them.
+ */
+public class StateLayer extends Layer {
+    public static final int HEIGHT = 24;
+    public static final Color[] STATE_COLORS = {
+        new Color(0x8dd3c7), new Color(0xfdb462), new Color(0xbebada), new Color(0xfb8072),
+        new Color(0x80b1d3), new Color(0xb3de69), new Color(0xfccde5), new Color(0xd9d9d9)
+    };
+    public static final Color READOUT_BACKGROUND_COLOR = new Color(0xccffffff, true);
+
+    private static final int BAND_PADDING = 4;
+
+    public final LongSequence timeValues;
+    private final int[] states;
+    private final long endTime;
+    private final String[] stateNames;
+
+    /**
+     * @param sampleTimes times of the samples sorted in the ascending order
+     * @param samples     states of the signal at the times of the samples, none of them negative
+     * @param stateNames  names of the states indexed by the states, null to show the states as numbers
+     * @throws IllegalArgumentException if the arrays are not of the same length, the times are not sorted or a state is negative
+     */
+    public StateLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, long[] sampleTimes, int[] samples, String[] stateNames) {
+        super(timelineManager, visibleAreaManager, name, HEIGHT);
+        if (sampleTimes.length != samples.length) {
+            throw new IllegalArgumentException("Layer " + name + " must have as many states as times.");
+        }
+
+        long[] changeTimes = new long[0];
+        int[] changedStates = new int[0];
+        int changeCount = 0;
+        for (int i = 0; i < samples.length; i++) {
+            if (i > 0 && sampleTimes[i] < sampleTimes[i - 1]) {
+                throw new IllegalArgumentException("Times of the states of layer " + name + " must be sorted.");
+            }
+            if (samples[i] < 0) {
+                throw new IllegalArgumentException("State " + samples[i] + " of layer " + name + " is negative.");
+            }
+            if (changeCount > 0 && changedStates[changeCount - 1] == samples[i]) continue;
+
+            if (changeCount == changeTimes.length) {
+                int capacity = Math.max(2 * changeCount, 16);
+                changeTimes = Arrays.copyOf(changeTimes, capacity);
+                changedStates = Arrays.copyOf(changedStates, capacity);
+            }
+            changeTimes[changeCount] = sampleTimes[i];
+            changedStates[changeCount] = samples[i];
+            changeCount++;
+        }
+
+        this.timeValues = new LongList(Arrays.copyOf(changeTimes, changeCount));
+        this.states = Arrays.copyOf(changedStates, changeCount);
+        this.endTime = sampleTimes.length == 0 ? Long.MIN_VALUE : sampleTimes[sampleTimes.length - 1];
+        this.stateNames = stateNames;
+    }
+
+    /**
+     * @param time time value
+     * @return state of the signal at the time, -1 if the time is out of the samples of the layer
+     */
+    public int getStateAt(long time) {
+        int change = getChangeAt(time);
+        return change == -1 ? -1 : states[change];
+    }
+
+    /**
+     * @param state state of the signal
+     * @return name of the state, or the state as a number if it has no name
+     */
+    public String getStateName(int state) {
+        if (stateNames != null && state < stateNames.length && stateNames[state] != null) {
+            return stateNames[state];
+        }
+        return Integer.toString(state);
+    }
+
+    /**
+     * @return count of the changes of the state kept by the layer
+     */
+    public int getChangeCount() {
+        return states.length;
+    }
+
+    /**
+     * @return index of the last change of the state at or before the time, -1 if the time is out of the samples
+     */
+    private int getChangeAt(long time) {
+        if (time > endTime) return -1;
+        return BinarySearcher.lastLessThanOrEqual(timeValues, time);
+    }
+
+    /**
+     * @return time at which the state set by the change ends
+     */
+    private long getChangeEnd(int change) {
+        return change + 1 < states.length ? timeValues.get(change + 1) : endTime;
+    }
+
+    @Override
+    int getMinimumHeight() {
+        return 2 * BAND_PADDING + 2;
+    }
+
+    @Override
+    void drawEntries(Graphics2D graphics, MarkerPainter markers, Viewport viewport, int x, int y) {
+        if (states.length == 0) return;
+
+        LayerDrawEvent event = new LayerDrawEvent();
+        event.begin();
+
+        // the bands are aligned with the x coordinates of the entries, like the markers of the other layers
+        x += Layer.POINT_RADIUS;
+        final long minTime = viewport.getMinTime();
+        final long maxTime = viewport.getMaxTime();
+        final int bandHeight = Math.max(getHeight() - 2 * BAND_PADDING, 1);
+        final int endIndex = upperBound(maxTime);
+
+        int bandCount = 0;
+        // the state at the left edge is set by the last change before it
+        int i = getChangeAt(minTime);
+        if (i == -1) {
+            i = lowerBound(minTime);
+        }
+        while (i < endIndex) {
+            long end = Math.min(getChangeEnd(i), maxTime);
+            if (end < minTime) break;
+
+            int bandStart = viewport.getXForTime(Math.max(timeValues.get(i), minTime));
+            int bandEnd = viewport.getXForTime(end);
+            graphics.setColor(getStateColor(states[i]));
+            graphics.fillRect(x + bandStart, y + BAND_PADDING, bandEnd - bandStart + 1, bandHeight);
+            bandCount++;
+
+            // of the changes on the last pixel of the band, only the last one is seen on the next pixel
+            i = Math.max(BinarySearcher.lowerBound(timeValues, viewport.getFirstTimeForX(bandEnd + 1), i + 1, endIndex) - 1, i + 1);
+        }
+
+        final int visibleCount = Math.max(endIndex - lowerBound(minTime), 0);
+        timelineManager.getMetrics().recordEntries(getName(), bandCount, Math.max(visibleCount - bandCount, 0));
+
+        if (event.shouldCommit()) {
+            event.layerName = getName();
+            event.entryCount = states.length;
+            event.visibleEntries = visibleCount;
+            event.drawnMarkers = bandCount;
+            event.visibleMinTime = minTime;
+            event.visibleMaxTime = maxTime;
+            event.commit();
+        }
+    }
+
+    private static Color getStateColor(int state) {
+        return STATE_COLORS[state % STATE_COLORS.length];
+    }
+
+    /**
+     * Draws the name of the state at the time of the cursor.
+     */
+    @Override
+    void drawCursorReadout(Graphics2D graphics, long time, int x, int y) {
+        int state = getStateAt(time);
+        if (state == -1) return;
+
+        FontMetrics fontMetrics = graphics.getFontMetrics();
+        String text = getStateName(state);
+        int textX = x + Layer.PADDING;
+        int textY = y + (getHeight() + fontMetrics.getAscent() - fontMetrics.getDescent()) / 2;
+
+        graphics.setColor(READOUT_BACKGROUND_COLOR);
+        graphics.fillRect(textX - 2, textY - fontMetrics.getAscent(), fontMetrics.stringWidth(text) + 4, fontMetrics.getHeight());
+        graphics.setColor(LEGEND_TEXT_COLOR);
+        graphics.drawString(text, textX, textY);
+    }
+
+    /**
+     * Outlines the band of the state set by the selected change.
+     */
+    @Override
+    void drawTimeSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        if (selection.isEmpty()) return;
+
+        int change = selection.getFirstIndex();
+        long fromTime = Math.max(timeValues.get(change), visibleAreaManager.getCurrentMinTime());
+        long toTime = Math.min(getChangeEnd(change), visibleAreaManager.getCurrentMaxTime());
+        if (fromTime > toTime) return;
+
+        int fromX = timelineManager.getLegendWidth() + timelineManager.getXForTime(fromTime);
+        int toX = timelineManager.getLegendWidth() + timelineManager.getXForTime(toTime);
+        graphics.setColor(TimeSelectionManager.SELECTION_COLOR);
+        graphics.drawRect(fromX, y + BAND_PADDING - 1, toX - fromX, getHeight() - 2 * BAND_PADDING + 1);
+    }
+
+    @Override
+    void drawIntervalSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        drawSelectedSpan(graphics, selection, y);
+    }
+
+    @Override
+    LongSequence getTimeValues() {
+        return timeValues;
+    }
+
+    @Override
+    int lowerBound(long time) {
+        return BinarySearcher.lowerBound(timeValues, time);
+    }
+
+    @Override
+    int upperBound(long time) {
+        return BinarySearcher.upperBound(timeValues, time);
+    }
+
+    /**
+     * @return time of the last sample, at which the last state ends
+     */
+    @Override
+    long getMaxTimeValue() {
+        return endTime;
+    }
+
+    @Override
+    long getMinTimeValue() {
+        if (states.length == 0) return Long.MAX_VALUE;
+        return timeValues.get(0);
+    }
+}
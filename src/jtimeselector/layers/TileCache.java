@@ -0,0 +1,197 @@
+package jtimeselector.layers;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jtimeselector.JTimeSelector;
+import jtimeselector.RenderingEngine;
+import jtimeselector.metrics.TimelineMetrics;
+
+/**
+ * Keeps pre-rendered parts of the layer strips, so that moving the visible area
+ * only renders the tiles which have not been visible before and copies the rest.
+ * <p>
+ * A tile is identified by its layer, the zoom (time per pixel and origin of the grid of pixels)
+ * and its index in the grid of pixels. The least recently used tiles are evicted when the memory
+ * taken by the tiles exceeds the memory budget.
+ * <p>
+ * The cache is thread-safe. Tiles are rendered outside of the lock, so more layers can be rendered concurrently.
+ * <p>
+ * The tiles look the same as the layer drawn without the cache, except that the markers of the entries
+ * just outside the visible area are partially visible, and that a layer deciding whether to aggregate
+ * its entries by their count in the viewport may decide differently for a tile than for the whole frame.
+ */
+public class TileCache {
+    public static final int TILE_WIDTH = 256;
+    public static final long DEFAULT_MEMORY_BUDGET = 32L * 1024 * 1024;
+
+    /**
+     * Count of pixels which are rendered around the tile, so that the entries
+     * lying on the neighbouring tiles but overlapping the tile are drawn too.
+     */
+    private static final int MARGIN = 2 * Layer.BRG_RECT_WIDTH;
+
+    private final TimelineMetrics metrics;
+    private final Map<TileKey, BufferedImage> tiles = new LinkedHashMap<>(16, .75f, true);
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private long usedMemory;
+
+    /**
+     * @param metrics metrics counting the hits and misses of the cache
+     */
+    public TileCache(TimelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Draws entries of the layer, reusing the cached tiles where possible.
+     *
+     * @param graphics Graphics object for drawing
+     * @param layer    layer to draw
+     * @param viewport visible part of the timeline
+     * @param x        x coordinate of the location where the viewport starts
+     * @param y        y coordinate of the location where the layer should be drawn
+     * @param engine   way in which the entries are drawn into the tiles
+     */
+    public void drawLayer(Graphics2D graphics, Layer layer, Viewport viewport, int x, int y, RenderingEngine engine) {
+        long firstPixel = viewport.getFirstPixel();
+        long firstTile = Math.floorDiv(firstPixel - MARGIN, TILE_WIDTH);
+        long lastTile = Math.floorDiv(firstPixel + viewport.getWidth() + MARGIN, TILE_WIDTH);
+
+        for (long tileIndex = firstTile; tileIndex <= lastTile; tileIndex++) {
+            TileKey key = new TileKey(layer, engine, viewport.getTimePerPixel(), viewport.getOriginTime(), tileIndex);
+            BufferedImage tile = get(key);
+            metrics.recordTileRequest(tile != null);
+            if (tile == null) {
+                tile = renderTile(graphics, layer, viewport, tileIndex, engine);
+                if (Thread.currentThread().isInterrupted()) {
+                    // the tile may be incomplete
+                    return;
+                }
+                put(key, tile);
+            }
+
+            graphics.drawImage(tile, x + (int) (tileIndex * TILE_WIDTH - firstPixel), y, null);
+        }
+    }
+
+    private BufferedImage renderTile(Graphics2D graphics, Layer layer, Viewport viewport, long tileIndex, RenderingEngine engine) {
+        BufferedImage tile = new BufferedImage(TILE_WIDTH, layer.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Viewport tileViewport = viewport.subViewport(tileIndex * TILE_WIDTH - MARGIN - viewport.getFirstPixel(), TILE_WIDTH + 2 * MARGIN);
+
+        Graphics2D tileGraphics = tile.createGraphics();
+        tileGraphics.setRenderingHints(graphics.getRenderingHints());
+        tileGraphics.setColor(JTimeSelector.BACKGROUND_COLOR);
+        tileGraphics.fillRect(0, 0, tile.getWidth(), tile.getHeight());
+        layer.drawEntries(tileGraphics, MarkerPainter.of(engine, tile, tileGraphics), tileViewport, -MARGIN, 0);
+        tileGraphics.dispose();
+
+        return tile;
+    }
+
+    private synchronized BufferedImage get(TileKey key) {
+        return tiles.get(key);
+    }
+
+    private synchronized void put(TileKey key, BufferedImage tile) {
+        BufferedImage previous = tiles.put(key, tile);
+        if (previous != null) {
+            usedMemory -= getMemorySize(previous);
+        }
+        usedMemory += getMemorySize(tile);
+        evict();
+    }
+
+    private void evict() {
+        Iterator<BufferedImage> iterator = tiles.values().iterator();
+        while (usedMemory > memoryBudget && iterator.hasNext()) {
+            usedMemory -= getMemorySize(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Removes all tiles of the given layer. Needs to be called whenever the layer changes.
+     *
+     * @param layer layer object
+     */
+    public synchronized void invalidate(Layer layer) {
+        Iterator<Map.Entry<TileKey, BufferedImage>> iterator = tiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<TileKey, BufferedImage> entry = iterator.next();
+            if (entry.getKey().layer() == layer) {
+                usedMemory -= getMemorySize(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes the tiles of the given layer on which entries from the given time interval are drawn.
+     * Needs to be called whenever entries are added to the layer.
+     *
+     * @param layer    layer object
+     * @param fromTime start of the changed time interval
+     * @param toTime   end of the changed time interval
+     */
+    public synchronized void invalidate(Layer layer, long fromTime, long toTime) {
+        Iterator<Map.Entry<TileKey, BufferedImage>> iterator = tiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<TileKey, BufferedImage> entry = iterator.next();
+            TileKey key = entry.getKey();
+            if (key.layer() != layer) continue;
+
+            long fromPixel = Math.round((fromTime - key.originTime()) / key.timePerPixel()) - MARGIN;
+            long toPixel = Math.round((toTime - key.originTime()) / key.timePerPixel()) + MARGIN;
+            long tileStart = key.tileIndex() * TILE_WIDTH;
+            if (fromPixel < tileStart + TILE_WIDTH && toPixel >= tileStart) {
+                usedMemory -= getMemorySize(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all tiles.
+     */
+    public synchronized void clear() {
+        tiles.clear();
+        usedMemory = 0;
+    }
+
+    /**
+     * @return true if the memory budget allows keeping at least one tile
+     */
+    public synchronized boolean isEnabled() {
+        return memoryBudget > 0;
+    }
+
+    /**
+     * @return count of bytes taken by the cached tiles
+     */
+    public synchronized long getUsedMemory() {
+        return usedMemory;
+    }
+
+    public synchronized long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * @param memoryBudget maximal count of bytes taken by the tiles, zero disables the cache
+     */
+    public synchronized void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = Math.max(memoryBudget, 0);
+        evict();
+    }
+
+    private static long getMemorySize(BufferedImage tile) {
+        return (long) tile.getWidth() * tile.getHeight() * Integer.BYTES;
+    }
+
+    private record TileKey(Layer layer, RenderingEngine engine, double timePerPixel, long originTime, long tileIndex) {
+    }
+}
@@ -0,0 +1,123 @@
+package jtimeselector.layers;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bounds of the time values of all the layers, kept up to date whenever a layer is added, removed or changed.
+ * <p>
+ * The first and the last value of every layer are kept in counted sets, so a change of one layer is applied
+ * in O(log L) time even if the layer has held the bound of the timeline and has just lost its oldest values.
+ * The bounds of the timeline are read without any locking or scanning of the layers.
+ */
+class TimeBounds {
+    private final Map<Layer, LayerBounds> layerBounds = new IdentityHashMap<>();
+    private final TreeMap<Long, Integer> minima = new TreeMap<>();
+    private final TreeMap<Long, Integer> maxima = new TreeMap<>();
+
+    private volatile long minTime = Long.MAX_VALUE;
+    private volatile long maxTime = Long.MIN_VALUE;
+    private volatile int retainingLayerCount;
+
+    /**
+     * Starts tracking the bounds of the layer.
+     *
+     * @param layer added layer
+     */
+    synchronized void add(Layer layer) {
+        LayerBounds bounds = new LayerBounds(layer.getMinTimeValue(), layer.getMaxTimeValue());
+        LayerBounds previous = layerBounds.put(layer, bounds);
+        if (previous != null) {
+            removeBounds(previous);
+        } else if (layer.hasRetention()) {
+            retainingLayerCount++;
+        }
+        addBounds(bounds);
+        refresh();
+    }
+
+    /**
+     * Reads the bounds of the layer again. Needs to be called whenever entries of the layer change.
+     *
+     * @param layer changed layer
+     */
+    synchronized void update(Layer layer) {
+        add(layer);
+    }
+
+    /**
+     * Stops tracking the bounds of the layer.
+     *
+     * @param layer removed layer
+     */
+    synchronized void remove(Layer layer) {
+        LayerBounds bounds = layerBounds.remove(layer);
+        if (bounds != null) {
+            removeBounds(bounds);
+            if (layer.hasRetention()) {
+                retainingLayerCount--;
+            }
+            refresh();
+        }
+    }
+
+    synchronized void clear() {
+        layerBounds.clear();
+        minima.clear();
+        maxima.clear();
+        retainingLayerCount = 0;
+        refresh();
+    }
+
+    /**
+     * @return true if a tracked layer removes its oldest entries, so the least time value may grow
+     */
+    boolean hasRetention() {
+        return retainingLayerCount > 0;
+    }
+
+    /**
+     * @return the least time value of all the layers, {@link Long#MAX_VALUE} if there is no entry
+     */
+    long getMinTime() {
+        return minTime;
+    }
+
+    /**
+     * @return the greatest time value of all the layers, {@link Long#MIN_VALUE} if there is no entry
+     */
+    long getMaxTime() {
+        return maxTime;
+    }
+
+    private void addBounds(LayerBounds bounds) {
+        if (bounds.isEmpty()) {
+            return;
+        }
+        minima.merge(bounds.min(), 1, Integer::sum);
+        maxima.merge(bounds.max(), 1, Integer::sum);
+    }
+
+    private void removeBounds(LayerBounds bounds) {
+        if (bounds.isEmpty()) {
+            return;
+        }
+        minima.computeIfPresent(bounds.min(), (time, count) -> count == 1 ? null : count - 1);
+        maxima.computeIfPresent(bounds.max(), (time, count) -> count == 1 ? null : count - 1);
+    }
+
+    private void refresh() {
+        minTime = minima.isEmpty() ? Long.MAX_VALUE : minima.firstKey();
+        maxTime = maxima.isEmpty() ? Long.MIN_VALUE : maxima.lastKey();
+    }
+
+    /**
+     * Bounds of one layer at the moment they have been read.
+     */
+    private record LayerBounds(long min, long max) {
+        boolean isEmpty() {
+            return min > max;
+        }
+    }
+}
@@ -5,49 +5,172 @@ import java.awt.Graphics2D;
 
 import com.vorono4ka.LongList;
 import com.vorono4ka.BinarySearcher;
-import jtimeselector.TimeSelectionManager;
+import com.vorono4ka.LongRingBuffer;
+import com.vorono4ka.interfaces.AppendableLongSequence;
+import com.vorono4ka.interfaces.LongSequence;
+import jtimeselector.RetentionPolicy;
+import jtimeselector.LayerSelection;
 import jtimeselector.VisibleAreaManager;
+import jtimeselector.jfr.LayerDrawEvent;
 
 /**
  * Responsible for drawing a single timeline layer.
  */
 public class TimeEntryLayer extends Layer {
     public static final int HEIGHT = 30;
-    public static final Color LEGEND_TEXT_COLOR = Color.black;
     public static final Color BGR_DEFAULT_COLOR = Color.black;
     public static final Color BGR_SELECTED_COLOR = Color.gray;
 
-    public final LongList timeValues;
+    /**
+     * Drawing of the single entries checks for cancellation at the entries whose index has none of these bits set.
+     */
+    private static final int CANCELLATION_CHECK_MASK = 0xFFF;
+
+    public final LongSequence timeValues;
+    private final LodPyramid pyramid;
+    private final RetentionPolicy retention;
 
     public TimeEntryLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, long[] array) {
         this(timelineManager, visibleAreaManager, name, new LongList(array));
     }
 
-    public TimeEntryLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, LongList timeValues) {
-        super(timelineManager, visibleAreaManager, name);
+    public TimeEntryLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, LongSequence timeValues) {
+        this(timelineManager, visibleAreaManager, name, timeValues, null);
+    }
+
+    /**
+     * Creates a layer which keeps its values in a ring buffer and removes the oldest of them
+     * according to the retention policy, so that its memory does not grow over time.
+     */
+    public TimeEntryLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, long[] array, RetentionPolicy retention) {
+        this(timelineManager, visibleAreaManager, name, toRingBuffer(array), retention);
+        applyRetention();
+    }
+
+    private TimeEntryLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, LongSequence timeValues, RetentionPolicy retention) {
+        super(timelineManager, visibleAreaManager, name, HEIGHT);
 
         this.timeValues = timeValues;
+        this.retention = retention;
+        // without the pyramid, the entries on the same pixel are skipped by a binary search
+        this.pyramid = timeValues.supportsPyramid() ? new LodPyramid(timeValues) : null;
+    }
+
+    private static LongRingBuffer toRingBuffer(long[] array) {
+        LongRingBuffer buffer = new LongRingBuffer(array.length);
+        buffer.addAll(array);
+        return buffer;
+    }
+
+    /**
+     * Appends the values to the end of the layer.
+     *
+     * @param sortedChunk time values sorted in the ascending order, none of them less than the last value of the layer
+     * @throws IllegalArgumentException if the values are not sorted or precede the last value of the layer
+     * @throws UnsupportedOperationException if the values of the layer cannot be changed
+     */
+    public void appendTimeValues(long[] sortedChunk) {
+        if (!(timeValues instanceof AppendableLongSequence appendableTimeValues)) {
+            throw new UnsupportedOperationException("The time values of the layer " + getName() + " cannot be changed.");
+        }
+
+        long previous = timeValues.size() == 0 ? Long.MIN_VALUE : timeValues.get(timeValues.size() - 1);
+        for (long time : sortedChunk) {
+            if (time < previous) {
+                throw new IllegalArgumentException("Appended time values must be sorted and must not precede the last value of the layer.");
+            }
+            previous = time;
+        }
+
+        int fromIndex = timeValues.size();
+        appendableTimeValues.addAll(sortedChunk);
+        if (pyramid != null) {
+            pyramid.append(timeValues, fromIndex);
+        }
+        applyRetention();
+    }
+
+    /**
+     * Removes the oldest values which are not allowed by the retention policy.
+     */
+    private void applyRetention() {
+        if (retention == null || timeValues.size() == 0) return;
+
+        LongRingBuffer buffer = (LongRingBuffer) timeValues;
+        int size = buffer.size();
+        long newestTime = buffer.get(size - 1);
+        long oldestKeptTime = newestTime >= Long.MIN_VALUE + retention.getMaxAge() ? newestTime - retention.getMaxAge() : Long.MIN_VALUE;
+
+        int removedCount = Math.max(size - retention.getMaxCount(), BinarySearcher.lowerBound(buffer, oldestKeptTime));
+        if (removedCount > 0) {
+            buffer.removeFirst(removedCount);
+            if (pyramid != null) {
+                pyramid.removeFirst(buffer, removedCount);
+            }
+        }
     }
 
     @Override
-    int getHeight() {
+    int getMinimumHeight() {
         return HEIGHT;
     }
 
     @Override
-    public void draw(Graphics2D graphics, int headerSize, int graphicsWidth, int y) {  // TODO: draw selected and unselected entries in current method
-        drawLegend(graphics, y);
-
+    void drawEntries(Graphics2D graphics, MarkerPainter markers, Viewport viewport, int x, int y) {  // TODO: draw selected and unselected entries in current method
         if (timeValues.size() == 0) return;
 
-        final int x = headerSize + 2 * Layer.PADDING;
+        LayerDrawEvent event = new LayerDrawEvent();
+        event.begin();
+
+        // the markers are centered in rows higher than the markers
+        y += (getHeight() - HEIGHT) / 2;
+
+        final int firstIndex = BinarySearcher.firstGreaterThanOrEqual(timeValues, viewport.getMinTime());
+        final int lastIndex = BinarySearcher.lastLessThanOrEqual(timeValues, viewport.getMaxTime());
+        final int visibleCount = Math.max(lastIndex - firstIndex + 1, 0);
+
+        int drawnCount = drawVisibleEntries(graphics, markers, viewport, firstIndex, lastIndex, x, y);
+        timelineManager.getMetrics().recordEntries(getName(), drawnCount, Math.max(visibleCount - drawnCount, 0));
+
+        if (event.shouldCommit()) {
+            event.layerName = getName();
+            event.entryCount = timeValues.size();
+            event.visibleEntries = visibleCount;
+            event.drawnMarkers = drawnCount;
+            event.visibleMinTime = viewport.getMinTime();
+            event.visibleMaxTime = viewport.getMaxTime();
+            event.commit();
+        }
+    }
+
+    /**
+     * @return count of the drawn markers, which is less than the count of the visible entries if they have been aggregated
+     */
+    private int drawVisibleEntries(Graphics2D graphics, MarkerPainter markers, Viewport viewport, int firstIndex, int lastIndex, int x, int y) {
+        if (lastIndex - firstIndex + 1 > viewport.getWidth()) {
+            // below the finest level of the pyramid the entries on the same pixel are still skipped
+            LodPyramid.Level level = pyramid == null ? null : pyramid.getLevel(viewport.getTimePerPixel());
+            if (level == null) {
+                return drawColumns(graphics, markers, viewport, firstIndex, lastIndex, x, y);
+            }
+            return drawBuckets(graphics, markers, level, viewport, x, y);
+        }
+
         final int pointY = y + TimeEntryLayer.HEIGHT / 2 - Layer.POINT_RADIUS;
 
         graphics.setColor(BGR_DEFAULT_COLOR);
-        for (int i = BinarySearcher.firstGreaterThanOrEqual(timeValues.getArray(), this.visibleAreaManager.getCurrentMinTime()); i <= BinarySearcher.lastLessThanOrEqual(timeValues.getArray(), visibleAreaManager.getCurrentMaxTime()); i++) {
-            int position = timelineManager.getXForTime(timeValues.get(i));
+        for (int i = firstIndex; i <= lastIndex; i++) {
+            if ((i & CANCELLATION_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                return i - firstIndex;
+            }
+            int position = viewport.getXForTime(timeValues.get(i));
 
             int pointX = x + position;
+            if (markers != null) {
+                markers.drawRun(pointX, pointX, y);
+                continue;
+            }
+
             int bgrX = pointX - BRG_RECT_WIDTH / 2;
             int bgrY = y + 3;
 
@@ -56,43 +179,172 @@ public class TimeEntryLayer extends Layer {
             graphics.setColor(Color.white);
             graphics.fillOval(pointX, pointY, Layer.POINT_RADIUS * 2, Layer.POINT_RADIUS * 2);
         }
+        return Math.max(lastIndex - firstIndex + 1, 0);
+    }
+
+    /**
+     * Draws the pre-aggregated buckets of the pyramid level instead of the single entries.
+     * Buckets that touch the same pixels are merged into one run, so the count of the
+     * drawing calls depends on the width of the timeline, not on the count of entries.
+     *
+     * @return count of the drawn runs
+     */
+    private int drawBuckets(Graphics2D graphics, MarkerPainter markers, LodPyramid.Level level, Viewport viewport, int x, int y) {
+        final long minTime = viewport.getMinTime();
+        final long maxTime = viewport.getMaxTime();
+
+        int runStart = 0;
+        int runEnd = 0;
+        int runCount = 0;
+        boolean hasRun = false;
+        for (int i = level.firstBucketEndingAtOrAfter(minTime); i < level.size() && level.getMin(i) <= maxTime; i++) {
+            int bucketStart = viewport.getXForTime(Math.max(level.getMin(i), minTime));
+            int bucketEnd = viewport.getXForTime(Math.min(level.getMax(i), maxTime));
+
+            if (hasRun && bucketStart <= runEnd + 1) {
+                runEnd = Math.max(runEnd, bucketEnd);
+                continue;
+            }
+
+            if (hasRun) {
+                drawRun(graphics, markers, x + runStart, x + runEnd, y);
+                runCount++;
+            }
+            runStart = bucketStart;
+            runEnd = bucketEnd;
+            hasRun = true;
+        }
+
+        if (hasRun) {
+            drawRun(graphics, markers, x + runStart, x + runEnd, y);
+            runCount++;
+        }
+        return runCount;
     }
 
-    private void drawLegend(Graphics2D graphics, int y) {
-        graphics.setColor(LEGEND_TEXT_COLOR);
-        graphics.drawString(getName(), Layer.PADDING, y + TimeEntryLayer.HEIGHT / 2 + graphics.getFontMetrics().getHeight() / 2);
+    /**
+     * Draws the entries without a pyramid. After an entry is drawn, all the other entries
+     * on the same pixel are skipped by a binary search, so only O(log n) entries are read
+     * per pixel.
+     *
+     * @return count of the drawn runs
+     */
+    private int drawColumns(Graphics2D graphics, MarkerPainter markers, Viewport viewport, int firstIndex, int lastIndex, int x, int y) {
+        int runStart = 0;
+        int runEnd = 0;
+        int runCount = 0;
+        boolean hasRun = false;
+        int i = firstIndex;
+        while (i <= lastIndex) {
+            int position = viewport.getXForTime(timeValues.get(i));
+            i = Math.max(BinarySearcher.lowerBound(timeValues, viewport.getTimeForX(position + 1), i, lastIndex + 1), i + 1);
+
+            if (hasRun && position <= runEnd + 1) {
+                runEnd = Math.max(runEnd, position);
+                continue;
+            }
+
+            if (hasRun) {
+                drawRun(graphics, markers, x + runStart, x + runEnd, y);
+                runCount++;
+            }
+            runStart = position;
+            runEnd = position;
+            hasRun = true;
+        }
+
+        if (hasRun) {
+            drawRun(graphics, markers, x + runStart, x + runEnd, y);
+            runCount++;
+        }
+        return runCount;
+    }
+
+    private static void drawRun(Graphics2D graphics, MarkerPainter markers, int pointFromX, int pointToX, int y) {
+        if (markers != null) {
+            markers.drawRun(pointFromX, pointToX, y);
+        } else {
+            drawRun(graphics, pointFromX, pointToX, y);
+        }
+    }
+
+    /**
+     * Draws a run of entries that starts at pointFromX and ends at pointToX.
+     * A run of zero length looks exactly like a single entry.
+     */
+    static void drawRun(Graphics2D graphics, int pointFromX, int pointToX, int y) {
+        int pointY = y + TimeEntryLayer.HEIGHT / 2 - Layer.POINT_RADIUS;
+        int runLength = pointToX - pointFromX;
+        int diameter = Layer.POINT_RADIUS * 2;
+
+        graphics.setColor(Color.darkGray);
+        graphics.fillRoundRect(pointFromX - BRG_RECT_WIDTH / 2, y + 3, Layer.BRG_RECT_WIDTH * 2 + runLength, HEIGHT - 6, 5, 5);
+        graphics.setColor(Color.white);
+        graphics.fillRoundRect(pointFromX, pointY, diameter + runLength, diameter, diameter, diameter);
     }
 
     @Override
-    void drawTimeSelectionEffect(Graphics2D graphics, long time, int y) {
-        if (timeValues.size() == 0) return;
+    void drawTimeSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        if (selection.isEmpty()) return;
 
-        int circleX = timelineManager.getLegendWidth() + timelineManager.getXForTime(time) - Layer.POINT_RADIUS;
-        int circleY = y + HEIGHT / 2 - Layer.POINT_RADIUS;
+        drawTimeSelectionEffect(graphics, MarkerAtlas.forSelection(timelineManager.getRenderingEngine(), graphics), selection.getFromTime(), y);
+    }
 
-        int diameter = Layer.POINT_RADIUS * 2;
+    /**
+     * Draws the circle of the selected entry, by copying its sprite if the atlas is given,
+     * which is much cheaper than filling an antialiased oval on every repaint of the component.
+     */
+    private void drawTimeSelectionEffect(Graphics2D graphics, MarkerAtlas atlas, long time, int y) {
+        int circleX = timelineManager.getLegendWidth() + timelineManager.getXForTime(time) - Layer.POINT_RADIUS;
+        int circleY = y + getHeight() / 2 - Layer.POINT_RADIUS;
 
-        graphics.setColor(TimeSelectionManager.SELECTION_COLOR);
-        graphics.fillOval(circleX, circleY, diameter, diameter);
+        drawSelectionCircle(graphics, atlas, circleX, circleY);
     }
 
     @Override
-    void drawIntervalSelectionEffect(Graphics2D graphics, long from, long to, int y) {
-        if (timeValues.size() == 0) return;
+    void drawIntervalSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        if (selection.isEmpty()) return;
 
-        for (long time : timeValues.toArray()) {
-            if (time < from || time > to) continue;
+        // only the selected entries which are visible are drawn
+        Viewport viewport = timelineManager.getViewport();
+        int end = Math.min(selection.getLastIndex() + 1, upperBound(viewport.getTimeForX(viewport.getWidth() + BRG_RECT_WIDTH)));
 
-            drawTimeSelectionEffect(graphics, time, y);
+        // selection effects of the entries lying on the same pixel are the same, only one of them is drawn
+        MarkerAtlas atlas = MarkerAtlas.forSelection(timelineManager.getRenderingEngine(), graphics);
+        int i = Math.max(selection.getFirstIndex(), lowerBound(viewport.getTimeForX(-BRG_RECT_WIDTH)));
+        while (i < end) {
+            long time = timeValues.get(i);
+            drawTimeSelectionEffect(graphics, atlas, time, y);
+            i = Math.max(BinarySearcher.lowerBound(timeValues, viewport.getTimeForX(viewport.getXForTime(time) + 1), i, end), i + 1);
         }
     }
 
+    @Override
+    LongSequence getTimeValues() {
+        return timeValues;
+    }
+
+    @Override
+    int lowerBound(long time) {
+        return BinarySearcher.lowerBound(timeValues, time);
+    }
+
+    @Override
+    int upperBound(long time) {
+        return BinarySearcher.upperBound(timeValues, time);
+    }
+
     @Override
     long getMaxTimeValue() {
         if (timeValues.size() == 0) return Long.MIN_VALUE;
         return timeValues.get(timeValues.size() - 1);
     }
 
+    @Override
+    boolean hasRetention() {
+        return retention != null;
+    }
+
     @Override
     long getMinTimeValue() {
         if (timeValues.size() == 0) return Long.MAX_VALUE;
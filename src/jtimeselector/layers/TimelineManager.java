@@ -2,13 +2,29 @@ package jtimeselector.layers;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
 
-import com.vorono4ka.BinarySearcher;
 import jtimeselector.*;
 import jtimeselector.interfaces.TimeToStringConverter;
+import jtimeselector.jfr.DrawLayersEvent;
+import jtimeselector.jfr.IngestionEvent;
+import jtimeselector.metrics.TimelineMetrics;
 
 /**
  * Keeps a list of all layers, draws them on the {@link JTimeSelector} component.
@@ -17,11 +33,27 @@ public class TimelineManager {
     public static final Color TIME_LABEL_COLOR = Color.black;
     public static final int TOP_PADDING = 10;
 
+    /**
+     * Draws the strips of the layers when the layers are drawn in parallel. It has one thread per processor,
+     * the threads terminate when there is nothing to draw. Unlike the common fork-join pool, the pool interrupts
+     * its threads when their strips are cancelled, and no other work of the application waits behind the strips.
+     */
+    private static final ThreadPoolExecutor STRIP_EXECUTOR = createStripExecutor();
+
     private final List<Layer> layers = new ArrayList<>();
+    private final Map<String, Layer> layersByName = new HashMap<>();
     private final VisibleAreaManager visibleAreaManager;
     private final TimeSelectionManager timeSelection;
     private final IntervalSelectionManager intervalSelection;
     private final TimeToStringConverter converter;
+    private final TimelineMetrics metrics = new TimelineMetrics();
+    private final TileCache tileCache = new TileCache(metrics);
+    private final NearestTimeIndex nearestTimeIndex = new NearestTimeIndex(layers);
+    private final TimeBounds timeBounds = new TimeBounds();
+    private volatile LayerRows rows;
+    private volatile HeaderWidth headerWidth;
+    private volatile RenderingEngine renderingEngine = RenderingEngine.Java2D;
+    private volatile boolean parallelRendering;
 
     private int timelineWidth;
     private int legendWidth;
@@ -29,6 +61,9 @@ public class TimelineManager {
     private int height;
     private int layersBottomY;
     private int fontHeight;
+    private Viewport viewport;
+    private long viewportMinTime;
+    private long viewportMaxTime;
 
     // Cursor
     private boolean drawCursor;
@@ -36,6 +71,17 @@ public class TimelineManager {
     private int cursorLabelXLeft, cursorLabelXRight;
 
 
+    private static ThreadPoolExecutor createStripExecutor() {
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "JTimeSelector strip renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     public TimelineManager(VisibleAreaManager visibleAreaManager, TimeToStringConverter converter) {
         this.visibleAreaManager = visibleAreaManager;
         this.converter = converter;
@@ -49,9 +95,162 @@ public class TimelineManager {
      * collection of the displayed layers
      *
      * @param layer layer object
+     * @throws IllegalArgumentException if there already is a layer with the same name
      */
     public void addLayer(Layer layer) {
+        if (layersByName.containsKey(layer.getName())) {
+            throw new IllegalArgumentException("There already is a layer named " + layer.getName() + ".");
+        }
+
+        IngestionEvent event = new IngestionEvent();
+        event.begin();
+
         layers.add(layer);
+        layersByName.put(layer.getName(), layer);
+        timeBounds.add(layer);
+        nearestTimeIndex.clear();
+        rows = null;
+
+        HeaderWidth cachedHeaderWidth = headerWidth;
+        if (cachedHeaderWidth != null) {
+            headerWidth = cachedHeaderWidth.withName(layer.getName());
+        }
+
+        commitAddLayerEvent(event, layer);
+    }
+
+    /**
+     * Applies a batch of changes of the layers at once. The positions, the header width and the index of the layers
+     * are invalidated only once for the whole batch, so adding or removing thousands of layers takes linear time.
+     *
+     * @param removeAll     true to remove all the layers before the other changes
+     * @param removedNames  names of the layers to remove, names without a layer are ignored
+     * @param changedLayers layers to add, each of them replaces the layer with the same name at its position
+     *                      or is added to the end if there is no such layer
+     */
+    public void updateLayers(boolean removeAll, Collection<String> removedNames, Collection<Layer> changedLayers) {
+        if (removeAll) {
+            removeFromSelection(layer -> true);
+            layers.clear();
+            layersByName.clear();
+            timeBounds.clear();
+            tileCache.clear();
+        } else if (!removedNames.isEmpty()) {
+            Set<Layer> removedLayers = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (String name : removedNames) {
+                Layer layer = layersByName.remove(name);
+                if (layer != null) {
+                    removedLayers.add(layer);
+                    timeBounds.remove(layer);
+                    tileCache.invalidate(layer);
+                }
+            }
+            removeFromSelection(removedLayers::contains);
+            layers.removeIf(removedLayers::contains);
+        }
+
+        boolean replaced = false;
+        for (Layer layer : changedLayers) {
+            IngestionEvent event = new IngestionEvent();
+            event.begin();
+
+            Layer previousLayer = layersByName.put(layer.getName(), layer);
+            if (previousLayer == null) {
+                layers.add(layer);
+            } else {
+                timeBounds.remove(previousLayer);
+                tileCache.invalidate(previousLayer);
+                replaced = true;
+            }
+            timeBounds.add(layer);
+
+            commitAddLayerEvent(event, layer);
+        }
+        if (replaced) {
+            // every layer in the list is registered by its name, the registry already holds the replacements
+            layers.replaceAll(layer -> layersByName.get(layer.getName()));
+        }
+
+        nearestTimeIndex.clear();
+        rows = null;
+        headerWidth = null;
+    }
+
+    private static void commitAddLayerEvent(IngestionEvent event, Layer layer) {
+        if (event.shouldCommit()) {
+            int entryCount = layer.getTimeValues().size();
+            event.operation = IngestionEvent.ADD_LAYER;
+            event.layerName = layer.getName();
+            event.addedEntries = entryCount;
+            event.entryCount = entryCount;
+            event.minTime = layer.getMinTimeValue();
+            event.maxTime = layer.getMaxTimeValue();
+            event.commit();
+        }
+    }
+
+    /**
+     * Appends the values to the end of the time entry layer with the given name.
+     * Values removed from the layer by its retention policy are removed from the timeline too.
+     *
+     * @param layerName   name of the layer
+     * @param sortedChunk time values sorted in the ascending order, none of them less than the last value of the layer
+     * @return area of the component which has changed or null if no visible entry has changed
+     * @throws IllegalArgumentException if there is no time entry layer with the given name or the values are not sorted
+     */
+    public Rectangle appendTimeValues(String layerName, long[] sortedChunk) {
+        if (!(getLayerByName(layerName) instanceof TimeEntryLayer layer)) {
+            throw new IllegalArgumentException("There is no time entry layer named " + layerName + ".");
+        }
+        if (sortedChunk.length == 0) {
+            return null;
+        }
+
+        IngestionEvent event = new IngestionEvent();
+        event.begin();
+
+        long fromTime = sortedChunk[0];
+        long toTime = sortedChunk[sortedChunk.length - 1];
+        long oldMinTime;
+        long newMinTime;
+        Lock lock = layer.getLock().writeLock();
+        lock.lock();
+        try {
+            oldMinTime = layer.getMinTimeValue();
+            layer.appendTimeValues(sortedChunk);
+            timeBounds.update(layer);
+            tileCache.invalidate(layer, fromTime, toTime);
+
+            newMinTime = layer.getMinTimeValue();
+            if (newMinTime != oldMinTime && oldMinTime != Long.MAX_VALUE) {
+                // the oldest values have been removed
+                tileCache.invalidate(layer, oldMinTime, newMinTime);
+                nearestTimeIndex.invalidate(getRows().indexOf(layerName));
+            } else {
+                nearestTimeIndex.append(getRows().indexOf(layerName), sortedChunk);
+            }
+
+            if (event.shouldCommit()) {
+                event.operation = IngestionEvent.APPEND;
+                event.layerName = layerName;
+                event.addedEntries = sortedChunk.length;
+                event.entryCount = layer.timeValues.size();
+                event.minTime = newMinTime;
+                event.maxTime = layer.getMaxTimeValue();
+                event.commit();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        Rectangle changedArea = getEntriesBounds(layerName, fromTime, toTime);
+        if (newMinTime != oldMinTime && oldMinTime != Long.MAX_VALUE) {
+            Rectangle removedArea = getEntriesBounds(layerName, oldMinTime, newMinTime);
+            if (removedArea != null) {
+                changedArea = changedArea == null ? removedArea : changedArea.union(removedArea);
+            }
+        }
+        return changedArea;
     }
 
     /**
@@ -65,9 +264,30 @@ public class TimelineManager {
             return;
         }
 
-        Layer searchingLayer = getLayerByName(layerName);
+        Layer searchingLayer = layersByName.remove(layerName);
         if (searchingLayer != null) {
+            removeFromSelection(layer -> layer == searchingLayer);
             layers.remove(searchingLayer);
+            timeBounds.remove(searchingLayer);
+            tileCache.invalidate(searchingLayer);
+            nearestTimeIndex.clear();
+            rows = null;
+            headerWidth = null;
+        }
+    }
+
+    /**
+     * Moves the selections so that they stay on the same layers after the layers are removed from the list.
+     * The layers are visited from the last one, so the indexes of the layers not visited yet are still valid.
+     *
+     * @param removed whether the layer is going to be removed
+     */
+    private void removeFromSelection(Predicate<Layer> removed) {
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            if (removed.test(layers.get(i))) {
+                timeSelection.layerRemoved(i);
+                intervalSelection.layerRemoved(i);
+            }
         }
     }
 
@@ -75,82 +295,128 @@ public class TimelineManager {
      * Clears the collection of layers that are drawn.
      */
     public void removeAllLayers() {
+        removeFromSelection(layer -> true);
         layers.clear();
+        layersByName.clear();
+        timeBounds.clear();
+        tileCache.clear();
+        nearestTimeIndex.clear();
+        rows = null;
+        headerWidth = null;
+    }
+
+    /**
+     * Changes the height of the row of the layer with the given name.
+     *
+     * @param layerName name of the layer
+     * @param height    new height of the layer
+     * @throws IllegalArgumentException if there is no layer with the given name or the height is less than the minimal height of the layer
+     */
+    public void setLayerHeight(String layerName, int height) {
+        Layer layer = getLayerByName(layerName);
+        if (layer == null) {
+            throw new IllegalArgumentException("There is no layer named " + layerName + ".");
+        }
+        if (height < layer.getMinimumHeight()) {
+            throw new IllegalArgumentException("Height of the layer " + layerName + " must be at least " + layer.getMinimumHeight() + ".");
+        }
+
+        Lock lock = layer.getLock().writeLock();
+        lock.lock();
+        try {
+            layer.setHeight(height);
+            tileCache.invalidate(layer);
+        } finally {
+            lock.unlock();
+        }
+        rows = null;
+    }
+
+    /**
+     * @return positions of the layers, computed again only after a layer has been added, removed or resized
+     */
+    public LayerRows getRows() {
+        LayerRows result = rows;
+        if (result == null) {
+            result = new LayerRows(layers, TimelineManager.TOP_PADDING);
+            rows = result;
+        }
+        return result;
     }
 
     /**
      * Gets the minimum from all time values that need to fit on the timeline.
+     * The bound is kept up to date by every change of the layers, so it is returned without scanning them.
      *
      * @return Time value represented as a double.
      */
     public long getMinTime() {
-        OptionalLong min = layers.stream().mapToLong(Layer::getMinTimeValue).min();
-        if (min.isEmpty()) {
+        if (layers.isEmpty()) {
             throw new IllegalStateException("Layers list is empty.");
         }
-        return min.getAsLong();
+        return timeBounds.getMinTime();
     }
 
     /**
      * Gets the maximum from all time values that need to fit on the timeline.
+     * The bound is kept up to date by every change of the layers, so it is returned without scanning them.
      *
      * @return Time value represented as a double.
      */
     public long getMaxTime() {
-        OptionalLong max = layers.stream().mapToLong(Layer::getMaxTimeValue).max();
-        if (max.isEmpty()) {
+        if (layers.isEmpty()) {
             throw new IllegalStateException("Layers list is empty.");
         }
-        return max.getAsLong();
+        return timeBounds.getMaxTime();
     }
 
-    public long getClosestTime(long time, int fromLayer, int toLayer) {
-        long[] closestTimes = new long[toLayer - fromLayer + 1];
-
-        int i = 0;
-        for (int layerIndex = fromLayer; layerIndex <= toLayer; layerIndex++) {
-            long closestTime = getClosestTime(time, layerIndex);
-            if (closestTime == -1) {
-                closestTime = Integer.MAX_VALUE;
-            }
-
-            closestTimes[i++] = closestTime;
-        }
-
-        Arrays.sort(closestTimes);
-        final int indexOfClosest = BinarySearcher.indexOfClosest(closestTimes, time);
-        if (indexOfClosest == -1) {
-            return -1;
-        }
+    /**
+     * @return true if a layer removes its oldest entries by a retention policy, so {@link #getMinTime()} may grow
+     */
+    public boolean hasRetention() {
+        return timeBounds.hasRetention();
+    }
 
-        return closestTimes[indexOfClosest];
+    /**
+     * @param time      searching value
+     * @param fromLayer index of the first searched layer
+     * @param toLayer   index of the last searched layer
+     * @return time value of the entry closest to the given time, or {@link NearestTimeIndex#NO_TIME} if the layers have no entries, entries at that time are never found
+     */
+    public long getClosestTime(long time, int fromLayer, int toLayer) {
+        return nearestTimeIndex.getClosestTime(time, fromLayer, toLayer);
     }
 
+    /**
+     * @param time       searching value
+     * @param layerIndex index of the searched layer
+     * @return time value of the entry closest to the given time, or {@link NearestTimeIndex#NO_TIME} if the layer has no entries, entries at that time are never found
+     */
     public long getClosestTime(long time, int layerIndex) {
-        TimeEntryLayer timeEntryLayer = (TimeEntryLayer) this.layers.get(layerIndex);
-
-        final int indexOfClosest = BinarySearcher.indexOfClosest(timeEntryLayer.timeValues.getArray(), time);
-        if (indexOfClosest == -1) {
-            return -1;
-        }
-
-        return timeEntryLayer.timeValues.get(indexOfClosest);
+        return nearestTimeIndex.getClosestTime(time, layerIndex, layerIndex);
     }
 
     /**
      * Calculates the space needed for names of the layers. (=the width of the
      * longest name) The value is dependent on the font size therefore the
      * function needs the graphics on which the text will be drawn.
+     * The width is kept for the font of the last call and updated when a layer is added.
      *
      * @param graphics The graphics on which the text will be drawn
      * @return required header width
      */
     public int getRequiredHeaderWidth(Graphics2D graphics) {
+        HeaderWidth cachedHeaderWidth = headerWidth;
+        if (cachedHeaderWidth != null && cachedHeaderWidth.isMeasuredBy(graphics)) {
+            return cachedHeaderWidth.width();
+        }
+
         FontMetrics fontMetrics = graphics.getFontMetrics();
         OptionalInt max = layers.stream().mapToInt(l -> fontMetrics.stringWidth(l.getName())).max();
         if (max.isEmpty()) {
             throw new IllegalStateException("List of layers is empty");
         }
+        headerWidth = new HeaderWidth(fontMetrics, graphics.getFontRenderContext(), max.getAsInt());
         return max.getAsInt();
     }
 
@@ -160,27 +426,282 @@ public class TimelineManager {
      * @param imageHeight height of the image on which the graphics draws.
      */
     public void drawLayers(Graphics2D graphics, int imageWidth, int imageHeight) {
-        width = imageWidth;
-        height = imageHeight;
+        drawLayers(graphics, createFrameLayout(graphics, imageWidth, imageHeight));
+    }
+
+    /**
+     * Computes the positions of the layers and the visible part of the timeline for the image of the given size.
+     * Needs to be called on the Event Dispatch Thread, the returned layout can then be drawn on any thread.
+     *
+     * @param graphics graphics whose font is used for the names of the layers
+     * @param imageWidth width of the image on which the layers will be drawn.
+     * @param imageHeight height of the image on which the layers will be drawn.
+     * @return layout of the frame
+     */
+    public FrameLayout createFrameLayout(Graphics2D graphics, int imageWidth, int imageHeight) {
+        return createFrameLayout(graphics, imageWidth, imageHeight, 0, imageHeight);
+    }
+
+    /**
+     * Computes the positions of the layers and the visible part of the timeline for the component of the given size,
+     * of which only the rows between visibleTop and visibleTop + visibleHeight are drawn.
+     * Needs to be called on the Event Dispatch Thread, the returned layout can then be drawn on any thread.
+     *
+     * @param graphics graphics whose font is used for the names of the layers
+     * @param width width of the component
+     * @param height height of the component
+     * @param visibleTop y coordinate of the first visible row of the component
+     * @param visibleHeight count of the visible rows of the component, which is the height of the image
+     * @return layout of the frame
+     */
+    public FrameLayout createFrameLayout(Graphics2D graphics, int width, int height, int visibleTop, int visibleHeight) {
+        this.width = width;
+        this.height = height;
+
+        int headerWidth = getRequiredHeaderWidth(graphics);
+        legendWidth = getLegendWidth(headerWidth);
+        timelineWidth = getTimelineWidth(width, legendWidth);
+
+        LayerRows layerRows = getRows();
+        if (layerRows.getBottom() <= height) {
+            layersBottomY = layerRows.getBottom();
+        } else {
+            // the last layer which is at least partially visible
+            layersBottomY = layerRows.getTop(Math.max(layerRows.getRowAt(height), 0) + 1);
+        }
+
+        return new FrameLayout(layerRows, getViewport(), headerWidth, width, visibleHeight, visibleTop);
+    }
+
+    /**
+     * Computes the layout of a frame showing the given time interval. Unlike {@link #createFrameLayout(Graphics2D, int, int)}
+     * doesn't change the state of the manager, so it can be called from more threads at once as long as no layer is added or removed.
+     *
+     * @param graphics graphics whose font is used for the names of the layers
+     * @param minTime time value drawn at the left edge of the timeline
+     * @param maxTime time value drawn at the right edge of the timeline
+     * @param imageWidth width of the image on which the layers will be drawn.
+     * @param imageHeight height of the image on which the layers will be drawn.
+     * @return layout of the frame
+     */
+    public FrameLayout createFrameLayout(Graphics2D graphics, long minTime, long maxTime, int imageWidth, int imageHeight) {
+        int headerWidth = getRequiredHeaderWidth(graphics);
+        Viewport frameViewport = Viewport.of(minTime, maxTime, getTimelineWidth(imageWidth, getLegendWidth(headerWidth)));
+        return new FrameLayout(getRows(), frameViewport, headerWidth, imageWidth, imageHeight, 0);
+    }
+
+    private static int getLegendWidth(int headerWidth) {
+        return headerWidth + 2 * Layer.PADDING + Layer.POINT_RADIUS;
+    }
+
+    private static int getTimelineWidth(int imageWidth, int legendWidth) {
+        return imageWidth - legendWidth - Layer.PADDING - Layer.POINT_RADIUS;
+    }
+
+    /**
+     * Draws the layers of the frame. Doesn't change the state of the manager, so it can be called from any thread.
+     * Stops early if the current thread is interrupted, the frame is not complete then.
+     *
+     * @param graphics graphics for drawing the layers
+     * @param layout layout of the frame
+     */
+    public void drawLayers(Graphics2D graphics, FrameLayout layout) {
+        drawLayers(graphics, layout, null);
+    }
+
+    /**
+     * Draws the layers of the frame. Doesn't change the state of the manager, so it can be called from any thread.
+     * Stops early if the current thread is interrupted, the frame is not complete then.
+     *
+     * @param graphics graphics for drawing the layers
+     * @param layout layout of the frame
+     * @param image image on which the graphics draws, needed by the {@link RenderingEngine#DirectRaster} engine
+     */
+    public void drawLayers(Graphics2D graphics, FrameLayout layout, BufferedImage image) {
+        DrawLayersEvent event = new DrawLayersEvent();
+        event.begin();
+
+        final RenderingEngine engine = renderingEngine;
+        final boolean parallel = parallelRendering && layout.getLayers().size() > 1;
+        drawLayers(graphics, layout, image, engine, parallel);
+
+        if (event.shouldCommit()) {
+            event.layerCount = layout.getLayers().size();
+            event.renderingEngine = engine.name();
+            event.parallel = parallel;
+            event.cancelled = Thread.currentThread().isInterrupted();
+            event.visibleMinTime = layout.getViewport().getMinTime();
+            event.visibleMaxTime = layout.getViewport().getMaxTime();
+            event.commit();
+        }
+    }
+
+    private void drawLayers(Graphics2D graphics, FrameLayout layout, BufferedImage image, RenderingEngine engine, boolean parallel) {
+        // the layers are drawn in the coordinates of the component
+        graphics.translate(0, -layout.getTop());
+        try {
+            if (parallel) {
+                drawLayersInParallel(graphics, layout, engine);
+                drawSeparators(graphics, layout);
+            } else {
+                drawLayersSequentially(graphics, layout, image, engine);
+            }
+        } finally {
+            graphics.translate(0, layout.getTop());
+        }
+    }
+
+    private void drawLayersSequentially(Graphics2D graphics, FrameLayout layout, BufferedImage image, RenderingEngine engine) {
+        final MarkerPainter markers = MarkerPainter.of(engine, image, graphics);
+        final int imageWidth = layout.getWidth();
+        final Rectangle clipBounds = graphics.getClipBounds();
+        final LayerRows rows = layout.getRows();
+
+        for (int i = getFirstDrawnRow(layout); i < rows.size() && rows.getTop(i) < layout.getBottom(); i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            int y = rows.getTop(i);
+            int layerHeight = rows.getHeight(i);
+            if (clipBounds == null || clipBounds.intersects(0, y, imageWidth, layerHeight)) {
+                MarkerPainter layerMarkers = markers instanceof MarkerRaster raster ? raster.clipped(0, y, imageWidth, layerHeight) : markers;
+                drawLayer(graphics, layerMarkers, rows.getLayer(i), layout, y, engine);
+            }
+            if (y + layerHeight > layout.getBottom()) {
+                break;
+            }
+            drawSeparator(graphics, layout, y + layerHeight);
+        }
+    }
+
+    /**
+     * Rows above the frame are skipped, only the row above the first visible one is drawn, because the line
+     * separating it from the next row lies on the first row of the frame.
+     *
+     * @return index of the first row which needs to be drawn
+     */
+    private static int getFirstDrawnRow(FrameLayout layout) {
+        return Math.max(layout.getRows().getRowAt(layout.getTop() - 1), 0);
+    }
+
+    /**
+     * Draws each layer into its own strip on the threads drawing the strips, then copies the strips into the graphics.
+     * The strips do not overlap, so they can be drawn independently. The lines separating the layers are drawn
+     * over the strips afterwards, the same way as they are drawn over the next layer when drawing sequentially.
+     * <p>
+     * If the current thread is interrupted, the strips are cancelled too. The threads drawing them are interrupted,
+     * so they stop early and release the locks of the layers as soon as drawing on the current thread would.
+     */
+    private void drawLayersInParallel(Graphics2D graphics, FrameLayout layout, RenderingEngine engine) {
+        final int imageWidth = layout.getWidth();
+        final Rectangle clipBounds = graphics.getClipBounds();
+        final RenderingHints hints = graphics.getRenderingHints();
+        final Font font = graphics.getFont();
+
+        final LayerRows rows = layout.getRows();
+
+        List<Callable<BufferedImage>> tasks = new ArrayList<>();
+        List<Integer> stripPositions = new ArrayList<>();
+        for (int i = getFirstDrawnRow(layout); i < rows.size() && rows.getTop(i) < layout.getBottom(); i++) {
+            final int stripY = rows.getTop(i);
+            final int stripHeight = rows.getHeight(i);
+            final Layer layer = rows.getLayer(i);
+            if (clipBounds == null || clipBounds.intersects(0, stripY, imageWidth, stripHeight)) {
+                tasks.add(() -> drawStrip(hints, font, layer, layout, stripY, stripHeight, engine));
+                stripPositions.add(stripY);
+            }
+            if (stripY + stripHeight > layout.getBottom()) {
+                break;
+            }
+        }
+
+        List<Future<BufferedImage>> strips = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<BufferedImage> task : tasks) {
+                strips.add(STRIP_EXECUTOR.submit(task));
+            }
+            for (int i = 0; i < strips.size(); i++) {
+                graphics.drawImage(strips.get(i).get(), 0, stripPositions.get(i), null);
+            }
+        } catch (InterruptedException exception) {
+            // the frame has been cancelled
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Drawing of a layer failed.", exception.getCause());
+        } finally {
+            // the strips of a cancelled or failed frame are not needed anymore, completed strips are not affected
+            for (Future<BufferedImage> strip : strips) {
+                strip.cancel(true);
+            }
+        }
+    }
+
+    private BufferedImage drawStrip(RenderingHints hints, Font font, Layer layer, FrameLayout layout, int y, int height, RenderingEngine engine) {
+        BufferedImage strip = new BufferedImage(layout.getWidth(), height, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D stripGraphics = strip.createGraphics();
+        stripGraphics.setRenderingHints(hints);
+        stripGraphics.setFont(font);
+        stripGraphics.setColor(JTimeSelector.BACKGROUND_COLOR);
+        stripGraphics.fillRect(0, 0, strip.getWidth(), strip.getHeight());
+        stripGraphics.translate(0, -y);
+
+        drawLayer(stripGraphics, MarkerPainter.of(engine, strip, stripGraphics), layer, layout, y, engine);
+        stripGraphics.dispose();
+
+        return strip;
+    }
+
+    private void drawLayer(Graphics2D graphics, MarkerPainter markers, Layer layer, FrameLayout layout, int y, RenderingEngine engine) {
+        final int entriesX = layout.getEntriesX();
 
-        int x = getRequiredHeaderWidth(graphics);
-        int y = TimelineManager.TOP_PADDING;
+        layer.drawLegend(graphics, y);
+        // appending values to the layer waits until the layer is drawn, other frames may draw it at the same time
+        Lock lock = layer.getLock().readLock();
+        lock.lock();
+        try {
+            if (metrics.isEnabled()) {
+                recordCulledEntries(layer, layout.getViewport());
+            }
+            if (tileCache.isEnabled()) {
+                Shape clip = graphics.getClip();
+                // the first row belongs to the line separating the layer from the previous one,
+                // the tiles cover only the pixels which the markers of the visible entries may cover
+                int markersWidth = layout.getViewport().getWidth() + 2 * Layer.BRG_RECT_WIDTH;
+                graphics.clipRect(entriesX - Layer.BRG_RECT_WIDTH / 2, y + 1, markersWidth, layer.getHeight() - 1);
+                tileCache.drawLayer(graphics, layer, layout.getViewport(), entriesX, y, engine);
+                graphics.setClip(clip);
+            } else {
+                layer.drawEntries(graphics, markers, layout.getViewport(), entriesX, y);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        legendWidth = x + 2 * Layer.PADDING + Layer.POINT_RADIUS;
+    private void recordCulledEntries(Layer layer, Viewport viewport) {
+        int visibleCount = layer.upperBound(viewport.getMaxTime()) - layer.lowerBound(viewport.getMinTime());
+        metrics.recordCulledEntries(layer.upperBound(Long.MAX_VALUE) - Math.max(visibleCount, 0));
+    }
 
-        timelineWidth = width - legendWidth - Layer.PADDING - Layer.POINT_RADIUS;
-        for (Layer layer : layers) {
-            layer.draw(graphics, x, imageWidth, y);
-            y = y + layer.getHeight();
-            if (y > imageHeight) {
+    private void drawSeparators(Graphics2D graphics, FrameLayout layout) {
+        final LayerRows rows = layout.getRows();
+        for (int i = getFirstDrawnRow(layout); i < rows.size(); i++) {
+            int y = rows.getTop(i + 1);
+            if (y > layout.getBottom()) {
                 break;
             }
-            graphics.setColor(Color.gray);
-            graphics.setStroke(new BasicStroke(.1f));
-            graphics.drawLine(x, y, imageWidth - Layer.PADDING, y);
+            drawSeparator(graphics, layout, y);
         }
-        layersBottomY = y;
     }
+
+    private static void drawSeparator(Graphics2D graphics, FrameLayout layout, int y) {
+        graphics.setColor(Color.gray);
+        graphics.setStroke(new BasicStroke(.1f));
+        graphics.drawLine(layout.getHeaderWidth(), y, layout.getWidth() - Layer.PADDING, y);
+    }
+
     public int getTimeLabelsBaselineY() {
         return layersBottomY+fontHeight;
     }
@@ -219,8 +740,9 @@ public class TimelineManager {
      * @param layerIndex index of selected layer
      */
     public void drawTimeSelectionEffects(Graphics2D graphics, long time, int layerIndex) {
-        Layer layer = layers.get(layerIndex);
-        layer.drawTimeSelectionEffect(graphics, time, TimelineManager.TOP_PADDING + layer.getHeight() * layerIndex);
+        LayerRows layerRows = getRows();
+        Layer layer = layerRows.getLayer(layerIndex);
+        layer.drawTimeSelectionEffect(graphics, getLayerSelection(layer, layerIndex, time, time), layerRows.getTop(layerIndex));
     }
 
     /**
@@ -236,11 +758,16 @@ public class TimelineManager {
         assert fromLayer >= 0 : "fromLayer less than 0";
         assert toLayer < layers.size() : "toLayer more than layers count";
 
-        int y = TimelineManager.TOP_PADDING + TimeEntryLayer.HEIGHT * fromLayer;
+        // only the selected layers which are scrolled into view are drawn
+        LayerRows layerRows = getRows();
+        Rectangle clipBounds = graphics.getClipBounds();
+        if (clipBounds != null) {
+            fromLayer = Math.max(fromLayer, layerRows.getRowAt(clipBounds.y));
+            toLayer = Math.min(toLayer, layerRows.getRowAt(clipBounds.y + clipBounds.height));
+        }
         for (int i = fromLayer; i <= toLayer; i++) {
-            Layer layer = layers.get(i);
-            layer.drawIntervalSelectionEffect(graphics, fromX, toX, y);
-            y += layer.getHeight();
+            Layer layer = layerRows.getLayer(i);
+            layer.drawIntervalSelectionEffect(graphics, getLayerSelection(layer, i, fromX, toX), layerRows.getTop(i));
         }
     }
 
@@ -251,24 +778,51 @@ public class TimelineManager {
         return layers.isEmpty();
     }
 
+    /**
+     * @return count of the displayed layers
+     */
+    public int getLayerCount() {
+        return layers.size();
+    }
+
     public int getLayerIndex(int y) {
         if (hasLayerOnPosition(y)) {
-            return (y - TimelineManager.TOP_PADDING) / TimeEntryLayer.HEIGHT;
+            return getRows().getRowAt(y);
         }
 
         return -1;
     }
 
+    /**
+     * Gets the area of the component on which the entries of the layer from the given time interval are drawn.
+     *
+     * @param layerName name of the layer
+     * @param fromTime  start of the time interval
+     * @param toTime    end of the time interval
+     * @return the area or null if no such entry is visible
+     */
+    public Rectangle getEntriesBounds(String layerName, long fromTime, long toTime) {
+        if (toTime < visibleAreaManager.getCurrentMinTime() || fromTime > visibleAreaManager.getCurrentMaxTime()) {
+            return null;
+        }
+
+        LayerRows layerRows = getRows();
+        int layerIndex = layerRows.indexOf(layerName);
+        if (layerIndex < 0) {
+            return null;
+        }
+
+        int left = legendWidth + getXForTime(Math.max(fromTime, visibleAreaManager.getCurrentMinTime())) - 2 * Layer.BRG_RECT_WIDTH;
+        int right = legendWidth + getXForTime(Math.min(toTime, visibleAreaManager.getCurrentMaxTime())) + 2 * Layer.BRG_RECT_WIDTH;
+        return new Rectangle(left, layerRows.getTop(layerIndex), right - left, layerRows.getHeight(layerIndex));
+    }
+
     public int getLayersBottomY() {
         return layersBottomY;
     }
 
     public long getTimeForX(int x) {
-        long timeFrom = visibleAreaManager.getCurrentMinTime();
-        long timeTo = visibleAreaManager.getCurrentMaxTime();
-        long timeInterval = timeTo - timeFrom;
-        x = x - legendWidth;
-        return Math.round(timeFrom + timeInterval * x / (double)timelineWidth);
+        return getViewport().getTimeForX(x - legendWidth);
     }
 
     public long getTimeDistance(int interval) {
@@ -280,16 +834,66 @@ public class TimelineManager {
     }
 
     public int getXForTime(long time) {
-        long timeFrom = visibleAreaManager.getCurrentMinTime();
-        long timeTo = visibleAreaManager.getCurrentMaxTime();
-        double timelinePercent = ((double)(time - timeFrom)) / (timeTo - timeFrom);
-        return (int) Math.round(timelinePercent * timelineWidth);
+        return getViewport().getXForTime(time);
+    }
+
+    /**
+     * @return the currently visible part of the timeline
+     */
+    public Viewport getViewport() {
+        long minTime = visibleAreaManager.getCurrentMinTime();
+        long maxTime = visibleAreaManager.getCurrentMaxTime();
+        if (viewport == null || viewport.getWidth() != timelineWidth
+                || viewportMinTime != minTime || viewportMaxTime != maxTime) {
+            viewport = Viewport.of(minTime, maxTime, timelineWidth);
+            viewportMinTime = minTime;
+            viewportMaxTime = maxTime;
+        }
+        return viewport;
     }
 
     public int getLegendWidth() {
         return legendWidth;
     }
 
+    public RenderingEngine getRenderingEngine() {
+        return renderingEngine;
+    }
+
+    public void setRenderingEngine(RenderingEngine renderingEngine) {
+        this.renderingEngine = renderingEngine;
+    }
+
+    public boolean isParallelRendering() {
+        return parallelRendering;
+    }
+
+    /**
+     * @param parallelRendering true to draw the layers concurrently on a pool with one thread per processor
+     */
+    public void setParallelRendering(boolean parallelRendering) {
+        this.parallelRendering = parallelRendering;
+    }
+
+    public TimelineMetrics getMetrics() {
+        return metrics;
+    }
+
+    public TileCache getTileCache() {
+        return tileCache;
+    }
+
+    public NearestTimeIndex getNearestTimeIndex() {
+        return nearestTimeIndex;
+    }
+
+    /**
+     * @return width of the part of the component on which the time values are drawn
+     */
+    public int getTimelineWidth() {
+        return timelineWidth;
+    }
+
     /**
      * @return width of the whole component
      */
@@ -317,13 +921,15 @@ public class TimelineManager {
     }
 
     private Layer getLayerByName(String layerName) {
-        for (Layer layer : layers) {
-            if (layer.getName().equals(layerName)) {
-                return layer;
-            }
-        }
+        return layersByName.get(layerName);
+    }
 
-        return null;
+    /**
+     * @param layerName name of the layer
+     * @return true if there is a layer with the given name
+     */
+    public boolean hasLayer(String layerName) {
+        return layersByName.containsKey(layerName);
     }
 
     public boolean hasSelection() {
@@ -365,12 +971,52 @@ public class TimelineManager {
         }
     }
 
+    /**
+     * Ensures that the selection lies within the layers and the time values of the timeline after the layers have changed.
+     *
+     * @return false if the selection has changed
+     */
+    public boolean checkSelectionBounds() {
+        boolean timeSelectionUnchanged = timeSelection.checkBounds();
+        boolean intervalSelectionUnchanged = intervalSelection.checkBounds();
+        return timeSelectionUnchanged && intervalSelectionUnchanged;
+    }
+
     public void clearSelection() {
         this.intervalSelection.clearSelection();
         this.timeSelection.clearSelection();
         this.drawCursor = false;
     }
 
+    /**
+     * Finds the selected entries of each selected layer using binary search, the entries are not copied.
+     *
+     * @return the selected entries of each selected layer, empty list if nothing is selected
+     */
+    public List<LayerSelection> getSelectedEntries() {
+        List<LayerSelection> result = new ArrayList<>();
+        if (timeSelection.hasSelection()) {
+            long time = timeSelection.getSelectedTime();
+            int layerIndex = timeSelection.getSelectedLayer();
+            result.add(getLayerSelection(layers.get(layerIndex), layerIndex, time, time));
+        }
+        if (intervalSelection.hasSelection()) {
+            for (int i = intervalSelection.getFromLayer(); i <= intervalSelection.getToLayer(); i++) {
+                result.add(getLayerSelection(layers.get(i), i, intervalSelection.getFromTime(), intervalSelection.getToTime()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The selection effects and {@link #getSelectedEntries()} find the selected entries the same way.
+     *
+     * @return the entries of the layer whose time values lie between from and to, including them
+     */
+    private static LayerSelection getLayerSelection(Layer layer, int layerIndex, long from, long to) {
+        return new LayerSelection(layer.getName(), layerIndex, from, to, layer.lowerBound(from), layer.upperBound(to) - 1);
+    }
+
     public TimeSelectionType getSelectionType() {
         if (this.timeSelection.hasSelection()) {
             return TimeSelectionType.SingleValue;
@@ -396,6 +1042,27 @@ public class TimelineManager {
 
         graphics.drawLine(x, cursorTop, x, cursorBottom);
         drawLabelOnRightSide(graphics, x, cursorBottom);
+        drawCursorReadouts(graphics, x);
+    }
+
+    /**
+     * Lets the layers which are scrolled into view show their values at the time of the cursor.
+     *
+     * @param graphics {@link Graphics2D} object
+     * @param x position of cursor
+     */
+    private void drawCursorReadouts(Graphics2D graphics, int x) {
+        LayerRows layerRows = getRows();
+        int fromRow = 0;
+        int toRow = layerRows.size() - 1;
+        Rectangle clipBounds = graphics.getClipBounds();
+        if (clipBounds != null) {
+            fromRow = Math.max(fromRow, layerRows.getRowAt(clipBounds.y));
+            toRow = Math.min(toRow, layerRows.getRowAt(clipBounds.y + clipBounds.height));
+        }
+        for (int i = fromRow; i <= toRow; i++) {
+            layerRows.getLayer(i).drawCursorReadout(graphics, cursorTime, x, layerRows.getTop(i));
+        }
     }
 
     /**
@@ -420,4 +1087,17 @@ public class TimelineManager {
         this.cursorTime = time;
         this.drawCursor = true;
     }
+
+    /**
+     * Width of the longest name of the layers measured by the given font metrics.
+     */
+    private record HeaderWidth(FontMetrics fontMetrics, FontRenderContext fontRenderContext, int width) {
+        boolean isMeasuredBy(Graphics2D graphics) {
+            return fontMetrics.getFont().equals(graphics.getFont()) && fontRenderContext.equals(graphics.getFontRenderContext());
+        }
+
+        HeaderWidth withName(String name) {
+            return new HeaderWidth(fontMetrics, fontRenderContext, Math.max(width, fontMetrics.stringWidth(name)));
+        }
+    }
 }
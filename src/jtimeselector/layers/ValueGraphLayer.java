@@ -0,0 +1,177 @@
+package jtimeselector.layers;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+import com.vorono4ka.BinarySearcher;
+import com.vorono4ka.LongList;
+import com.vorono4ka.interfaces.LongSequence;
+import jtimeselector.LayerSelection;
+import jtimeselector.VisibleAreaManager;
+import jtimeselector.jfr.LayerDrawEvent;
+
+/**
+ * Draws a line graph of numeric values measured at the time values of the entries.
+ * <p>
+ * The time values and the values are kept in two parallel arrays. Only the first, the last, the least and
+ * the greatest value of each pixel column are drawn, which gives exactly the same picture as drawing the
+ * line between every two neighbouring entries. The least and the greatest value of a column are answered
+ * by a {@link MinMaxIndex}, so the drawing takes O(width * log n) time however many entries the layer has.
+ * <p>
+ * The values are scaled by the least and the greatest value of the whole layer, so the graph does not change
+ * its scale while the timeline is moved and tiles rendered separately fit together.
+ */
+public class ValueGraphLayer extends Layer {
+    public static final int HEIGHT = 60;
+    public static final Color LINE_COLOR = new Color(0x1f5fa8);
+
+    /**
+     * Distance of the least and the greatest value from the bottom and the top of the layer.
+     */
+    private static final int VALUE_PADDING = 4;
+
+    public final LongSequence timeValues;
+    private final double[] values;
+    private final MinMaxIndex valueIndex;
+    private final double minValue;
+    private final double maxValue;
+
+    /**
+     * The arrays are not copied, so they must not be changed after the layer has been created.
+     *
+     * @param timeValues time values of the entries sorted in the ascending order
+     * @param values     values of the entries, none of them NaN
+     * @throws IllegalArgumentException if the arrays are not of the same length, the time values are not sorted or a value is NaN
+     */
+    public ValueGraphLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, long[] timeValues, double[] values) {
+        super(timelineManager, visibleAreaManager, name, HEIGHT);
+        if (timeValues.length != values.length) {
+            throw new IllegalArgumentException("Layer " + name + " must have as many values as time values.");
+        }
+        for (int i = 0; i < timeValues.length; i++) {
+            if (i > 0 && timeValues[i] < timeValues[i - 1]) {
+                throw new IllegalArgumentException("Time values of layer " + name + " must be sorted.");
+            }
+            if (Double.isNaN(values[i])) {
+                throw new IllegalArgumentException("Value " + i + " of layer " + name + " is NaN.");
+            }
+        }
+
+        this.timeValues = new LongList(timeValues);
+        this.values = values;
+        this.valueIndex = new MinMaxIndex(values);
+        this.minValue = valueIndex.getMin();
+        this.maxValue = valueIndex.getMax();
+    }
+
+    @Override
+    int getMinimumHeight() {
+        return 2 * VALUE_PADDING + 2;
+    }
+
+    @Override
+    void drawEntries(Graphics2D graphics, MarkerPainter markers, Viewport viewport, int x, int y) {
+        if (values.length == 0) return;
+
+        LayerDrawEvent event = new LayerDrawEvent();
+        event.begin();
+
+        // the columns are centered on the x coordinates of the entries, like the markers of the other layers
+        x += Layer.POINT_RADIUS;
+        final int visibleFrom = lowerBound(viewport.getMinTime());
+        final int visibleTo = upperBound(viewport.getMaxTime());
+        // the entries next to the viewport are drawn too, so that the line reaches its edges
+        final int firstIndex = Math.max(visibleFrom - 1, 0);
+        final int endIndex = Math.min(visibleTo + 1, values.length);
+
+        graphics.setColor(LINE_COLOR);
+        int columnCount = 0;
+        int previousX = 0;
+        int previousY = 0;
+        int i = firstIndex;
+        while (i < endIndex) {
+            int column = viewport.getXForTime(timeValues.get(i));
+            int next = Math.max(BinarySearcher.lowerBound(timeValues, viewport.getFirstTimeForX(column + 1), i, endIndex), i + 1);
+
+            int columnX = x + column;
+            if (i > firstIndex) {
+                graphics.drawLine(previousX, previousY, columnX, getYForValue(values[i], y));
+            }
+            if (next - i > 1) {
+                graphics.drawLine(columnX, getYForValue(valueIndex.getMax(i, next), y), columnX, getYForValue(valueIndex.getMin(i, next), y));
+            }
+
+            previousX = columnX;
+            previousY = getYForValue(values[next - 1], y);
+            columnCount++;
+            i = next;
+        }
+
+        final int visibleCount = Math.max(visibleTo - visibleFrom, 0);
+        timelineManager.getMetrics().recordEntries(getName(), columnCount, Math.max(visibleCount - columnCount, 0));
+
+        if (event.shouldCommit()) {
+            event.layerName = getName();
+            event.entryCount = values.length;
+            event.visibleEntries = visibleCount;
+            event.drawnMarkers = columnCount;
+            event.visibleMinTime = viewport.getMinTime();
+            event.visibleMaxTime = viewport.getMaxTime();
+            event.commit();
+        }
+    }
+
+    /**
+     * @param value value of an entry
+     * @param y     y coordinate of the layer
+     * @return y coordinate of the value in the graph
+     */
+    private int getYForValue(double value, int y) {
+        double range = maxValue - minValue;
+        int graphHeight = getHeight() - 2 * VALUE_PADDING;
+        double ratio = range > 0 ? (value - minValue) / range : 0.5;
+        return y + VALUE_PADDING + (int) Math.round((1 - ratio) * graphHeight);
+    }
+
+    @Override
+    void drawTimeSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        if (selection.isEmpty()) return;
+
+        int index = selection.getFirstIndex();
+        int circleX = timelineManager.getLegendWidth() + timelineManager.getXForTime(selection.getFromTime()) - Layer.POINT_RADIUS;
+        int circleY = getYForValue(values[index], y) - Layer.POINT_RADIUS;
+        drawSelectionCircle(graphics, MarkerAtlas.forSelection(timelineManager.getRenderingEngine(), graphics), circleX, circleY);
+    }
+
+    @Override
+    void drawIntervalSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        drawSelectedSpan(graphics, selection, y);
+    }
+
+    @Override
+    LongSequence getTimeValues() {
+        return timeValues;
+    }
+
+    @Override
+    int lowerBound(long time) {
+        return BinarySearcher.lowerBound(timeValues, time);
+    }
+
+    @Override
+    int upperBound(long time) {
+        return BinarySearcher.upperBound(timeValues, time);
+    }
+
+    @Override
+    long getMaxTimeValue() {
+        if (values.length == 0) return Long.MIN_VALUE;
+        return timeValues.get(values.length - 1);
+    }
+
+    @Override
+    long getMinTimeValue() {
+        if (values.length == 0) return Long.MAX_VALUE;
+        return timeValues.get(0);
+    }
+}
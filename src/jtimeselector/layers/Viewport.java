@@ -0,0 +1,114 @@
+package jtimeselector.layers;
+
+/**
+ * Maps time values to x coordinates of a part of the timeline.
+ * <p>
+ * All viewports with the same origin and the same time per pixel share one global grid of pixels,
+ * a viewport only selects which of those pixels is drawn at x = 0. Thanks to that, images rendered
+ * for neighbouring viewports can be put side by side without any seams.
+ */
+public class Viewport {
+    private static final double ORIGIN_ALIGNMENT_PIXELS = 1 << 20;
+
+    private final long originTime;
+    private final double timePerPixel;
+    private final long firstPixel;
+    private final int width;
+
+    /**
+     * @param originTime   time value of the pixel 0 of the global grid
+     * @param timePerPixel time span covered by one pixel
+     * @param firstPixel   pixel of the global grid which is drawn at x = 0
+     * @param width        count of pixels covered by the viewport
+     */
+    public Viewport(long originTime, double timePerPixel, long firstPixel, int width) {
+        this.originTime = originTime;
+        this.timePerPixel = timePerPixel;
+        this.firstPixel = firstPixel;
+        this.width = width;
+    }
+
+    /**
+     * Creates a viewport which shows the interval [minTime, maxTime] on the given count of pixels.
+     * <p>
+     * The grid of pixels is anchored to a multiple of a power of two which is much larger than
+     * the shown interval. The anchor therefore changes only rarely while the interval is moved,
+     * and the x coordinates computed relative to it keep a good precision even for large time values.
+     *
+     * @param minTime time value drawn at x = 0
+     * @param maxTime time value drawn at x = width
+     * @param width   count of pixels covered by the viewport
+     * @return the viewport
+     */
+    public static Viewport of(long minTime, long maxTime, int width) {
+        double timePerPixel = width > 0 && maxTime > minTime ? (maxTime - minTime) / (double) width : 1;
+        long alignment = 1L << Math.min(Math.max(Math.getExponent(timePerPixel * ORIGIN_ALIGNMENT_PIXELS), 0), Long.SIZE - 2);
+        long originTime = Math.floorDiv(minTime, alignment) * alignment;
+        long firstPixel = (long) Math.floor((minTime - originTime) / timePerPixel);
+        return new Viewport(originTime, timePerPixel, firstPixel, width);
+    }
+
+    /**
+     * @param pixelOffset count of pixels by which the viewport is moved to the right
+     * @param width       width of the new viewport
+     * @return viewport with the same grid of pixels starting at the given offset
+     */
+    public Viewport subViewport(long pixelOffset, int width) {
+        return new Viewport(originTime, timePerPixel, firstPixel + pixelOffset, width);
+    }
+
+    public int getXForTime(long time) {
+        return (int) (getPixelForTime(time) - firstPixel);
+    }
+
+    public long getTimeForX(int x) {
+        return originTime + Math.round((firstPixel + x) * timePerPixel);
+    }
+
+    /**
+     * @param x x coordinate in the viewport
+     * @return the least time value which is drawn at the x coordinate
+     */
+    public long getFirstTimeForX(int x) {
+        // time values are rounded to the nearest pixel, a pixel starts half of a pixel before its time value
+        return originTime + (long) Math.ceil((firstPixel + x - 0.5) * timePerPixel);
+    }
+
+    /**
+     * @param time time value
+     * @return pixel of the global grid on which the time value lies
+     */
+    public long getPixelForTime(long time) {
+        return Math.round((time - originTime) / timePerPixel);
+    }
+
+    /**
+     * @return time value drawn at x = 0
+     */
+    public long getMinTime() {
+        return getTimeForX(0);
+    }
+
+    /**
+     * @return time value drawn at x = width
+     */
+    public long getMaxTime() {
+        return getTimeForX(width);
+    }
+
+    public long getOriginTime() {
+        return originTime;
+    }
+
+    public double getTimePerPixel() {
+        return timePerPixel;
+    }
+
+    public long getFirstPixel() {
+        return firstPixel;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,106 @@
+package jtimeselector.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations with buckets of exponentially growing width.
+ * <p>
+ * The bucket 0 counts durations shorter than {@code 2^FIRST_BUCKET_SHIFT} nanoseconds (about a microsecond),
+ * every next bucket counts durations up to twice as long as the previous one and the last bucket
+ * counts all the longer durations. Percentiles are therefore estimated with a precision of a factor of two.
+ */
+public class DurationHistogram {
+    public static final int BUCKET_COUNT = 24;
+    private static final int FIRST_BUCKET_SHIFT = 10;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param nanos measured duration in nanoseconds
+     */
+    public void record(long nanos) {
+        buckets.incrementAndGet(getBucket(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    private static int getBucket(long nanos) {
+        int bucket = Long.SIZE - Long.numberOfLeadingZeros(Math.max(nanos, 0) >> FIRST_BUCKET_SHIFT);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * @param bucket index of the bucket
+     * @return the longest duration counted by the bucket in nanoseconds, {@link Long#MAX_VALUE} for the last bucket
+     */
+    public static long getBucketUpperBound(int bucket) {
+        if (bucket == BUCKET_COUNT - 1) {
+            return Long.MAX_VALUE;
+        }
+        return (1L << (bucket + FIRST_BUCKET_SHIFT)) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return counts of the durations in each bucket
+     */
+    public long[] getBucketCounts() {
+        long[] result = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            result[i] = buckets.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @param bucketCounts counts of the durations in each bucket
+     * @param percentile   percentile between 0 and 100
+     * @param maxNanos     the longest recorded duration
+     * @return upper bound of the bucket containing the percentile, at most the longest recorded duration
+     */
+    static long getPercentileNanos(long[] bucketCounts, double percentile, long maxNanos) {
+        long total = 0;
+        for (long bucketCount : bucketCounts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(getBucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
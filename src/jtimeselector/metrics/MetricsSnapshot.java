@@ -0,0 +1,133 @@
+package jtimeselector.metrics;
+
+import java.util.Map;
+
+/**
+ * Values of the metrics at one moment. The counters are read one after another without any lock,
+ * so a snapshot taken while the component is drawing may be slightly inconsistent.
+ */
+public class MetricsSnapshot {
+    private final long frameCount;
+    private final long frameTotalNanos;
+    private final long frameMaxNanos;
+    private final long[] frameDurationBuckets;
+    private final long entriesDrawn;
+    private final long entriesSkipped;
+    private final long entriesCulled;
+    private final Map<String, Long> entriesDrawnPerLayer;
+    private final long tileCacheHits;
+    private final long tileCacheMisses;
+    private final long timeSelectionCount;
+    private final long timeSelectionTotalNanos;
+    private final long intervalSelectionCount;
+    private final long intervalSelectionTotalNanos;
+
+    MetricsSnapshot(DurationHistogram frameDurations, long entriesDrawn, long entriesSkipped, long entriesCulled,
+                    Map<String, Long> entriesDrawnPerLayer, long tileCacheHits, long tileCacheMisses,
+                    DurationHistogram timeSelectionDurations, DurationHistogram intervalSelectionDurations) {
+        this.frameCount = frameDurations.getCount();
+        this.frameTotalNanos = frameDurations.getTotalNanos();
+        this.frameMaxNanos = frameDurations.getMaxNanos();
+        this.frameDurationBuckets = frameDurations.getBucketCounts();
+        this.entriesDrawn = entriesDrawn;
+        this.entriesSkipped = entriesSkipped;
+        this.entriesCulled = entriesCulled;
+        this.entriesDrawnPerLayer = Map.copyOf(entriesDrawnPerLayer);
+        this.tileCacheHits = tileCacheHits;
+        this.tileCacheMisses = tileCacheMisses;
+        this.timeSelectionCount = timeSelectionDurations.getCount();
+        this.timeSelectionTotalNanos = timeSelectionDurations.getTotalNanos();
+        this.intervalSelectionCount = intervalSelectionDurations.getCount();
+        this.intervalSelectionTotalNanos = intervalSelectionDurations.getTotalNanos();
+    }
+
+    /**
+     * @return count of the drawn frames
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    public double getFrameMeanMillis() {
+        return frameCount == 0 ? 0 : frameTotalNanos / 1e6 / frameCount;
+    }
+
+    public double getFrameMaxMillis() {
+        return frameMaxNanos / 1e6;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return estimate of the duration of a frame at the given percentile, precise up to a factor of two
+     */
+    public double getFramePercentileMillis(double percentile) {
+        return DurationHistogram.getPercentileNanos(frameDurationBuckets, percentile, frameMaxNanos) / 1e6;
+    }
+
+    /**
+     * @return counts of the frames in the buckets of the histogram, see {@link DurationHistogram#getBucketUpperBound(int)}
+     */
+    public long[] getFrameDurationBuckets() {
+        return frameDurationBuckets.clone();
+    }
+
+    /**
+     * @return count of the drawn markers of entries or runs of entries
+     */
+    public long getEntriesDrawn() {
+        return entriesDrawn;
+    }
+
+    /**
+     * @return count of the visible entries which have not been drawn, because they were merged into a run
+     */
+    public long getEntriesSkipped() {
+        return entriesSkipped;
+    }
+
+    /**
+     * @return count of the entries which have not been drawn, because they lay out of the visible area
+     */
+    public long getEntriesCulled() {
+        return entriesCulled;
+    }
+
+    /**
+     * @return count of the drawn markers for each layer name
+     */
+    public Map<String, Long> getEntriesDrawnPerLayer() {
+        return entriesDrawnPerLayer;
+    }
+
+    public long getTileCacheHits() {
+        return tileCacheHits;
+    }
+
+    public long getTileCacheMisses() {
+        return tileCacheMisses;
+    }
+
+    /**
+     * @return ratio of the tiles which were found in the cache, 0 if no tile has been requested
+     */
+    public double getTileCacheHitRate() {
+        long requests = tileCacheHits + tileCacheMisses;
+        return requests == 0 ? 0 : tileCacheHits / (double) requests;
+    }
+
+    public long getTimeSelectionCount() {
+        return timeSelectionCount;
+    }
+
+    public double getTimeSelectionMeanMillis() {
+        return timeSelectionCount == 0 ? 0 : timeSelectionTotalNanos / 1e6 / timeSelectionCount;
+    }
+
+    public long getIntervalSelectionCount() {
+        return intervalSelectionCount;
+    }
+
+    public double getIntervalSelectionMeanMillis() {
+        return intervalSelectionCount == 0 ? 0 : intervalSelectionTotalNanos / 1e6 / intervalSelectionCount;
+    }
+}
@@ -0,0 +1,252 @@
+package jtimeselector.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how much work drawing the component and selecting in it takes.
+ * <p>
+ * The metrics are disabled by default. A disabled metrics object only reads one volatile field
+ * at each measured place, it neither reads the clock nor touches any counter. All the counters
+ * are lock-free, so the metrics can be updated from the render threads and read at the same time.
+ */
+public class TimelineMetrics implements TimelineMetricsMXBean {
+    /**
+     * Returned by {@link #startTiming()} when the metrics are disabled.
+     */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final DurationHistogram frameDurations = new DurationHistogram();
+    private final DurationHistogram timeSelectionDurations = new DurationHistogram();
+    private final DurationHistogram intervalSelectionDurations = new DurationHistogram();
+    private final LongAdder entriesDrawn = new LongAdder();
+    private final LongAdder entriesSkipped = new LongAdder();
+    private final LongAdder entriesCulled = new LongAdder();
+    private final Map<String, LongAdder> entriesDrawnPerLayer = new ConcurrentHashMap<>();
+    private final LongAdder tileCacheHits = new LongAdder();
+    private final LongAdder tileCacheMisses = new LongAdder();
+
+    private volatile boolean enabled;
+    private ObjectName objectName;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return current time in nanoseconds or {@link #NOT_TIMED} if the metrics are disabled
+     */
+    public long startTiming() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * @param start value returned by {@link #startTiming()} before the frame was drawn
+     */
+    public void recordFrame(long start) {
+        if (start != NOT_TIMED) {
+            frameDurations.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @param start value returned by {@link #startTiming()} before the time was selected
+     */
+    public void recordTimeSelection(long start) {
+        if (start != NOT_TIMED) {
+            timeSelectionDurations.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @param start value returned by {@link #startTiming()} before the interval was selected
+     */
+    public void recordIntervalSelection(long start) {
+        if (start != NOT_TIMED) {
+            intervalSelectionDurations.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @param layerName name of the drawn layer
+     * @param drawn     count of the drawn markers of entries or runs of entries
+     * @param skipped   count of the entries which were merged into a run instead of being drawn
+     */
+    public void recordEntries(String layerName, long drawn, long skipped) {
+        if (!enabled) return;
+
+        entriesDrawn.add(drawn);
+        entriesSkipped.add(skipped);
+        entriesDrawnPerLayer.computeIfAbsent(layerName, name -> new LongAdder()).add(drawn);
+    }
+
+    /**
+     * @param culled count of the entries of a layer lying out of the visible area
+     */
+    public void recordCulledEntries(long culled) {
+        if (!enabled) return;
+
+        entriesCulled.add(culled);
+    }
+
+    /**
+     * @param hit true if the tile has been found in the cache
+     */
+    public void recordTileRequest(boolean hit) {
+        if (!enabled) return;
+
+        (hit ? tileCacheHits : tileCacheMisses).increment();
+    }
+
+    /**
+     * @return current values of all the metrics
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> perLayer = new HashMap<>();
+        entriesDrawnPerLayer.forEach((name, count) -> perLayer.put(name, count.sum()));
+        return new MetricsSnapshot(frameDurations, entriesDrawn.sum(), entriesSkipped.sum(), entriesCulled.sum(),
+                perLayer, tileCacheHits.sum(), tileCacheMisses.sum(), timeSelectionDurations, intervalSelectionDurations);
+    }
+
+    @Override
+    public void reset() {
+        frameDurations.reset();
+        timeSelectionDurations.reset();
+        intervalSelectionDurations.reset();
+        entriesDrawn.reset();
+        entriesSkipped.reset();
+        entriesCulled.reset();
+        entriesDrawnPerLayer.clear();
+        tileCacheHits.reset();
+        tileCacheMisses.reset();
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server under the name
+     * {@code jtimeselector:type=TimelineMetrics,name=<name>}.
+     *
+     * @param name name distinguishing the component from the other ones in the application
+     * @return the name under which the metrics have been registered
+     * @throws IllegalStateException if the metrics cannot be registered, for example because the name is already taken
+     */
+    public synchronized ObjectName registerMBean(String name) {
+        unregisterMBean();
+        try {
+            ObjectName newObjectName = new ObjectName("jtimeselector:type=TimelineMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, newObjectName);
+            objectName = newObjectName;
+            return newObjectName;
+        } catch (InstanceAlreadyExistsException exception) {
+            throw new IllegalStateException("Metrics named " + name + " are already registered.", exception);
+        } catch (JMException exception) {
+            throw new IllegalStateException("Metrics cannot be registered.", exception);
+        }
+    }
+
+    /**
+     * Removes the metrics from the platform MBean server if they have been registered.
+     */
+    public synchronized void unregisterMBean() {
+        if (objectName == null) return;
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (InstanceNotFoundException exception) {
+            // unregistered by someone else
+        } catch (JMException exception) {
+            throw new IllegalStateException("Metrics cannot be unregistered.", exception);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    @Override
+    public long getFrameCount() {
+        return frameDurations.getCount();
+    }
+
+    @Override
+    public double getFrameMeanMillis() {
+        return snapshot().getFrameMeanMillis();
+    }
+
+    @Override
+    public double getFrameP50Millis() {
+        return snapshot().getFramePercentileMillis(50);
+    }
+
+    @Override
+    public double getFrameP90Millis() {
+        return snapshot().getFramePercentileMillis(90);
+    }
+
+    @Override
+    public double getFrameP99Millis() {
+        return snapshot().getFramePercentileMillis(99);
+    }
+
+    @Override
+    public double getFrameMaxMillis() {
+        return frameDurations.getMaxNanos() / 1e6;
+    }
+
+    @Override
+    public long getEntriesDrawn() {
+        return entriesDrawn.sum();
+    }
+
+    @Override
+    public long getEntriesSkipped() {
+        return entriesSkipped.sum();
+    }
+
+    @Override
+    public long getEntriesCulled() {
+        return entriesCulled.sum();
+    }
+
+    @Override
+    public Map<String, Long> getEntriesDrawnPerLayer() {
+        return snapshot().getEntriesDrawnPerLayer();
+    }
+
+    @Override
+    public double getTileCacheHitRate() {
+        return snapshot().getTileCacheHitRate();
+    }
+
+    @Override
+    public long getTimeSelectionCount() {
+        return timeSelectionDurations.getCount();
+    }
+
+    @Override
+    public double getTimeSelectionMeanMillis() {
+        return snapshot().getTimeSelectionMeanMillis();
+    }
+
+    @Override
+    public long getIntervalSelectionCount() {
+        return intervalSelectionDurations.getCount();
+    }
+
+    @Override
+    public double getIntervalSelectionMeanMillis() {
+        return snapshot().getIntervalSelectionMeanMillis();
+    }
+}
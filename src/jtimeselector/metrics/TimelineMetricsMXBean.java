@@ -0,0 +1,47 @@
+package jtimeselector.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link TimelineMetrics}, every attribute is computed from a fresh {@link MetricsSnapshot}.
+ */
+public interface TimelineMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Sets all the counters to zero.
+     */
+    void reset();
+
+    long getFrameCount();
+
+    double getFrameMeanMillis();
+
+    double getFrameP50Millis();
+
+    double getFrameP90Millis();
+
+    double getFrameP99Millis();
+
+    double getFrameMaxMillis();
+
+    long getEntriesDrawn();
+
+    long getEntriesSkipped();
+
+    long getEntriesCulled();
+
+    Map<String, Long> getEntriesDrawnPerLayer();
+
+    double getTileCacheHitRate();
+
+    long getTimeSelectionCount();
+
+    double getTimeSelectionMeanMillis();
+
+    long getIntervalSelectionCount();
+
+    double getIntervalSelectionMeanMillis();
+}
@@ -0,0 +1,178 @@
+package jtimeselector;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingUtilities;
+
+import jtimeselector.layers.FrameLayout;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BackgroundRendererTest {
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 100;
+    private static final Rectangle FULL_FRAME = new Rectangle(0, 0, WIDTH, HEIGHT);
+    private static final Font FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+    private static final long TIMEOUT_SECONDS = 10;
+
+    /**
+     * Test of render method, of class BackgroundRenderer, with a frame cancelled while it is drawn.
+     */
+    @Test
+    public void testCancelledFrameIsDrawnWhole() throws Exception {
+        RecordingTimeSelector selector = new RecordingTimeSelector(false);
+        BackgroundRenderer renderer = selector.createRenderer();
+        try {
+            onEventDispatchThread(() -> renderer.render(null, FONT, WIDTH, HEIGHT, 0, null));
+            assertTrue(selector.firstFrameStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+            // the first frame stops unfinished, so the second one draws more than its own change
+            onEventDispatchThread(() -> renderer.render(null, FONT, WIDTH, HEIGHT, 0, new Rectangle(10, 10, 20, 20)));
+            awaitShownFrame(selector, 2);
+
+            assertEquals(List.of(FULL_FRAME, FULL_FRAME), selector.getDrawnRegions());
+            assertEquals(List.of(2), onEventDispatchThread(() -> new ArrayList<>(selector.shownFrames)));
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    /**
+     * Test of render method, of class BackgroundRenderer, with a frame completed although it has been cancelled.
+     */
+    @Test
+    public void testSupersededFrameIsNeverShown() throws Exception {
+        RecordingTimeSelector selector = new RecordingTimeSelector(true);
+        BackgroundRenderer renderer = selector.createRenderer();
+        try {
+            onEventDispatchThread(() -> renderer.render(null, FONT, WIDTH, HEIGHT, 0, null));
+            assertTrue(selector.firstFrameStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+            // the second frame is cancelled before the render thread gets to it, its change is merged into the third one
+            onEventDispatchThread(() -> {
+                renderer.render(null, FONT, WIDTH, HEIGHT, 0, new Rectangle(10, 10, 20, 20));
+                renderer.render(null, FONT, WIDTH, HEIGHT, 0, new Rectangle(50, 40, 10, 10));
+            });
+            selector.firstFrameReleased.countDown();
+            awaitShownFrame(selector, 2);
+
+            assertEquals(List.of(FULL_FRAME, new Rectangle(10, 10, 50, 40)), selector.getDrawnRegions());
+            assertEquals(List.of(2), onEventDispatchThread(() -> new ArrayList<>(selector.shownFrames)));
+        } finally {
+            renderer.shutdown();
+        }
+    }
+
+    private static void awaitShownFrame(RecordingTimeSelector selector, int frame) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!onEventDispatchThread(() -> selector.shownFrames.contains(frame))) {
+            assertTrue(System.nanoTime() < deadline, "The frame " + frame + " has not been shown.");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void onEventDispatchThread(Runnable runnable) throws Exception {
+        SwingUtilities.invokeAndWait(runnable);
+    }
+
+    private static <T> T onEventDispatchThread(Callable<T> callable) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result.set(callable.call());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return result.get();
+    }
+
+    /**
+     * Fills every drawn frame by a color of its own, numbered from one, and records the frames shown by the renderer.
+     * The first frame waits until it is released or cancelled.
+     */
+    private static class RecordingTimeSelector extends JTimeSelector {
+        private final CountDownLatch firstFrameStarted = new CountDownLatch(1);
+        private final CountDownLatch firstFrameReleased = new CountDownLatch(1);
+        private final List<Rectangle> drawnRegions = new ArrayList<>();
+        // accessed only on the Event Dispatch Thread
+        private final List<Integer> shownFrames = new ArrayList<>();
+
+        /**
+         * Completes the first frame although it has been cancelled, like code clearing the interrupted status would.
+         */
+        private final boolean ignoreCancellation;
+        private BackgroundRenderer renderer;
+
+        RecordingTimeSelector(boolean ignoreCancellation) {
+            this.ignoreCancellation = ignoreCancellation;
+        }
+
+        BackgroundRenderer createRenderer() {
+            renderer = new BackgroundRenderer(this);
+            return renderer;
+        }
+
+        synchronized List<Rectangle> getDrawnRegions() {
+            return new ArrayList<>(drawnRegions);
+        }
+
+        @Override
+        void drawFrame(Graphics2D graphics, BufferedImage image, FrameLayout layout, Font font, Rectangle region) {
+            int frame;
+            synchronized (this) {
+                drawnRegions.add(region);
+                frame = drawnRegions.size();
+            }
+
+            if (frame == 1) {
+                firstFrameStarted.countDown();
+                if (ignoreCancellation) {
+                    awaitUninterruptibly(firstFrameReleased);
+                    Thread.interrupted();
+                } else {
+                    try {
+                        firstFrameReleased.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+
+            graphics.setColor(new Color(frame * 40, 0, 0));
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        }
+
+        @Override
+        public void repaint() {
+            // called by the renderer when it shows a completed frame
+            if (renderer != null && renderer.getFrame() != null) {
+                shownFrames.add(new Color(renderer.getFrame().getRGB(0, 0)).getRed() / 40);
+            }
+        }
+
+        private static void awaitUninterruptibly(CountDownLatch latch) {
+            while (true) {
+                try {
+                    latch.await();
+                    return;
+                } catch (InterruptedException e) {
+                    // the frame is completed anyway
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package jtimeselector;
 
 import com.vorono4ka.BinarySearcher;
+import com.vorono4ka.LongList;
+import com.vorono4ka.LongRingBuffer;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -71,4 +73,31 @@ public class BinarySearcherTest {
         assertEquals(0, BinarySearcher.indexOfClosest(SAME_VALUES_ARRAY, 2L));
     }
 
+    /**
+     * Test of indexOfClosest method, of class TimeSearch, with sequences of epoch nanoseconds.
+     */
+    @Test
+    public void testIndexOfClosestInSequence() {
+        // the distances of the values are below the precision of a double
+        final long time = 1_600_000_000_000_000_000L;
+        long[] array = {time, time + 300};
+        LongRingBuffer ringBuffer = new LongRingBuffer();
+        ringBuffer.addAll(array);
+
+        assertEquals(0, BinarySearcher.indexOfClosest(array, time + 140));
+        assertEquals(0, BinarySearcher.indexOfClosest(ringBuffer, time + 140));
+        assertEquals(0, BinarySearcher.indexOfClosest(new LongList(array), time + 140));
+        assertEquals(1, BinarySearcher.indexOfClosest(ringBuffer, time + 160));
+        assertEquals(0, BinarySearcher.indexOfClosest(ringBuffer, time + 150));
+
+        // the distances exceed the range of a long
+        long[] extremes = {Long.MIN_VALUE, Long.MAX_VALUE};
+        ringBuffer = new LongRingBuffer();
+        ringBuffer.addAll(extremes);
+        assertEquals(0, BinarySearcher.indexOfClosest(extremes, -2L));
+        assertEquals(0, BinarySearcher.indexOfClosest(ringBuffer, -2L));
+        assertEquals(1, BinarySearcher.indexOfClosest(extremes, 1L));
+        assertEquals(1, BinarySearcher.indexOfClosest(ringBuffer, 1L));
+    }
+
 }
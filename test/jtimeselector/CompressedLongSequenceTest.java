@@ -0,0 +1,115 @@
+package jtimeselector;
+
+import com.vorono4ka.BinarySearcher;
+import com.vorono4ka.CompressedLongSequence;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompressedLongSequenceTest {
+    /**
+     * Test of get method, of class CompressedLongSequence.
+     */
+    @Test
+    public void testDecodesAllValues() {
+        long[] values = new long[1000];
+        Random random = new Random(42);
+        values[0] = Long.MIN_VALUE / 2;
+        for (int i = 1; i < values.length; i++) {
+            values[i] = values[i - 1] + (i % 100 == 0 ? Long.MAX_VALUE / 2000 : random.nextInt(1000));
+        }
+
+        CompressedLongSequence sequence = CompressedLongSequence.of(values);
+        assertEquals(values.length, sequence.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], sequence.get(i));
+        }
+    }
+
+    /**
+     * Test of the compression of values sampled by a regular clock.
+     */
+    @Test
+    public void testRegularClockTakesLessThanTwoBytesPerValue() {
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_600_000_000_000_000_000L + i * 10_000_000L + (i % 3);
+        }
+
+        CompressedLongSequence sequence = CompressedLongSequence.of(values);
+        assertTrue(sequence.getCompressedSize() < 2L * values.length);
+    }
+
+    /**
+     * Test of the memory taken by a time entry layer of compressed values sampled by a regular clock.
+     */
+    @Test
+    public void testLayerTakesLessThanTwoBytesPerEntry() {
+        long[] values = new long[4_000_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_600_000_000_000_000_000L + i * 10_000_000L + (i % 3);
+        }
+
+        // the layer builds no pyramid over the compressed values, so it takes only the memory of the sequence
+        CompressedLongSequence sequence = CompressedLongSequence.of(values);
+        assertFalse(sequence.supportsPyramid());
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "c", sequence));
+        assertEquals(values[values.length - 1], timelineManager.getMaxTime());
+
+        double bytesPerEntry = sequence.getCompressedSize() / (double) values.length;
+        assertTrue(bytesPerEntry < 2, "The layer takes " + bytesPerEntry + " bytes per entry.");
+    }
+
+    /**
+     * Test of the searches of class BinarySearcher on a compressed sequence.
+     */
+    @Test
+    public void testBinarySearch() {
+        CompressedLongSequence sequence = CompressedLongSequence.of(BinarySearcherTest.SAME_VALUES_ARRAY);
+
+        assertEquals(0, BinarySearcher.firstGreaterThanOrEqual(sequence, 2L));
+        assertEquals(5, BinarySearcher.firstGreaterThanOrEqual(sequence, 3L));
+        assertEquals(sequence.size() - 1, BinarySearcher.firstGreaterThanOrEqual(sequence, 10000L));
+        assertEquals(10, BinarySearcher.lastLessThanOrEqual(sequence, 3L));
+        assertEquals(-1, BinarySearcher.lastLessThanOrEqual(sequence, -5L));
+        assertEquals(11, BinarySearcher.indexOfClosest(sequence, 4L));
+        assertEquals(13, BinarySearcher.indexOfClosest(sequence, 6L));
+        assertEquals(0, BinarySearcher.indexOfClosest(sequence, -10000L));
+
+        assertEquals(-1, BinarySearcher.indexOfClosest(CompressedLongSequence.of(BinarySearcherTest.EMPTY_ARRAY), 4L));
+    }
+
+    /**
+     * Test of the searches spanning more blocks.
+     */
+    @Test
+    public void testSearchAcrossBlocks() {
+        long[] values = new long[10 * CompressedLongSequence.BLOCK_SIZE];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i / 3;
+        }
+
+        CompressedLongSequence sequence = CompressedLongSequence.of(values);
+        for (long value = -1; value <= values[values.length - 1] + 1; value++) {
+            assertEquals(BinarySearcher.firstGreaterThanOrEqual(values, value), BinarySearcher.firstGreaterThanOrEqual(sequence, value));
+            assertEquals(BinarySearcher.lastLessThanOrEqual(values, value), BinarySearcher.lastLessThanOrEqual(sequence, value));
+            assertEquals(BinarySearcher.indexOfClosest(values, value), BinarySearcher.indexOfClosest(sequence, value));
+        }
+        assertEquals(400, BinarySearcher.lowerBound(sequence, 100L, 400, 900));
+        assertEquals(900, BinarySearcher.lowerBound(sequence, 1000L, 400, 900));
+    }
+
+    @Test
+    public void testUnsortedValuesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CompressedLongSequence.of(new long[]{1L, 3L, 2L}));
+    }
+}
@@ -0,0 +1,93 @@
+package jtimeselector;
+
+import java.awt.image.BufferedImage;
+
+import com.vorono4ka.LongList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DensityLayerTest {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 60;
+
+    /**
+     * Test of addDensityLayer method, of class TimelineRenderer.
+     */
+    @Test
+    public void testDenserColumnsAreDarker() {
+        // a thousand entries in the first tenth of the timeline, then only a few sparse entries
+        long[] timeValues = new long[1005];
+        for (int i = 0; i < 1000; i++) {
+            timeValues[i] = i;
+        }
+        for (int i = 0; i < 5; i++) {
+            timeValues[1000 + i] = 6000 + i * 1000L;
+        }
+
+        TimelineRenderer renderer = new TimelineRenderer();
+        renderer.addDensityLayer("d", new LongList(timeValues));
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        renderer.render(image);
+
+        int denseX = findDarkestColumn(image, 0, WIDTH / 2);
+        int sparseX = findDarkestColumn(image, WIDTH / 2, WIDTH);
+        assertTrue(getDarkness(image, denseX) > getDarkness(image, sparseX));
+        assertTrue(getDarkness(image, sparseX) > 0);
+
+        // the columns between the sparse entries are not drawn at all
+        int emptyColumns = 0;
+        for (int x = WIDTH / 2; x < WIDTH; x++) {
+            if (getDarkness(image, x) == 0) {
+                emptyColumns++;
+            }
+        }
+        assertTrue(emptyColumns > WIDTH / 4);
+    }
+
+    /**
+     * Test of addDensityLayer method, of class TimelineRenderer, with entries far apart from each other.
+     */
+    @Test
+    public void testSeparateEntriesAreSeparateBands() {
+        TimelineRenderer renderer = new TimelineRenderer();
+        renderer.addDensityLayer("d", new LongList(new long[]{-5L, 10L, 20L}));
+
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        renderer.render(image);
+        assertEquals(3, ImageProbes.countRuns(image, DensityLayerTest::isHeatMap));
+    }
+
+    private static int findDarkestColumn(BufferedImage image, int fromX, int toX) {
+        int darkestX = fromX;
+        for (int x = fromX; x < toX; x++) {
+            if (getDarkness(image, x) > getDarkness(image, darkestX)) {
+                darkestX = x;
+            }
+        }
+        return darkestX;
+    }
+
+    /**
+     * @return darkness of the darkest pixel of the heat map in the column, zero if the column has no entry
+     */
+    private static int getDarkness(BufferedImage image, int x) {
+        int darkness = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            int rgb = image.getRGB(x, y);
+            if (isHeatMap(rgb)) {
+                darkness = Math.max(darkness, 3 * 0xFF - ((rgb >> 16) & 0xFF) - ((rgb >> 8) & 0xFF) - (rgb & 0xFF));
+            }
+        }
+        return darkness;
+    }
+
+    /**
+     * Even the lightest colours of the heat map are bluish, unlike the gray separators and labels,
+     * but they are too light for {@link ImageProbes#isEntry(int)}.
+     */
+    private static boolean isHeatMap(int rgb) {
+        return (rgb & 0xFF) > ((rgb >> 16) & 0xFF);
+    }
+}
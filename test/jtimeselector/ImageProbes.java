@@ -0,0 +1,100 @@
+package jtimeselector;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.function.IntPredicate;
+
+/**
+ * Finds the entries drawn by the layers in the pixels of rendered images and compares the images.
+ */
+final class ImageProbes {
+    private ImageProbes() {
+    }
+
+    /**
+     * The entries of the layers are bluish, the separators and the labels are gray.
+     *
+     * @param rgb colour of a pixel
+     * @return true if the pixel belongs to a drawn entry
+     */
+    static boolean isEntry(int rgb) {
+        return (rgb & 0xFF) - ((rgb >> 16) & 0xFF) > 40;
+    }
+
+    /**
+     * @param rgb colour of a pixel
+     * @return true if the pixel belongs to the background of a marker of a time entry layer
+     */
+    static boolean isMarker(int rgb) {
+        return (rgb & 0xFFFFFF) == (Color.darkGray.getRGB() & 0xFFFFFF);
+    }
+
+    /**
+     * @param image image to search
+     * @param x     x coordinate of the column
+     * @param pixel whether a colour is searched for
+     * @return true if any pixel of the column has the searched colour
+     */
+    static boolean columnHas(BufferedImage image, int x, IntPredicate pixel) {
+        for (int y = 0; y < image.getHeight(); y++) {
+            if (pixel.test(image.getRGB(x, y))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param image image to search
+     * @param pixel whether a colour is searched for
+     * @return count of the separate runs of the columns which have a pixel of the searched colour
+     */
+    static int countRuns(BufferedImage image, IntPredicate pixel) {
+        int runs = 0;
+        boolean inRun = false;
+        for (int x = 0; x < image.getWidth(); x++) {
+            boolean drawn = columnHas(image, x, pixel);
+            if (drawn && !inRun) {
+                runs++;
+            }
+            inRun = drawn;
+        }
+        return runs;
+    }
+
+    /**
+     * @param expected image with the expected pixels
+     * @param image    image to compare
+     * @return true if the images have the same size and all their pixels are equal
+     */
+    static boolean isSameImage(BufferedImage expected, BufferedImage image) {
+        if (expected.getWidth() != image.getWidth() || expected.getHeight() != image.getHeight()) {
+            return false;
+        }
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                if (expected.getRGB(x, y) != image.getRGB(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param expected image with the expected pixels
+     * @param image    image of the same size to compare
+     * @return the largest difference of a colour component of two pixels at the same coordinates
+     */
+    static int maxDifference(BufferedImage expected, BufferedImage image) {
+        int result = 0;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int expectedRgb = expected.getRGB(x, y);
+                int rgb = image.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    result = Math.max(result, Math.abs(((expectedRgb >> shift) & 0xFF) - ((rgb >> shift) & 0xFF)));
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+package jtimeselector;
+
+import jtimeselector.layers.LayerRows;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LayerRowsTest {
+    /**
+     * Test of getRowAt method, of class LayerRows.
+     */
+    @Test
+    public void testGetRowAt() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        for (int i = 0; i < 3; i++) {
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "layer" + i, new long[]{i}));
+        }
+        timelineManager.setLayerHeight("layer1", 50);
+
+        LayerRows rows = timelineManager.getRows();
+        assertEquals(TimelineManager.TOP_PADDING + 110, rows.getBottom());
+        assertEquals(TimelineManager.TOP_PADDING + 80, rows.getTop(2));
+        assertEquals(50, rows.getHeight(1));
+
+        assertEquals(-1, rows.getRowAt(TimelineManager.TOP_PADDING - 1));
+        assertEquals(0, rows.getRowAt(TimelineManager.TOP_PADDING));
+        assertEquals(0, rows.getRowAt(TimelineManager.TOP_PADDING + 29));
+        assertEquals(1, rows.getRowAt(TimelineManager.TOP_PADDING + 30));
+        assertEquals(1, rows.getRowAt(TimelineManager.TOP_PADDING + 79));
+        assertEquals(2, rows.getRowAt(TimelineManager.TOP_PADDING + 80));
+        assertEquals(3, rows.getRowAt(TimelineManager.TOP_PADDING + 110));
+    }
+
+    /**
+     * Test of indexOf method, of class LayerRows.
+     */
+    @Test
+    public void testIndexOf() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        for (int i = 0; i < 3; i++) {
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "layer" + i, new long[]{i}));
+        }
+        assertEquals(2, timelineManager.getRows().indexOf("layer2"));
+        assertEquals(-1, timelineManager.getRows().indexOf("missing"));
+
+        timelineManager.removeLayer("layer0");
+        assertEquals(1, timelineManager.getRows().indexOf("layer2"));
+        assertEquals(-1, timelineManager.getRows().indexOf("layer0"));
+    }
+}
@@ -0,0 +1,95 @@
+package jtimeselector;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LayerSelectionTest {
+    private static final long[] VALUES = {1000L, 2000L, 2000L, 2000L, 3000L, 9000L};
+
+    /**
+     * Test of getSelectedEntries method, of class TimelineManager, without a selection.
+     */
+    @Test
+    public void testNothingSelected() {
+        TimelineManager timelineManager = createTimelineManager();
+        assertTrue(timelineManager.getSelectedEntries().isEmpty());
+
+        timelineManager.setSelection(5000L, 0);
+        assertTrue(timelineManager.getSelectedEntries().isEmpty());
+    }
+
+    /**
+     * Test of getSelectedEntries method, of class TimelineManager, with a time selected at duplicate time values.
+     */
+    @Test
+    public void testTimeSelectionIncludesDuplicates() {
+        TimelineManager timelineManager = createTimelineManager();
+        timelineManager.setSelection(2040L, 1);
+
+        List<LayerSelection> selection = timelineManager.getSelectedEntries();
+        assertEquals(1, selection.size());
+        assertEquals("b", selection.get(0).getLayerName());
+        assertEquals(1, selection.get(0).getLayerIndex());
+        assertEquals(2000L, selection.get(0).getFromTime());
+        assertEquals(1, selection.get(0).getFirstIndex());
+        assertEquals(3, selection.get(0).getLastIndex());
+        assertEquals(3, selection.get(0).getCount());
+    }
+
+    /**
+     * Test of getSelectedEntries method, of class TimelineManager, with an interval selection.
+     */
+    @Test
+    public void testIntervalSelectionIncludesBounds() {
+        TimelineManager timelineManager = createTimelineManager();
+        // both rows, the bounds snap to the time values
+        timelineManager.setSelection(1990L, 3010L, TimelineManager.TOP_PADDING, TimelineManager.TOP_PADDING + TimeEntryLayer.HEIGHT + 1);
+
+        List<LayerSelection> selection = timelineManager.getSelectedEntries();
+        assertEquals(2, selection.size());
+        for (LayerSelection layerSelection : selection) {
+            assertEquals(2000L, layerSelection.getFromTime());
+            assertEquals(3000L, layerSelection.getToTime());
+            assertEquals(1, layerSelection.getFirstIndex());
+            assertEquals(4, layerSelection.getLastIndex());
+        }
+    }
+
+    /**
+     * Test of getSelectedEntries method, of class TimelineManager, with an interval selection containing no entry.
+     */
+    @Test
+    public void testIntervalSelectionWithoutEntries() {
+        TimelineManager timelineManager = createTimelineManager();
+        timelineManager.setSelection(4000L, 8000L, TimelineManager.TOP_PADDING, TimelineManager.TOP_PADDING);
+
+        List<LayerSelection> selection = timelineManager.getSelectedEntries();
+        assertEquals(1, selection.size());
+        assertTrue(selection.get(0).isEmpty());
+        assertEquals(0, selection.get(0).getCount());
+        assertEquals(5, selection.get(0).getFirstIndex());
+        assertEquals(4, selection.get(0).getLastIndex());
+    }
+
+    private static TimelineManager createTimelineManager() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "a", VALUES));
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "b", VALUES));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+
+        // the interval selection finds the selected layers by the layout of the frame
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        timelineManager.createFrameLayout(graphics, 400, 200);
+        graphics.dispose();
+        return timelineManager;
+    }
+}
@@ -0,0 +1,133 @@
+package jtimeselector;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import jtimeselector.layers.Layer;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LayerUpdateTest {
+    /**
+     * Test of updateLayers method, of class TimelineManager.
+     */
+    @Test
+    public void testUpdateLayers() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        for (String name : new String[]{"a", "b", "c", "d"}) {
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, name, new long[]{1L}));
+        }
+
+        Layer replacement = new TimeEntryLayer(timelineManager, visibleAreaManager, "c", new long[]{5L, 50L});
+        timelineManager.updateLayers(false, List.of("b", "x"), List.of(
+            replacement,
+            new TimeEntryLayer(timelineManager, visibleAreaManager, "e", new long[]{2L})
+        ));
+
+        List<Layer> layers = timelineManager.getRows().getLayers();
+        assertEquals(List.of("a", "c", "d", "e"), layers.stream().map(Layer::getName).toList());
+        assertTrue(layers.get(1) == replacement);
+        assertFalse(timelineManager.hasLayer("b"));
+        assertEquals(50L, timelineManager.getMaxTime());
+        assertEquals(50L, timelineManager.getClosestTime(40L, 0, 3));
+
+        timelineManager.updateLayers(true, List.of(), List.of(new TimeEntryLayer(timelineManager, visibleAreaManager, "f", new long[]{3L})));
+        assertEquals(1, timelineManager.getLayerCount());
+        assertTrue(timelineManager.hasLayer("f"));
+        assertFalse(timelineManager.hasLayer("a"));
+    }
+
+    /**
+     * Test of addLayer method, of class TimelineManager, with a name which is already used.
+     */
+    @Test
+    public void testDuplicateNameIsRejected() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "a", new long[]{1L}));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "a", new long[]{2L})));
+        assertEquals(1, timelineManager.getLayerCount());
+    }
+
+    /**
+     * Test of checkSelectionBounds method, of class TimelineManager, after the selected layers have been removed.
+     */
+    @Test
+    public void testSelectionOfRemovedLayers() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        for (String name : new String[]{"a", "b", "c"}) {
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, name, new long[]{1L, 100L}));
+        }
+
+        timelineManager.setSelection(100L, 2);
+        assertTrue(timelineManager.checkSelectionBounds());
+        timelineManager.updateLayers(false, List.of("c"), List.of());
+        assertFalse(timelineManager.checkSelectionBounds());
+        assertFalse(timelineManager.hasSelection());
+    }
+
+    /**
+     * Test of removeLayer and updateLayers methods, of class TimelineManager, with a layer above the selected layer.
+     */
+    @Test
+    public void testSelectionFollowsLayerAfterRemovalAbove() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        for (String name : new String[]{"a", "b", "c", "d"}) {
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, name, new long[]{1L, 100L}));
+        }
+
+        timelineManager.setSelection(100L, 3);
+        timelineManager.removeLayer("a");
+        assertTrue(timelineManager.checkSelectionBounds());
+        assertEquals("d", timelineManager.getSelectedEntries().get(0).getLayerName());
+
+        timelineManager.updateLayers(false, List.of("b", "c"), List.of());
+        assertTrue(timelineManager.checkSelectionBounds());
+        assertEquals(0, timelineManager.getSelectedEntries().get(0).getLayerIndex());
+        assertEquals("d", timelineManager.getSelectedEntries().get(0).getLayerName());
+    }
+
+    /**
+     * Test of updateLayers method, of class TimelineManager, with removed layers around an interval selection.
+     */
+    @Test
+    public void testIntervalSelectionFollowsLayersAfterRemoval() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        for (String name : new String[]{"a", "b", "c", "d"}) {
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, name, new long[]{1L, 100L}));
+        }
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        // the interval selection finds the selected layers by the layout of the frame
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        timelineManager.createFrameLayout(graphics, 400, 200);
+        graphics.dispose();
+
+        // layers b and c
+        int top = TimelineManager.TOP_PADDING + TimeEntryLayer.HEIGHT;
+        timelineManager.setSelection(1L, 100L, top, top + TimeEntryLayer.HEIGHT + 1);
+        timelineManager.updateLayers(false, List.of("a"), List.of());
+        assertTrue(timelineManager.checkSelectionBounds());
+        assertEquals(List.of("b", "c"), timelineManager.getSelectedEntries().stream().map(LayerSelection::getLayerName).toList());
+
+        timelineManager.updateLayers(false, List.of("b"), List.of());
+        assertFalse(timelineManager.checkSelectionBounds());
+        assertEquals(List.of("c"), timelineManager.getSelectedEntries().stream().map(LayerSelection::getLayerName).toList());
+
+        timelineManager.updateLayers(false, List.of("c"), List.of());
+        assertFalse(timelineManager.checkSelectionBounds());
+        assertFalse(timelineManager.hasSelection());
+    }
+}
@@ -0,0 +1,78 @@
+package jtimeselector;
+
+import com.vorono4ka.BinarySearcher;
+import com.vorono4ka.LongRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LongRingBufferTest {
+    /**
+     * Test of removeFirst method, of class LongRingBuffer.
+     */
+    @Test
+    public void testRemoveFirstKeepsCapacity() {
+        LongRingBuffer buffer = new LongRingBuffer(4);
+        for (long value = 0; value < 100; value++) {
+            if (buffer.size() == 4) {
+                buffer.removeFirst(1);
+            }
+            buffer.add(value);
+        }
+
+        assertEquals(4, buffer.capacity());
+        assertArrayEquals(new long[]{96L, 97L, 98L, 99L}, buffer.toArray());
+    }
+
+    /**
+     * Test of ensureCapacity method, of class LongRingBuffer.
+     */
+    @Test
+    public void testGrowingWrappedBuffer() {
+        LongRingBuffer buffer = new LongRingBuffer(4);
+        buffer.addAll(new long[]{1L, 2L, 3L, 4L});
+        buffer.removeFirst(2);
+        buffer.addAll(new long[]{5L, 6L, 7L});
+
+        assertArrayEquals(new long[]{3L, 4L, 5L, 6L, 7L}, buffer.toArray());
+        assertEquals(3L, buffer.get(0));
+        assertEquals(7L, buffer.get(4));
+    }
+
+    /**
+     * Test of the searches of class BinarySearcher on a wrapped buffer.
+     */
+    @Test
+    public void testBinarySearchOnWrappedBuffer() {
+        long[] values = BinarySearcherTest.SAME_VALUES_ARRAY;
+        LongRingBuffer buffer = new LongRingBuffer(values.length);
+        // more values than the capacity are evicted, so the searched values wrap around the end of the array
+        for (int i = 0; i < values.length + 5; i++) {
+            addEvictingFirst(buffer, Long.MIN_VALUE);
+        }
+        for (long value : values) {
+            addEvictingFirst(buffer, value);
+        }
+
+        assertEquals(values.length, buffer.capacity());
+        assertEquals(5, buffer.getHead());
+        assertArrayEquals(values, buffer.toArray());
+
+        assertEquals(5, BinarySearcher.firstGreaterThanOrEqual(buffer, 3L));
+        assertEquals(buffer.size() - 1, BinarySearcher.firstGreaterThanOrEqual(buffer, 10000L));
+        assertEquals(10, BinarySearcher.lastLessThanOrEqual(buffer, 3L));
+        assertEquals(-1, BinarySearcher.lastLessThanOrEqual(buffer, -5L));
+        assertEquals(11, BinarySearcher.indexOfClosest(buffer, 4L));
+        assertEquals(11, BinarySearcher.indexOfClosest(buffer, 5L));
+        assertEquals(13, BinarySearcher.indexOfClosest(buffer, 10000L));
+        assertEquals(0, BinarySearcher.indexOfClosest(buffer, -10000L));
+    }
+
+    private static void addEvictingFirst(LongRingBuffer buffer, long value) {
+        if (buffer.size() == buffer.capacity()) {
+            buffer.removeFirst(1);
+        }
+        buffer.add(value);
+    }
+}
@@ -0,0 +1,106 @@
+package jtimeselector;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.vorono4ka.BinarySearcher;
+import com.vorono4ka.MappedLongSequence;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MappedLongSequenceTest {
+    /**
+     * Test of get and size methods, of class MappedLongSequence.
+     */
+    @Test
+    public void testReadsWrittenValues() throws IOException {
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Long.MIN_VALUE / 2 + 37L * i;
+        }
+
+        MappedLongSequence sequence = MappedLongSequence.open(writeValues(values));
+        assertEquals(values.length, sequence.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], sequence.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.get(values.length));
+        assertFalse(sequence.supportsPyramid());
+    }
+
+    /**
+     * Test of open method, of class MappedLongSequence, with the little-endian byte order.
+     */
+    @Test
+    public void testLittleEndianFile() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(1L).putLong(0x0102030405060708L);
+        Path file = createTempFile();
+        Files.write(file, buffer.array());
+
+        MappedLongSequence sequence = MappedLongSequence.open(file, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(2, sequence.size());
+        assertEquals(1L, sequence.get(0));
+        assertEquals(0x0102030405060708L, sequence.get(1));
+    }
+
+    /**
+     * Test of open method, of class MappedLongSequence, with an empty file and a file with a partial value.
+     */
+    @Test
+    public void testEmptyAndTruncatedFiles() throws IOException {
+        MappedLongSequence empty = MappedLongSequence.open(writeValues(new long[0]));
+        assertEquals(0, empty.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.get(0));
+        assertEquals(-1, BinarySearcher.indexOfClosest(empty, 4L));
+
+        Path truncated = createTempFile();
+        Files.write(truncated, new byte[Long.BYTES + 3]);
+        assertThrows(IllegalArgumentException.class, () -> MappedLongSequence.open(truncated));
+    }
+
+    /**
+     * Test of the searches of class BinarySearcher on a mapped sequence.
+     */
+    @Test
+    public void testBinarySearch() throws IOException {
+        MappedLongSequence sequence = MappedLongSequence.open(writeValues(BinarySearcherTest.SAME_VALUES_ARRAY));
+
+        assertEquals(0, BinarySearcher.firstGreaterThanOrEqual(sequence, 2L));
+        assertEquals(5, BinarySearcher.firstGreaterThanOrEqual(sequence, 3L));
+        assertEquals(sequence.size() - 1, BinarySearcher.firstGreaterThanOrEqual(sequence, 10000L));
+        assertEquals(10, BinarySearcher.lastLessThanOrEqual(sequence, 3L));
+        assertEquals(-1, BinarySearcher.lastLessThanOrEqual(sequence, -5L));
+        assertEquals(11, BinarySearcher.indexOfClosest(sequence, 4L));
+        assertEquals(13, BinarySearcher.indexOfClosest(sequence, 6L));
+        assertEquals(5, BinarySearcher.lowerBound(sequence, 3L, 2, 12));
+        assertEquals(11, BinarySearcher.upperBound(sequence, 3L, 2, 12));
+    }
+
+    private static Path writeValues(long[] values) throws IOException {
+        Path file = createTempFile();
+        try (OutputStream output = Files.newOutputStream(file);
+             DataOutputStream dataOutput = new DataOutputStream(output)) {
+            for (long value : values) {
+                dataOutput.writeLong(value);
+            }
+        }
+        return file;
+    }
+
+    private static Path createTempFile() throws IOException {
+        Path file = Files.createTempFile("jtimeselector", ".bin");
+        // a mapped file cannot be deleted on some systems until the mapping is collected
+        file.toFile().deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,193 @@
+package jtimeselector;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import jtimeselector.layers.NearestTimeIndex;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NearestTimeIndexTest {
+    private static final long EPOCH_NANOS = 1_700_000_000_000_000_000L;
+
+    /**
+     * Test of getClosestTime method, of class NearestTimeIndex.
+     */
+    @Test
+    public void testGetClosestTime() {
+        TimelineManager timelineManager = createTimelineManager(
+            new long[]{2L, 10L, 20L},
+            new long[0],
+            new long[]{5L, 15L},
+            new long[]{-7L, 30L}
+        );
+
+        assertEquals(2L, timelineManager.getClosestTime(0L, 0, 3));
+        assertEquals(-7L, timelineManager.getClosestTime(-3L, 0, 3));
+        assertEquals(5L, timelineManager.getClosestTime(6L, 0, 3));
+        assertEquals(10L, timelineManager.getClosestTime(7L, 0, 1));
+        assertEquals(15L, timelineManager.getClosestTime(15L, 2, 3));
+        assertEquals(30L, timelineManager.getClosestTime(100L, 0, 3));
+        assertEquals(15L, timelineManager.getClosestTime(17L, 0, 2));
+        // equally close entries, the lesser one is returned
+        assertEquals(10L, timelineManager.getClosestTime(15L, 0, 1));
+        assertEquals(NearestTimeIndex.NO_TIME, timelineManager.getClosestTime(3L, 1));
+    }
+
+    /**
+     * Test of getClosestTime method, of class NearestTimeIndex, with time values close to the limits of long.
+     */
+    @Test
+    public void testGetClosestTimeOfLargeValues() {
+        TimelineManager timelineManager = createTimelineManager(
+            new long[]{EPOCH_NANOS, EPOCH_NANOS + 1000},
+            new long[]{EPOCH_NANOS + 501, Long.MAX_VALUE}
+        );
+
+        assertEquals(EPOCH_NANOS + 1000, timelineManager.getClosestTime(EPOCH_NANOS + 999, 0, 1));
+        assertEquals(EPOCH_NANOS + 501, timelineManager.getClosestTime(EPOCH_NANOS + 500, 0, 1));
+        assertEquals(EPOCH_NANOS, timelineManager.getClosestTime(Long.MIN_VALUE + 1, 0, 1));
+        assertEquals(Long.MAX_VALUE, timelineManager.getClosestTime(Long.MAX_VALUE - 1, 1));
+    }
+
+    /**
+     * Test of getClosestTime method, of class NearestTimeIndex, compared with a search through all the entries.
+     */
+    @Test
+    public void testGetClosestTimeOfRandomLayers() {
+        Random random = new Random(42);
+        long[][] layers = new long[13][];
+        for (int i = 0; i < layers.length; i++) {
+            layers[i] = random.longs(random.nextInt(50), 0, 1000).sorted().toArray();
+        }
+
+        TimelineManager timelineManager = createTimelineManager(layers);
+        for (int budget : new int[]{0, 1024, Integer.MAX_VALUE}) {
+            timelineManager.getNearestTimeIndex().setMemoryBudget(budget);
+            for (int query = 0; query < 1000; query++) {
+                int fromLayer = random.nextInt(layers.length);
+                int toLayer = fromLayer + random.nextInt(layers.length - fromLayer);
+                long time = random.nextInt(1200) - 100;
+
+                assertEquals(findClosestTime(layers, time, fromLayer, toLayer), timelineManager.getClosestTime(time, fromLayer, toLayer));
+            }
+        }
+    }
+
+    /**
+     * Test of append method, of class NearestTimeIndex.
+     */
+    @Test
+    public void testAppendedValuesAreFound() {
+        TimelineManager timelineManager = createTimelineManager(new long[]{1L, 2L}, new long[]{3L});
+        assertEquals(3L, timelineManager.getClosestTime(10L, 0, 1));
+
+        timelineManager.appendTimeValues("layer0", new long[]{9L});
+        assertEquals(9L, timelineManager.getClosestTime(10L, 0, 1));
+
+        timelineManager.removeLayer("layer0");
+        assertEquals(3L, timelineManager.getClosestTime(10L, 0, 1));
+    }
+
+    /**
+     * Test of append method, of class NearestTimeIndex.
+     */
+    @Test
+    public void testAppendedValuesAreFoundAfterLayerAboveIsRemoved() {
+        TimelineManager timelineManager = createTimelineManager(new long[]{1L}, new long[]{2L}, new long[]{3L});
+        timelineManager.removeLayer("layer0");
+        assertEquals(3L, timelineManager.getClosestTime(10L, 1, 1));
+
+        timelineManager.appendTimeValues("layer2", new long[]{9L});
+        assertEquals(9L, timelineManager.getClosestTime(10L, 1, 1));
+        assertEquals(2L, timelineManager.getClosestTime(10L, 0, 0));
+    }
+
+    /**
+     * Test of append method, of class NearestTimeIndex.
+     */
+    @Test
+    public void testAppendKeepsMergedValues() {
+        TimelineManager timelineManager = createTimelineManager(new long[]{1L, 2L}, new long[]{3L, 20L});
+        assertEquals(3L, timelineManager.getClosestTime(4L, 0, 1));
+        long usedMemory = timelineManager.getNearestTimeIndex().getUsedMemory();
+        assertTrue(usedMemory > 0);
+
+        timelineManager.appendTimeValues("layer0", new long[]{5L, 30L});
+        assertTrue(timelineManager.getNearestTimeIndex().getUsedMemory() >= usedMemory);
+        assertEquals(5L, timelineManager.getClosestTime(6L, 0, 1));
+        assertEquals(20L, timelineManager.getClosestTime(19L, 0, 1));
+        assertEquals(30L, timelineManager.getClosestTime(100L, 0, 1));
+    }
+
+    /**
+     * Test of append method, of class NearestTimeIndex, compared with a search through all the entries.
+     */
+    @Test
+    public void testAppendToRandomLayers() {
+        Random random = new Random(7);
+        long[][] layers = new long[13][];
+        for (int i = 0; i < layers.length; i++) {
+            layers[i] = random.longs(random.nextInt(20), 0, 500).sorted().toArray();
+        }
+
+        TimelineManager timelineManager = createTimelineManager(layers);
+        for (int step = 0; step < 200; step++) {
+            int layerIndex = random.nextInt(layers.length);
+            long[] values = layers[layerIndex];
+            long last = values.length == 0 ? 0 : values[values.length - 1];
+            // the chunks interleave with the values of the other layers and repeat the last value
+            long[] chunk = random.longs(1 + random.nextInt(5), last, last + 100).sorted().toArray();
+            timelineManager.appendTimeValues("layer" + layerIndex, chunk);
+            layers[layerIndex] = LongStream.concat(LongStream.of(values), LongStream.of(chunk)).toArray();
+
+            for (int query = 0; query < 20; query++) {
+                int fromLayer = random.nextInt(layers.length);
+                int toLayer = fromLayer + random.nextInt(layers.length - fromLayer);
+                long time = random.nextInt(3000) - 100;
+
+                assertEquals(findClosestTime(layers, time, fromLayer, toLayer), timelineManager.getClosestTime(time, fromLayer, toLayer));
+            }
+        }
+    }
+
+    /**
+     * Test of appendTimeValues method, of class TimelineManager.
+     */
+    @Test
+    public void testAppendingToMissingLayerKeepsIndex() {
+        TimelineManager timelineManager = createTimelineManager(new long[]{1L}, new long[]{3L});
+        assertEquals(3L, timelineManager.getClosestTime(10L, 0, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> timelineManager.appendTimeValues("missing", new long[]{9L}));
+        assertEquals(3L, timelineManager.getClosestTime(10L, 0, 1));
+    }
+
+    private static TimelineManager createTimelineManager(long[]... layers) {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        for (int i = 0; i < layers.length; i++) {
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "layer" + i, layers[i]));
+        }
+        return timelineManager;
+    }
+
+    private static long findClosestTime(long[][] layers, long time, int fromLayer, int toLayer) {
+        long closest = NearestTimeIndex.NO_TIME;
+        for (int i = fromLayer; i <= toLayer; i++) {
+            for (long value : layers[i]) {
+                long distance = Math.abs(value - time);
+                long closestDistance = Math.abs(closest - time);
+                if (closest == NearestTimeIndex.NO_TIME || distance < closestDistance || (distance == closestDistance && value < closest)) {
+                    closest = value;
+                }
+            }
+        }
+        return closest;
+    }
+}
@@ -0,0 +1,96 @@
+package jtimeselector;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+import jtimeselector.layers.FrameLayout;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RenderingEngineTest {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 120;
+    private static final long MAX_TIME = 100_000;
+
+    /**
+     * Margin of the parent image around the sub-image into which the frame is drawn.
+     */
+    private static final int MARGIN = 16;
+    private static final Color PARENT_COLOR = new Color(0x123456);
+
+    /**
+     * Test of drawLayers method, of class TimelineManager, with the DirectRaster engine.
+     */
+    @Test
+    public void testDirectRasterLooksLikeShapeCalls() {
+        TimelineManager java2D = createTimelineManager(RenderingEngine.Java2D);
+        TimelineManager directRaster = createTimelineManager(RenderingEngine.DirectRaster);
+
+        // the frame shifted to either side is cut by the edges of the sub-image in the middle of the markers
+        for (int shift : new int[]{-100, 0, 40}) {
+            for (int offset : new int[]{0, MARGIN / 2, MARGIN}) {
+                BufferedImage expected = render(java2D, offset, shift);
+                BufferedImage image = render(directRaster, offset, shift);
+                // the stamp blends the background and the point of a marker at once, which rounds their edges differently
+                int difference = ImageProbes.maxDifference(expected, image);
+                assertTrue(difference <= 1, "The frame shifted by " + shift + " in the sub-image at " + offset + " differs by " + difference);
+            }
+        }
+
+        BufferedImage shiftedLeft = render(directRaster, MARGIN, -100).getSubimage(MARGIN, MARGIN, WIDTH, HEIGHT);
+        assertTrue(ImageProbes.columnHas(shiftedLeft, 0, ImageProbes::isMarker));
+        BufferedImage shiftedRight = render(directRaster, MARGIN, 40).getSubimage(MARGIN, MARGIN, WIDTH, HEIGHT);
+        assertTrue(ImageProbes.columnHas(shiftedRight, WIDTH - 1, ImageProbes::isMarker));
+    }
+
+    private static TimelineManager createTimelineManager(RenderingEngine engine) {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.setRenderingEngine(engine);
+        timelineManager.getTileCache().setMemoryBudget(0);
+
+        // separate entries and entries merged into runs
+        Random random = new Random(7);
+        for (int count : new int[]{40, 5000}) {
+            long[] values = new long[count];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (long) (random.nextDouble() * MAX_TIME);
+            }
+            Arrays.sort(values);
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "layer" + count, values));
+        }
+        return timelineManager;
+    }
+
+    /**
+     * @param offset coordinates of the sub-image in the parent image
+     * @param shift  count of pixels by which the frame is moved to the right in the sub-image
+     * @return parent image of the sub-image into which the frame has been drawn
+     */
+    private static BufferedImage render(TimelineManager timelineManager, int offset, int shift) {
+        BufferedImage parent = new BufferedImage(WIDTH + 2 * MARGIN, HEIGHT + 2 * MARGIN, BufferedImage.TYPE_INT_RGB);
+        Graphics2D parentGraphics = parent.createGraphics();
+        parentGraphics.setColor(PARENT_COLOR);
+        parentGraphics.fillRect(0, 0, parent.getWidth(), parent.getHeight());
+        parentGraphics.dispose();
+
+        BufferedImage image = parent.getSubimage(offset, offset, WIDTH, HEIGHT);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setColor(JTimeSelector.BACKGROUND_COLOR);
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        graphics.translate(shift, 0);
+        FrameLayout layout = timelineManager.createFrameLayout(graphics, 0, MAX_TIME, WIDTH, HEIGHT);
+        timelineManager.drawLayers(graphics, layout, image);
+        graphics.dispose();
+        return parent;
+    }
+}
@@ -0,0 +1,81 @@
+package jtimeselector;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepaintSchedulerTest {
+    /**
+     * Inputs received during one frame: moving before and after zooming, and zooming around more points.
+     */
+    private static final Consumer<RepaintScheduler> INPUTS = scheduler -> {
+        scheduler.scroll(2);
+        scheduler.drag(30);
+        scheduler.scroll(-1);
+        scheduler.zoom(-1, 300);
+        scheduler.zoom(-1, 300);
+        scheduler.drag(-20);
+        scheduler.scroll(1);
+        scheduler.zoom(-1, 500);
+        scheduler.drag(10);
+    };
+
+    /**
+     * Test of applyFrame method, of class RepaintScheduler.
+     */
+    @Test
+    public void testFrameAppliesInputsInTheirOrder() throws Exception {
+        VisibleAreaManager coalesced = new VisibleAreaManager();
+        VisibleAreaManager stepByStep = new VisibleAreaManager();
+        long[] frameBounds = new long[2];
+        long[] initialBounds = new long[2];
+        SwingUtilities.invokeAndWait(() -> {
+            RepaintScheduler scheduler = createScheduler(coalesced);
+            initialBounds[0] = coalesced.getCurrentMinTime();
+            initialBounds[1] = coalesced.getCurrentMaxTime();
+
+            // the timer cannot fire before this task on the Event Dispatch Thread ends
+            INPUTS.accept(scheduler);
+            scheduler.applyFrame();
+            frameBounds[0] = coalesced.getCurrentMinTime();
+            frameBounds[1] = coalesced.getCurrentMaxTime();
+
+            // nothing is left for the next frame
+            scheduler.applyFrame();
+
+            RepaintScheduler unlimitedScheduler = createScheduler(stepByStep);
+            unlimitedScheduler.setTargetFrameRate(0);
+            INPUTS.accept(unlimitedScheduler);
+        });
+
+        assertTrue(frameBounds[1] - frameBounds[0] < initialBounds[1] - initialBounds[0]);
+        assertEquals(stepByStep.getCurrentMinTime(), frameBounds[0]);
+        assertEquals(stepByStep.getCurrentMaxTime(), frameBounds[1]);
+        assertEquals(frameBounds[0], coalesced.getCurrentMinTime());
+        assertEquals(frameBounds[1], coalesced.getCurrentMaxTime());
+    }
+
+    /**
+     * @return scheduler of a timeline zoomed into the middle of its layer, so that no input hits the bounds
+     */
+    private static RepaintScheduler createScheduler(VisibleAreaManager visibleAreaManager) {
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "a", new long[]{0L, 100_000_000L}));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        visibleAreaManager.zoomIn(5, 50_000_000L);
+
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        timelineManager.createFrameLayout(graphics, 800, 100);
+        graphics.dispose();
+        return new RepaintScheduler(new JTimeSelector(), timelineManager, visibleAreaManager);
+    }
+}
@@ -0,0 +1,68 @@
+package jtimeselector;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import jtimeselector.layers.Layer;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SelectionEffectTest {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 200;
+    private static final long SELECTED_TIME = 2000L;
+
+    /**
+     * Test of drawTimeSelectionEffects method, of class TimelineManager, on graphics scaled by a fraction of a pixel.
+     */
+    @Test
+    public void testFractionalScaleLooksLikeShapeCall() {
+        for (double scale : new double[]{1.25, 1.5, 1.75}) {
+            BufferedImage expected = createImage(scale);
+            Graphics2D graphics = createGraphics(expected, scale);
+            TimelineManager timelineManager = createTimelineManager(RenderingEngine.Java2D);
+            graphics.setColor(TimeSelectionManager.SELECTION_COLOR);
+            graphics.fillOval(timelineManager.getLegendWidth() + timelineManager.getXForTime(SELECTED_TIME) - Layer.POINT_RADIUS,
+                TimelineManager.TOP_PADDING + TimeEntryLayer.HEIGHT / 2 - Layer.POINT_RADIUS,
+                2 * Layer.POINT_RADIUS, 2 * Layer.POINT_RADIUS);
+            graphics.dispose();
+
+            for (RenderingEngine engine : RenderingEngine.values()) {
+                BufferedImage image = createImage(scale);
+                graphics = createGraphics(image, scale);
+                createTimelineManager(engine).drawTimeSelectionEffects(graphics, SELECTED_TIME, 0);
+                graphics.dispose();
+                assertTrue(ImageProbes.isSameImage(expected, image), engine + " at the scale " + scale);
+            }
+        }
+    }
+
+    private static TimelineManager createTimelineManager(RenderingEngine engine) {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.setRenderingEngine(engine);
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "a", new long[]{1000L, SELECTED_TIME, 3000L}));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        timelineManager.createFrameLayout(graphics, WIDTH, HEIGHT);
+        graphics.dispose();
+        return timelineManager;
+    }
+
+    private static BufferedImage createImage(double scale) {
+        return new BufferedImage((int) Math.ceil(WIDTH * scale), (int) Math.ceil(HEIGHT * scale), BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static Graphics2D createGraphics(BufferedImage image, double scale) {
+        Graphics2D graphics = image.createGraphics();
+        graphics.scale(scale, scale);
+        graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        return graphics;
+    }
+}
@@ -0,0 +1,129 @@
+package jtimeselector;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+import jtimeselector.layers.SpanLayer;
+import jtimeselector.layers.TimelineManager;
+import jtimeselector.metrics.MetricsSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SpanLayerTest {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 60;
+
+    /**
+     * Test of countOverlapping method, of class SpanLayer.
+     */
+    @Test
+    public void testCountOverlapping() {
+        Random random = new Random(7);
+        int count = 5000;
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = random.nextInt(1_000_000);
+        }
+        Arrays.sort(starts);
+        for (int i = 0; i < count; i++) {
+            // mostly short spans and a few very long ones
+            ends[i] = starts[i] + (random.nextInt(100) == 0 ? random.nextInt(500_000) : random.nextInt(200));
+        }
+
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        SpanLayer layer = new SpanLayer(timelineManager, visibleAreaManager, "s", starts, ends);
+        for (int query = 0; query < 200; query++) {
+            long from = random.nextInt(1_100_000);
+            long to = from + random.nextInt(query % 2 == 0 ? 100 : 100_000);
+
+            int expected = 0;
+            for (int i = 0; i < count; i++) {
+                if (starts[i] <= to && ends[i] >= from) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, layer.countOverlapping(from, to));
+        }
+    }
+
+    /**
+     * Test of addSpanLayer method, of class TimelineRenderer, with overlapping and very short spans.
+     */
+    @Test
+    public void testOverlappingSpansAreMerged() {
+        int shortCount = 10_000;
+        long[] starts = new long[3 + shortCount];
+        long[] ends = new long[3 + shortCount];
+        starts[0] = 0;
+        ends[0] = 1000;
+        starts[1] = 2500;
+        ends[1] = 4000;
+        starts[2] = 3000;
+        ends[2] = 5000;
+        // ten spans on every time unit, many of them on every pixel
+        for (int i = 0; i < shortCount; i++) {
+            starts[3 + i] = 7000 + i / 10;
+            ends[3 + i] = starts[3 + i] + i % 3;
+        }
+
+        TimelineRenderer renderer = new TimelineRenderer();
+        renderer.addSpanLayer("s", starts, ends);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        renderer.render(image);
+
+        assertEquals(3, ImageProbes.countRuns(image, ImageProbes::isEntry));
+    }
+
+    /**
+     * Test of drawLayers method, of class TimelineManager, with the merged spans recorded by the metrics.
+     */
+    @Test
+    public void testMergedSpansAreRecorded() {
+        long[] starts = {0L, 2500L, 3000L, 7000L, 7000L, 7001L};
+        long[] ends = {1000L, 4000L, 5000L, 7000L, 7001L, 7002L};
+
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.getTileCache().setMemoryBudget(0);
+        timelineManager.getMetrics().setEnabled(true);
+        timelineManager.addLayer(new SpanLayer(timelineManager, visibleAreaManager, "s", starts, ends));
+
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        timelineManager.drawLayers(graphics, timelineManager.createFrameLayout(graphics, 0L, 7002L, WIDTH, HEIGHT), image);
+        graphics.dispose();
+
+        MetricsSnapshot snapshot = timelineManager.getMetrics().snapshot();
+        assertEquals(3L, snapshot.getEntriesDrawnPerLayer().get("s"));
+        assertEquals(3, snapshot.getEntriesSkipped());
+    }
+
+    /**
+     * Test of getMaxTime method, of class TimelineManager, with a span which ends after the spans starting later.
+     */
+    @Test
+    public void testTimelineEndsAtGreatestEnd() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.addLayer(new SpanLayer(timelineManager, visibleAreaManager, "s", new long[]{5L, 10L}, new long[]{1000L, 20L}));
+
+        assertEquals(5L, timelineManager.getMinTime());
+        assertEquals(1000L, timelineManager.getMaxTime());
+    }
+
+    /**
+     * Test of addSpanLayer method, of class TimelineRenderer, with a span ending before it starts.
+     */
+    @Test
+    public void testInvalidSpansAreRejected() {
+        TimelineRenderer renderer = new TimelineRenderer();
+        assertThrows(IllegalArgumentException.class, () -> renderer.addSpanLayer("s", new long[]{5L}, new long[]{4L}));
+        assertThrows(IllegalArgumentException.class, () -> renderer.addSpanLayer("s", new long[]{5L, 1L}, new long[]{6L, 2L}));
+    }
+}
@@ -0,0 +1,158 @@
+package jtimeselector;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import jtimeselector.layers.LayerRows;
+import jtimeselector.layers.StateLayer;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StateLayerTest {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 60;
+
+    /**
+     * Test of getStateAt method, of class StateLayer.
+     */
+    @Test
+    public void testSamplesAreRunLengthEncoded() {
+        // ten runs of ten thousand samples each
+        int count = 100_000;
+        long[] sampleTimes = new long[count];
+        int[] states = new int[count];
+        for (int i = 0; i < count; i++) {
+            sampleTimes[i] = 100 + 2L * i;
+            states[i] = (i / 10_000) % 3;
+        }
+
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        StateLayer layer = new StateLayer(timelineManager, visibleAreaManager, "s", sampleTimes, states, new String[]{"disarmed", "armed"});
+        timelineManager.addLayer(layer);
+
+        assertEquals(10, layer.getChangeCount());
+        assertEquals(-1, layer.getStateAt(99));
+        assertEquals(0, layer.getStateAt(100));
+        assertEquals(0, layer.getStateAt(100 + 2 * 10_000 - 1));
+        assertEquals(1, layer.getStateAt(100 + 2 * 10_000));
+        assertEquals(0, layer.getStateAt(sampleTimes[count - 1]));
+        assertEquals(-1, layer.getStateAt(sampleTimes[count - 1] + 1));
+
+        assertEquals("armed", layer.getStateName(1));
+        assertEquals("2", layer.getStateName(2));
+
+        assertEquals(100L, timelineManager.getMinTime());
+        assertEquals(sampleTimes[count - 1], timelineManager.getMaxTime());
+    }
+
+    /**
+     * Test of addStateLayer method, of class TimelineRenderer.
+     */
+    @Test
+    public void testBandsFollowStates() {
+        long[] sampleTimes = {0, 100, 200, 300, 400};
+        int[] states = {0, 0, 1, 1, 2};
+
+        TimelineRenderer renderer = new TimelineRenderer();
+        renderer.addStateLayer("s", sampleTimes, states, null);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        renderer.render(image);
+
+        int firstX0 = findFirstColumn(image, 0);
+        int firstX1 = findFirstColumn(image, 1);
+        int firstX2 = findFirstColumn(image, 2);
+        assertTrue(firstX0 >= 0);
+        assertEquals(firstX1 - 1, findLastColumn(image, 0));
+        assertEquals(firstX2 - 1, findLastColumn(image, 1));
+        assertTrue(Math.abs((firstX1 - firstX0) - (firstX2 - firstX1)) <= 1);
+        // the state set by the last sample ends with it
+        assertEquals(firstX2, findLastColumn(image, 2));
+    }
+
+    /**
+     * Test of addStateLayer method, of class TimelineRenderer, with invalid samples.
+     */
+    @Test
+    public void testInvalidSamplesAreRejected() {
+        TimelineRenderer renderer = new TimelineRenderer();
+        assertThrows(IllegalArgumentException.class, () -> renderer.addStateLayer("s", new long[]{1L}, new int[]{1, 2}, null));
+        assertThrows(IllegalArgumentException.class, () -> renderer.addStateLayer("s", new long[]{2L, 1L}, new int[]{1, 2}, null));
+        assertThrows(IllegalArgumentException.class, () -> renderer.addStateLayer("s", new long[]{1L}, new int[]{-1}, null));
+    }
+
+    /**
+     * Test of setCursorPosition method, of class TimelineManager, with a layer which shows no readout.
+     */
+    @Test
+    public void testCursorReadoutShowsState() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, Long::toString);
+        timelineManager.getTileCache().setMemoryBudget(0);
+        timelineManager.addLayer(new StateLayer(timelineManager, visibleAreaManager, "s",
+            new long[]{0, 100, 200, 300}, new int[]{0, 1, 1, 2}, new String[]{"stabilize", "loiter", "return"}));
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "e", new long[]{0, 50, 300}));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+
+        BufferedImage withoutCursor = renderWithCursor(timelineManager, -1);
+        BufferedImage withCursor = renderWithCursor(timelineManager, 150);
+        int cursorX = timelineManager.getLegendWidth() + timelineManager.getXForTime(150);
+
+        // right of the cursor line only the state layer has changed, by the name of the state under the cursor,
+        // the time label of the cursor reaches into the bottom of the last layer, so only its upper half is compared
+        LayerRows rows = timelineManager.getRows();
+        assertTrue(countChangedPixels(withoutCursor, withCursor, cursorX + 1, rows.getTop(0), rows.getTop(1)) > 0);
+        assertEquals(0, countChangedPixels(withoutCursor, withCursor, cursorX + 1, rows.getTop(1), rows.getTop(1) + rows.getHeight(1) / 2 + 1));
+    }
+
+    /**
+     * @param cursorTime time of the cursor, negative to draw no cursor
+     */
+    private static BufferedImage renderWithCursor(TimelineManager timelineManager, long cursorTime) {
+        BufferedImage image = new BufferedImage(WIDTH, 2 * HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        timelineManager.clearSelection();
+        if (cursorTime >= 0) {
+            timelineManager.setCursorPosition(cursorTime);
+        }
+        timelineManager.drawLayers(graphics, timelineManager.createFrameLayout(graphics, image.getWidth(), image.getHeight()), image);
+        timelineManager.drawSelectionEffects(graphics);
+        graphics.dispose();
+        return image;
+    }
+
+    private static int countChangedPixels(BufferedImage before, BufferedImage after, int fromX, int fromY, int toY) {
+        int changed = 0;
+        for (int y = fromY; y < toY; y++) {
+            for (int x = fromX; x < before.getWidth(); x++) {
+                if (before.getRGB(x, y) != after.getRGB(x, y)) {
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static int findFirstColumn(BufferedImage image, int state) {
+        for (int x = 0; x < WIDTH; x++) {
+            if (hasState(image, x, state)) return x;
+        }
+        return -1;
+    }
+
+    private static int findLastColumn(BufferedImage image, int state) {
+        for (int x = WIDTH - 1; x >= 0; x--) {
+            if (hasState(image, x, state)) return x;
+        }
+        return -1;
+    }
+
+    private static boolean hasState(BufferedImage image, int x, int state) {
+        return ImageProbes.columnHas(image, x, rgb -> rgb == StateLayer.STATE_COLORS[state].getRGB());
+    }
+}
@@ -0,0 +1,173 @@
+package jtimeselector;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+import jtimeselector.layers.FrameLayout;
+import jtimeselector.layers.Layer;
+import jtimeselector.layers.TileCache;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import jtimeselector.metrics.MetricsSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TileCacheTest {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 120;
+    private static final long TIME_PER_PIXEL = 100;
+
+    /**
+     * Shift of the panned frame, eight tiles, so the tiles of the two frames do not overlap.
+     */
+    private static final long PAN = 8 * TileCache.TILE_WIDTH * TIME_PER_PIXEL;
+
+    /**
+     * Times around the edges of the frames at which no entries lie. The tiles show the parts of the markers
+     * of entries just outside the frame, which are not drawn at all without the cache.
+     */
+    private static final long EDGE_GAP = 2 * Layer.BRG_RECT_WIDTH * TIME_PER_PIXEL;
+
+    /**
+     * Test of drawLayer method, of class TileCache, with a frame moved by the mouse.
+     */
+    @Test
+    public void testPannedFrameReusesTiles() {
+        TimelineManager cached = createTimelineManager(TileCache.DEFAULT_MEMORY_BUDGET);
+        TimelineManager uncached = createTimelineManager(0);
+        long width = getTimelineWidth(cached) * TIME_PER_PIXEL;
+
+        // the frame moved by a half of its width shares the tiles of its left half with the first frame
+        assertSameImage(render(uncached, 0, width), render(cached, 0, width));
+        MetricsSnapshot before = cached.getMetrics().snapshot();
+        assertSameImage(render(uncached, width / 2, width + width / 2), render(cached, width / 2, width + width / 2));
+        MetricsSnapshot after = cached.getMetrics().snapshot();
+        assertTrue(after.getTileCacheHits() > before.getTileCacheHits());
+        assertTrue(after.getTileCacheMisses() > before.getTileCacheMisses());
+
+        // nothing is rendered again when the frame is drawn once more
+        render(cached, width / 2, width + width / 2);
+        assertEquals(after.getTileCacheMisses(), cached.getMetrics().snapshot().getTileCacheMisses());
+    }
+
+    /**
+     * Test of setMemoryBudget method, of class TileCache.
+     */
+    @Test
+    public void testLeastRecentlyUsedTilesAreEvicted() {
+        TimelineManager timelineManager = createTimelineManager(TileCache.DEFAULT_MEMORY_BUDGET);
+        TileCache tileCache = timelineManager.getTileCache();
+        long width = getTimelineWidth(timelineManager) * TIME_PER_PIXEL;
+
+        // the budget is just enough for the tiles of one frame
+        render(timelineManager, 0, width);
+        tileCache.setMemoryBudget(tileCache.getUsedMemory());
+
+        render(timelineManager, PAN, PAN + width);
+        assertTrue(tileCache.getUsedMemory() <= tileCache.getMemoryBudget());
+
+        // the tiles of the last frame are kept, the tiles of the first frame have been evicted
+        long misses = timelineManager.getMetrics().snapshot().getTileCacheMisses();
+        render(timelineManager, PAN, PAN + width);
+        assertEquals(misses, timelineManager.getMetrics().snapshot().getTileCacheMisses());
+
+        long hits = timelineManager.getMetrics().snapshot().getTileCacheHits();
+        render(timelineManager, 0, width);
+        assertEquals(hits, timelineManager.getMetrics().snapshot().getTileCacheHits());
+    }
+
+    /**
+     * Test of invalidate methods, of class TileCache.
+     */
+    @Test
+    public void testChangedLayersAreRenderedAgain() {
+        TimelineManager cached = createTimelineManager(TileCache.DEFAULT_MEMORY_BUDGET);
+        TimelineManager uncached = createTimelineManager(0);
+        long width = getTimelineWidth(cached) * TIME_PER_PIXEL;
+        BufferedImage first = render(cached, PAN, PAN + width);
+
+        // appended into the visible frame, after the last value of the layer
+        long[] chunk = {PAN + width / 2, PAN + width / 2 + 10 * TIME_PER_PIXEL};
+        cached.appendTimeValues("layer0", chunk);
+        uncached.appendTimeValues("layer0", chunk);
+        BufferedImage appended = render(cached, PAN, PAN + width);
+        assertFalse(ImageProbes.isSameImage(first, appended));
+        assertSameImage(render(uncached, PAN, PAN + width), appended);
+
+        // a removed layer leaves no tiles behind
+        long usedMemory = cached.getTileCache().getUsedMemory();
+        cached.removeLayer("layer1");
+        assertTrue(cached.getTileCache().getUsedMemory() < usedMemory);
+    }
+
+    private static TimelineManager createTimelineManager(long memoryBudget) {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.getTileCache().setMemoryBudget(memoryBudget);
+        timelineManager.getMetrics().setEnabled(true);
+
+        // the names of the layers are equally long, so any of them gives the width of the timeline
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "layer0", new long[]{0}));
+        long width = getTimelineWidth(timelineManager) * TIME_PER_PIXEL;
+        timelineManager.removeLayer("layer0");
+
+        long[] edges = {0, width / 2, width, width + width / 2, PAN, PAN + width};
+        Random random = new Random(11);
+        for (int layer = 0; layer < 3; layer++) {
+            // the first layer ends in the middle of the panned frame, so that values can be appended into it;
+            // the layers have fewer entries than pixels even in a single tile, so no entries are aggregated
+            long end = layer == 0 ? PAN + 10_000 : 1_000_000;
+            long[] values = new long[layer == 0 ? 500 : 2000];
+            for (int i = 0; i < values.length; i++) {
+                do {
+                    values[i] = (long) (random.nextDouble() * end);
+                } while (isNearEdge(values[i], edges));
+            }
+            Arrays.sort(values);
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "layer" + layer, values));
+        }
+        return timelineManager;
+    }
+
+    private static boolean isNearEdge(long time, long[] edges) {
+        for (long edge : edges) {
+            if (Math.abs(time - edge) <= EDGE_GAP) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return count of pixels of the timeline, so that the frames can be chosen with a whole time per pixel
+     */
+    private static int getTimelineWidth(TimelineManager timelineManager) {
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        int width = timelineManager.createFrameLayout(graphics, 0L, 1L, WIDTH, HEIGHT).getViewport().getWidth();
+        graphics.dispose();
+        return width;
+    }
+
+    private static BufferedImage render(TimelineManager timelineManager, long minTime, long maxTime) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setColor(JTimeSelector.BACKGROUND_COLOR);
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        FrameLayout layout = timelineManager.createFrameLayout(graphics, minTime, maxTime, WIDTH, HEIGHT);
+        timelineManager.drawLayers(graphics, layout, image);
+        graphics.dispose();
+        return image;
+    }
+
+    private static void assertSameImage(BufferedImage expected, BufferedImage image) {
+        assertTrue(ImageProbes.isSameImage(expected, image), "The images differ.");
+    }
+}
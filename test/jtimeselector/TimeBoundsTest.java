@@ -0,0 +1,100 @@
+package jtimeselector;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import jtimeselector.layers.Layer;
+import jtimeselector.layers.LayerRows;
+import jtimeselector.layers.TimeEntryLayer;
+import jtimeselector.layers.TimelineManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimeBoundsTest {
+    /**
+     * Test of getMinTime and getMaxTime methods, of class TimelineManager, while the layers change.
+     */
+    @Test
+    public void testBoundsFollowChangesOfLayers() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "a", new long[]{10L, 20L}, RetentionPolicy.ofMaxCount(2)));
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "b", new long[]{15L, 30L}));
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "empty", new long[0]));
+        assertEquals(10L, timelineManager.getMinTime());
+        assertEquals(30L, timelineManager.getMaxTime());
+
+        // the oldest value of the layer holding the minimum is evicted
+        timelineManager.appendTimeValues("a", new long[]{40L});
+        assertEquals(15L, timelineManager.getMinTime());
+        assertEquals(40L, timelineManager.getMaxTime());
+
+        timelineManager.appendTimeValues("empty", new long[]{5L});
+        assertEquals(5L, timelineManager.getMinTime());
+
+        timelineManager.updateLayers(false, List.of("empty"), List.of(new TimeEntryLayer(timelineManager, visibleAreaManager, "a", new long[]{25L})));
+        assertEquals(15L, timelineManager.getMinTime());
+        assertEquals(30L, timelineManager.getMaxTime());
+
+        timelineManager.removeLayer("b");
+        assertEquals(25L, timelineManager.getMinTime());
+        assertEquals(25L, timelineManager.getMaxTime());
+    }
+
+    /**
+     * Test of updateMinAndMaxTime method, of class VisibleAreaManager, with a layer which removes its oldest values.
+     */
+    @Test
+    public void testVisibleAreaFollowsRetainedValues() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "a", new long[]{1000L, 2000L}));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        assertEquals(0L, visibleAreaManager.getCurrentMinTime());
+
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "b", new long[]{500L, 1500L}, RetentionPolicy.ofMaxCount(2)));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        assertEquals(500L, visibleAreaManager.getCurrentMinTime());
+        assertEquals(2000L, visibleAreaManager.getCurrentMaxTime());
+
+        timelineManager.appendTimeValues("b", new long[]{2500L, 3000L});
+        assertTrue(visibleAreaManager.updateMinAndMaxTime(timelineManager));
+        assertEquals(1000L, visibleAreaManager.getCurrentMinTime());
+        assertEquals(3000L, visibleAreaManager.getCurrentMaxTime());
+
+        timelineManager.removeLayer("b");
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        assertEquals(0L, visibleAreaManager.getCurrentMinTime());
+    }
+
+    /**
+     * Test of appendTimeValues method, of class TimelineManager, with the area which needs to be repainted.
+     */
+    @Test
+    public void testAppendedChunkChangesItsArea() {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "a", new long[]{0L, 400L}));
+        timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "b", new long[]{0L, 1000L}));
+        visibleAreaManager.updateMinAndMaxTime(timelineManager);
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        timelineManager.createFrameLayout(graphics, 800, 200);
+        graphics.dispose();
+
+        // the chunk inside the visible area changes the row of its layer between its first and last marker
+        Rectangle area = timelineManager.appendTimeValues("a", new long[]{500L, 600L});
+        LayerRows rows = timelineManager.getRows();
+        int left = timelineManager.getLegendWidth() + timelineManager.getXForTime(500L) - 2 * Layer.BRG_RECT_WIDTH;
+        int right = timelineManager.getLegendWidth() + timelineManager.getXForTime(600L) + 2 * Layer.BRG_RECT_WIDTH;
+        assertEquals(new Rectangle(left, rows.getTop(0), right - left, rows.getHeight(0)), area);
+
+        // the chunk after the visible area changes nothing until the view is fitted to the layers again
+        assertNull(timelineManager.appendTimeValues("a", new long[]{1500L, 2000L}));
+        assertNull(timelineManager.appendTimeValues("a", new long[0]));
+    }
+}
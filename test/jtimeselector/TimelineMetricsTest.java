@@ -0,0 +1,74 @@
+package jtimeselector;
+
+import jtimeselector.metrics.DurationHistogram;
+import jtimeselector.metrics.MetricsSnapshot;
+import jtimeselector.metrics.TimelineMetrics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimelineMetricsTest {
+    /**
+     * Test of startTiming method, of class TimelineMetrics.
+     */
+    @Test
+    public void testDisabledMetricsRecordNothing() {
+        TimelineMetrics metrics = new TimelineMetrics();
+        metrics.recordFrame(metrics.startTiming());
+        metrics.recordEntries("layer", 10, 5);
+        metrics.recordTileRequest(true);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.getFrameCount());
+        assertEquals(0, snapshot.getEntriesDrawn());
+        assertEquals(0, snapshot.getTileCacheHits());
+    }
+
+    /**
+     * Test of snapshot method, of class TimelineMetrics.
+     */
+    @Test
+    public void testSnapshot() {
+        TimelineMetrics metrics = new TimelineMetrics();
+        metrics.setEnabled(true);
+        metrics.recordEntries("first", 10, 5);
+        metrics.recordEntries("second", 2, 0);
+        metrics.recordEntries("first", 1, 1);
+        metrics.recordTileRequest(true);
+        metrics.recordTileRequest(true);
+        metrics.recordTileRequest(true);
+        metrics.recordTileRequest(false);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(13, snapshot.getEntriesDrawn());
+        assertEquals(6, snapshot.getEntriesSkipped());
+        assertEquals(11L, snapshot.getEntriesDrawnPerLayer().get("first"));
+        assertEquals(.75, snapshot.getTileCacheHitRate());
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().getEntriesDrawn());
+    }
+
+    /**
+     * Test of record method, of class DurationHistogram.
+     */
+    @Test
+    public void testHistogramBuckets() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000_000);
+        }
+        histogram.record(1_000_000_000);
+        histogram.record(1L << 40);
+
+        long[] buckets = histogram.getBucketCounts();
+        assertEquals(99, buckets[10]);
+        assertEquals(1, buckets[20]);
+        assertEquals(1, buckets[DurationHistogram.BUCKET_COUNT - 1]);
+        assertTrue(DurationHistogram.getBucketUpperBound(10) >= 1_000_000);
+        assertTrue(DurationHistogram.getBucketUpperBound(9) < 1_000_000);
+        assertEquals(101, histogram.getCount());
+        assertEquals(1L << 40, histogram.getMaxNanos());
+    }
+}
@@ -0,0 +1,90 @@
+package jtimeselector;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ValueGraphLayerTest {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 100;
+
+    /**
+     * Test of addValueGraphLayer method, of class TimelineRenderer, with many more values than pixels.
+     */
+    @Test
+    public void testExtremesAreNotLostByDecimation() {
+        int count = 100_000;
+        long[] timeValues = new long[count];
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            timeValues[i] = i;
+            values[i] = Math.sin(i / 500.0) * 0.1;
+        }
+        // single entries far above and below all the others
+        values[12_345] = -1;
+        values[54_321] = 1;
+
+        TimelineRenderer renderer = new TimelineRenderer();
+        renderer.addValueGraphLayer("v", timeValues, values);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        renderer.render(image);
+
+        int top = HEIGHT;
+        int bottom = -1;
+        int topX = -1;
+        int bottomX = -1;
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                if (!ImageProbes.isEntry(image.getRGB(x, y))) continue;
+                if (y < top) {
+                    top = y;
+                    topX = x;
+                }
+                if (y > bottom) {
+                    bottom = y;
+                    bottomX = x;
+                }
+            }
+        }
+
+        // the extremes span the whole graph, at most one pixel is lost by the antialiasing
+        assertTrue(bottom - top >= 50, "graph spans only " + (bottom - top) + " pixels");
+        assertTrue(topX > bottomX);
+        assertEquals(54_321.0 / 12_345.0, (topX - firstLineX(image)) / (double) (bottomX - firstLineX(image)), 0.1);
+    }
+
+    /**
+     * Test of addValueGraphLayer method, of class TimelineRenderer, with arrays of different lengths.
+     */
+    @Test
+    public void testDifferentLengthsAreRejected() {
+        TimelineRenderer renderer = new TimelineRenderer();
+        assertThrows(IllegalArgumentException.class, () -> renderer.addValueGraphLayer("v", new long[]{1L, 2L}, new double[]{1}));
+    }
+
+    /**
+     * Test of addValueGraphLayer method, of class TimelineRenderer, with unsorted time values or a NaN value.
+     */
+    @Test
+    public void testInvalidValuesAreRejected() {
+        TimelineRenderer renderer = new TimelineRenderer();
+        assertThrows(IllegalArgumentException.class, () -> renderer.addValueGraphLayer("v", new long[]{2L, 1L}, new double[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> renderer.addValueGraphLayer("v", new long[]{1L, 2L}, new double[]{1, Double.NaN}));
+
+        // equal time values are sorted
+        renderer.addValueGraphLayer("v", new long[]{1L, 1L, 2L}, new double[]{1, 3, 2});
+    }
+
+    private static int firstLineX(BufferedImage image) {
+        for (int x = 0; x < WIDTH; x++) {
+            if (ImageProbes.columnHas(image, x, ImageProbes::isEntry)) {
+                return x;
+            }
+        }
+        return -1;
+    }
+}
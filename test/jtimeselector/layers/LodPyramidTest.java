@@ -0,0 +1,50 @@
+package jtimeselector.layers;
+
+import java.util.Random;
+
+import com.vorono4ka.LongList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LodPyramidTest {
+    private static final int COUNT = 4_000_000;
+
+    /**
+     * Test of getByteSize method, of class LodPyramid.
+     */
+    @Test
+    public void testLevelsTakeLessMemoryThanValues() {
+        LodPyramid pyramid = new LodPyramid(createValues());
+
+        // the bound stated by the documentation of the class
+        double bytesPerValue = pyramid.getByteSize() / (double) COUNT;
+        assertTrue(bytesPerValue <= 5, "The pyramid takes " + bytesPerValue + " bytes per value.");
+    }
+
+    /**
+     * Test of getLevel method, of class LodPyramid.
+     */
+    @Test
+    public void testFinestLevelAggregatesSeveralValues() {
+        LongList values = createValues();
+        LodPyramid pyramid = new LodPyramid(values);
+
+        // the values are about 1000 apart, a bucket of the finest level covers at least eight of them
+        assertNull(pyramid.getLevel(1000));
+        LodPyramid.Level level = pyramid.getLevel(1L << 20);
+        assertNotNull(level);
+        assertTrue(level.size() <= COUNT / 8);
+    }
+
+    private static LongList createValues() {
+        Random random = new Random(3);
+        long[] array = new long[COUNT];
+        for (int i = 1; i < COUNT; i++) {
+            array[i] = array[i - 1] + 500 + random.nextInt(1000);
+        }
+        return new LongList(array);
+    }
+}
@@ -0,0 +1,169 @@
+package jtimeselector.layers;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.vorono4ka.LongList;
+import com.vorono4ka.interfaces.LongSequence;
+import jtimeselector.JTimeSelector;
+import jtimeselector.LayerSelection;
+import jtimeselector.RenderingEngine;
+import jtimeselector.VisibleAreaManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelRenderingTest {
+    private static final int WIDTH = 600;
+    private static final int HEIGHT = 400;
+    private static final long MAX_TIME = 1_000_000;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    /**
+     * Test of drawLayers method, of class TimelineManager, with the layers drawn in parallel.
+     */
+    @Test
+    public void testParallelStripsLookLikeSequentialDrawing() {
+        for (RenderingEngine engine : RenderingEngine.values()) {
+            TimelineManager sequential = createTimelineManager(engine, false);
+            TimelineManager parallel = createTimelineManager(engine, true);
+            BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            render(sequential, expected);
+            render(parallel, image);
+            assertArrayEquals(getPixels(expected), getPixels(image), engine.toString());
+        }
+    }
+
+    /**
+     * Test of drawLayers method, of class TimelineManager, with a frame interrupted while its strips are drawn.
+     */
+    @Test
+    public void testInterruptedFrameCancelsStrips() throws Exception {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.setParallelRendering(true);
+        CountDownLatch started = new CountDownLatch(1);
+        SlowLayer[] layers = new SlowLayer[4];
+        for (int i = 0; i < layers.length; i++) {
+            layers[i] = new SlowLayer(timelineManager, visibleAreaManager, "slow" + i, started);
+            timelineManager.addLayer(layers[i]);
+        }
+
+        Thread frame = new Thread(() -> render(timelineManager, new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB)));
+        frame.start();
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        frame.interrupt();
+        frame.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertFalse(frame.isAlive());
+
+        // the strips stop drawing and release the layers, so that values can be appended to them
+        for (SlowLayer layer : layers) {
+            Lock lock = layer.getLock().writeLock();
+            assertTrue(lock.tryLock(TIMEOUT_SECONDS, TimeUnit.SECONDS), layer.getName());
+            lock.unlock();
+            assertFalse(layer.completed, layer.getName());
+        }
+    }
+
+    private static TimelineManager createTimelineManager(RenderingEngine engine, boolean parallel) {
+        VisibleAreaManager visibleAreaManager = new VisibleAreaManager();
+        TimelineManager timelineManager = new TimelineManager(visibleAreaManager, null);
+        timelineManager.setRenderingEngine(engine);
+        timelineManager.setParallelRendering(parallel);
+
+        Random random = new Random(3);
+        for (int layer = 0; layer < 6; layer++) {
+            long[] values = new long[100 << layer];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (long) (random.nextDouble() * MAX_TIME);
+            }
+            Arrays.sort(values);
+            timelineManager.addLayer(new TimeEntryLayer(timelineManager, visibleAreaManager, "layer" + layer, values));
+        }
+        timelineManager.setLayerHeight("layer2", 60);
+        return timelineManager;
+    }
+
+    private static void render(TimelineManager timelineManager, BufferedImage image) {
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setColor(JTimeSelector.BACKGROUND_COLOR);
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        FrameLayout layout = timelineManager.createFrameLayout(graphics, 0, MAX_TIME, WIDTH, HEIGHT);
+        timelineManager.drawLayers(graphics, layout, image);
+        graphics.dispose();
+    }
+
+    private static int[] getPixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    /**
+     * Layer whose entries are drawn until the drawing thread is interrupted.
+     */
+    private static class SlowLayer extends Layer {
+        private final CountDownLatch started;
+        private volatile boolean completed;
+
+        SlowLayer(TimelineManager timelineManager, VisibleAreaManager visibleAreaManager, String name, CountDownLatch started) {
+            super(timelineManager, visibleAreaManager, name, 30);
+            this.started = started;
+        }
+
+        @Override
+        void drawEntries(Graphics2D graphics, MarkerPainter markers, Viewport viewport, int x, int y) {
+            started.countDown();
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(2 * TIMEOUT_SECONDS);
+            while (System.nanoTime() < end) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                Thread.onSpinWait();
+            }
+            completed = true;
+        }
+
+        @Override
+        long getMaxTimeValue() {
+            return MAX_TIME;
+        }
+
+        @Override
+        long getMinTimeValue() {
+            return 0;
+        }
+
+        @Override
+        LongSequence getTimeValues() {
+            return new LongList(new long[]{0, MAX_TIME});
+        }
+
+        @Override
+        int lowerBound(long time) {
+            return time <= 0 ? 0 : time <= MAX_TIME ? 1 : 2;
+        }
+
+        @Override
+        int upperBound(long time) {
+            return time < 0 ? 0 : time < MAX_TIME ? 1 : 2;
+        }
+
+        @Override
+        void drawTimeSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        }
+
+        @Override
+        void drawIntervalSelectionEffect(Graphics2D graphics, LayerSelection selection, int y) {
+        }
+    }
+}